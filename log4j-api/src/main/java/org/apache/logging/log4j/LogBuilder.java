@@ -130,6 +130,66 @@ public interface LogBuilder {
     default void log(final String message, final Object p0) {
     }
 
+    /**
+     * Logs a message with a {@code long} parameter, without boxing it if the implementation can avoid it. Interface
+     * default method boxes the parameter and calls {@link #log(String, Object)}.
+     *
+     * @param message the message to log; the format depends on the message factory.
+     * @param p0 parameter to the message.
+     * @since 3.0.0
+     */
+    default void log(final String message, final long p0) {
+        log(message, (Object) p0);
+    }
+
+    /**
+     * Logs a message with a {@code double} parameter, without boxing it if the implementation can avoid it. Interface
+     * default method boxes the parameter and calls {@link #log(String, Object)}.
+     *
+     * @param message the message to log; the format depends on the message factory.
+     * @param p0 parameter to the message.
+     * @since 3.0.0
+     */
+    default void log(final String message, final double p0) {
+        log(message, (Object) p0);
+    }
+
+    /**
+     * Logs a message with a {@code float} parameter, without boxing it if the implementation can avoid it. Interface
+     * default method boxes the parameter and calls {@link #log(String, Object)}.
+     *
+     * @param message the message to log; the format depends on the message factory.
+     * @param p0 parameter to the message.
+     * @since 3.0.0
+     */
+    default void log(final String message, final float p0) {
+        log(message, (Object) p0);
+    }
+
+    /**
+     * Logs a message with a {@code boolean} parameter, without boxing it if the implementation can avoid it. Interface
+     * default method boxes the parameter and calls {@link #log(String, Object)}.
+     *
+     * @param message the message to log; the format depends on the message factory.
+     * @param p0 parameter to the message.
+     * @since 3.0.0
+     */
+    default void log(final String message, final boolean p0) {
+        log(message, (Object) p0);
+    }
+
+    /**
+     * Logs a message with a {@code char} parameter, without boxing it if the implementation can avoid it. Interface
+     * default method boxes the parameter and calls {@link #log(String, Object)}.
+     *
+     * @param message the message to log; the format depends on the message factory.
+     * @param p0 parameter to the message.
+     * @since 3.0.0
+     */
+    default void log(final String message, final char p0) {
+        log(message, (Object) p0);
+    }
+
     /**
      * Logs a message with parameters. Interface default method does nothing.
      *
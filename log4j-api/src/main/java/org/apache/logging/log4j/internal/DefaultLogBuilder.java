@@ -21,6 +21,9 @@ import org.apache.logging.log4j.LogBuilder;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.ParameterBuffer;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.LambdaUtil;
@@ -37,6 +40,8 @@ public class DefaultLogBuilder implements LogBuilder {
     private static final String FQCN = DefaultLogBuilder.class.getName();
     private static final Logger LOGGER = StatusLogger.getLogger();
     private static final Message EMPTY_MESSAGE = new SimpleMessage(Strings.EMPTY);
+    // Number of builders a thread can have in use at the same time for a logger before new ones are allocated.
+    private static final int MAX_REENTRANT_DEPTH = 4;
 
     private final Logger logger;
     private Level level;
@@ -45,6 +50,8 @@ public class DefaultLogBuilder implements LogBuilder {
     private StackTraceElement location;
     private volatile boolean inUse;
     private final long threadId;
+    private DefaultLogBuilder next;
+    private ParameterBuffer parameters;
 
     public DefaultLogBuilder(final Logger logger, final Level level) {
         this.logger = logger;
@@ -97,6 +104,26 @@ public class DefaultLogBuilder implements LogBuilder {
         return inUse;
     }
 
+    /**
+     * This method should be considered internal. Returns the first builder of the chain starting at this instance that
+     * is not in use, adding one to the chain if needed, so that logging from within a log call (for example in the
+     * {@code toString()} method of a parameter) can also reuse builders.
+     * @return A builder that is not in use or {@code null} if too many are in use.
+     */
+    public DefaultLogBuilder getAvailable() {
+        DefaultLogBuilder builder = this;
+        for (int depth = 1; builder.inUse; depth++) {
+            if (builder.next == null) {
+                if (depth >= MAX_REENTRANT_DEPTH) {
+                    return null;
+                }
+                builder.next = new DefaultLogBuilder(logger);
+            }
+            builder = builder.next;
+        }
+        return builder;
+    }
+
     @Override
     public void log(final Message message) {
         if (isValid()) {
@@ -153,6 +180,56 @@ public class DefaultLogBuilder implements LogBuilder {
         }
     }
 
+    @Override
+    public void log(final String message, final long p0) {
+        if (isValid()) {
+            final MessageFactory factory = logger.getMessageFactory();
+            logMessage(factory instanceof ReusableMessageFactory
+                    ? ((ReusableMessageFactory) factory).newMessage(message, parameters().add(p0))
+                    : factory.newMessage(message, p0));
+        }
+    }
+
+    @Override
+    public void log(final String message, final double p0) {
+        if (isValid()) {
+            final MessageFactory factory = logger.getMessageFactory();
+            logMessage(factory instanceof ReusableMessageFactory
+                    ? ((ReusableMessageFactory) factory).newMessage(message, parameters().add(p0))
+                    : factory.newMessage(message, p0));
+        }
+    }
+
+    @Override
+    public void log(final String message, final float p0) {
+        if (isValid()) {
+            final MessageFactory factory = logger.getMessageFactory();
+            logMessage(factory instanceof ReusableMessageFactory
+                    ? ((ReusableMessageFactory) factory).newMessage(message, parameters().add(p0))
+                    : factory.newMessage(message, p0));
+        }
+    }
+
+    @Override
+    public void log(final String message, final boolean p0) {
+        if (isValid()) {
+            final MessageFactory factory = logger.getMessageFactory();
+            logMessage(factory instanceof ReusableMessageFactory
+                    ? ((ReusableMessageFactory) factory).newMessage(message, parameters().add(p0))
+                    : factory.newMessage(message, p0));
+        }
+    }
+
+    @Override
+    public void log(final String message, final char p0) {
+        if (isValid()) {
+            final MessageFactory factory = logger.getMessageFactory();
+            logMessage(factory instanceof ReusableMessageFactory
+                    ? ((ReusableMessageFactory) factory).newMessage(message, parameters().add(p0))
+                    : factory.newMessage(message, p0));
+        }
+    }
+
     @Override
     public void log(final String message, final Object p0, final Object p1) {
         if (isValid()) {
@@ -226,6 +303,16 @@ public class DefaultLogBuilder implements LogBuilder {
         }
     }
 
+    // Primitive parameters are copied by the message, so the buffer can be reused right away.
+    private ParameterBuffer parameters() {
+        if (parameters == null) {
+            parameters = new ParameterBuffer();
+        } else {
+            parameters.clear();
+        }
+        return parameters;
+    }
+
     private void logMessage(final Message message) {
         try {
             logger.logMessage(level, marker, FQCN, location, message, throwable);
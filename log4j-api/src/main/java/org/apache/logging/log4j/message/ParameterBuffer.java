@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Mutable list of message parameters that holds primitive values without boxing them. Each parameter is either an
+ * object reference or a primitive value stored in a {@code long} slot together with a type tag, and is formatted
+ * exactly like its boxed counterpart would be.
+ * <p>
+ * Unlike the {@code StringBuilder}s returned by {@link org.apache.logging.log4j.util.Unbox}, the values remain valid
+ * for as long as the buffer is not modified, however many other values are logged in the meantime, so reusable
+ * messages and log events can hand a buffer over to another thread instead of boxing its content into an
+ * {@code Object[]}.
+ * </p><p>
+ * This class is not safe to be accessed or modified by multiple threads concurrently.
+ * </p>
+ *
+ * @see ReusableMessage#swapParameterBuffer(ParameterBuffer)
+ * @since 3.0.0
+ */
+@PerformanceSensitive("allocation")
+public final class ParameterBuffer {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte FLOAT = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte CHAR = 5;
+
+    private Object[] objects;
+    private long[] values;
+    private byte[] types;
+    private int size;
+
+    /**
+     * Creates an empty buffer.
+     */
+    public ParameterBuffer() {
+        objects = new Object[DEFAULT_CAPACITY];
+        values = new long[DEFAULT_CAPACITY];
+        types = new byte[DEFAULT_CAPACITY];
+    }
+
+    private int next(final byte type) {
+        if (size == types.length) {
+            final int capacity = size << 1;
+            objects = Arrays.copyOf(objects, capacity);
+            values = Arrays.copyOf(values, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        types[size] = type;
+        return size++;
+    }
+
+    /**
+     * Appends an object parameter.
+     *
+     * @param value the parameter value
+     * @return this buffer
+     */
+    public ParameterBuffer add(final Object value) {
+        final int index = next(OBJECT);
+        objects[index] = value;
+        return this;
+    }
+
+    /**
+     * Appends a {@code long} parameter, which is also used for {@code int}, {@code short} and {@code byte} values.
+     *
+     * @param value the parameter value
+     * @return this buffer
+     */
+    public ParameterBuffer add(final long value) {
+        final int index = next(LONG);
+        values[index] = value;
+        return this;
+    }
+
+    /**
+     * Appends a {@code double} parameter.
+     *
+     * @param value the parameter value
+     * @return this buffer
+     */
+    public ParameterBuffer add(final double value) {
+        final int index = next(DOUBLE);
+        values[index] = Double.doubleToRawLongBits(value);
+        return this;
+    }
+
+    /**
+     * Appends a {@code float} parameter.
+     *
+     * @param value the parameter value
+     * @return this buffer
+     */
+    public ParameterBuffer add(final float value) {
+        final int index = next(FLOAT);
+        values[index] = Float.floatToRawIntBits(value);
+        return this;
+    }
+
+    /**
+     * Appends a {@code boolean} parameter.
+     *
+     * @param value the parameter value
+     * @return this buffer
+     */
+    public ParameterBuffer add(final boolean value) {
+        final int index = next(BOOLEAN);
+        values[index] = value ? 1 : 0;
+        return this;
+    }
+
+    /**
+     * Appends a {@code char} parameter.
+     *
+     * @param value the parameter value
+     * @return this buffer
+     */
+    public ParameterBuffer add(final char value) {
+        final int index = next(CHAR);
+        values[index] = value;
+        return this;
+    }
+
+    /**
+     * Returns the number of parameters in this buffer.
+     *
+     * @return the number of parameters
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if the specified parameter is a primitive value.
+     *
+     * @param index the parameter index
+     * @return {@code true} if the parameter is a primitive value, {@code false} if it is an object
+     */
+    public boolean isPrimitive(final int index) {
+        checkIndex(index);
+        return types[index] != OBJECT;
+    }
+
+    /**
+     * Returns the specified parameter. Primitive values are boxed, which may allocate.
+     *
+     * @param index the parameter index
+     * @return the parameter value
+     */
+    public Object get(final int index) {
+        checkIndex(index);
+        final long value = values[index];
+        switch (types[index]) {
+            case LONG:
+                return value;
+            case DOUBLE:
+                return Double.longBitsToDouble(value);
+            case FLOAT:
+                return Float.intBitsToFloat((int) value);
+            case BOOLEAN:
+                return value != 0;
+            case CHAR:
+                return (char) value;
+            default:
+                return objects[index];
+        }
+    }
+
+    /**
+     * Appends the specified parameter to the specified {@code StringBuilder} the same way a {@code {}} placeholder
+     * would be replaced by it. Primitive values are appended without allocating.
+     *
+     * @param index the parameter index
+     * @param buffer the buffer to append to
+     */
+    public void formatTo(final int index, final StringBuilder buffer) {
+        checkIndex(index);
+        final long value = values[index];
+        switch (types[index]) {
+            case LONG:
+                buffer.append(value);
+                break;
+            case DOUBLE:
+                buffer.append(Double.longBitsToDouble(value));
+                break;
+            case FLOAT:
+                buffer.append(Float.intBitsToFloat((int) value));
+                break;
+            case BOOLEAN:
+                buffer.append(value != 0);
+                break;
+            case CHAR:
+                buffer.append((char) value);
+                break;
+            default:
+                ParameterFormatter.recursiveDeepToString(objects[index], buffer);
+        }
+    }
+
+    /**
+     * Returns the parameters of this buffer in a new array, boxing primitive values.
+     *
+     * @return a new array with the parameters of this buffer
+     */
+    public Object[] toArray() {
+        final Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the content of the specified buffer with the content of this buffer.
+     *
+     * @param destination the buffer to copy the parameters of this buffer to
+     */
+    public void copyTo(final ParameterBuffer destination) {
+        destination.clear();
+        if (destination.types.length < size) {
+            destination.objects = new Object[size];
+            destination.values = new long[size];
+            destination.types = new byte[size];
+        }
+        System.arraycopy(objects, 0, destination.objects, 0, size);
+        System.arraycopy(values, 0, destination.values, 0, size);
+        System.arraycopy(types, 0, destination.types, 0, size);
+        destination.size = size;
+    }
+
+    /**
+     * Removes all parameters from this buffer, releasing the references it holds.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -66,37 +66,61 @@ final class ParameterFormatter {
                     .ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ")
                     .withZone(ZoneId.systemDefault());
 
+    /**
+     * Number of slots in {@link #TEMPLATE_CACHE}, must be a power of two.
+     */
+    private static final int TEMPLATE_CACHE_SIZE = 1024;
+
+    /**
+     * Patterns longer than this are not cached, since they are unlikely to be compile-time constants.
+     */
+    private static final int MAX_CACHED_PATTERN_LENGTH = 1024;
+
+    /**
+     * Direct-mapped cache of parsed message patterns. A slot is only filled once, so that colliding patterns do not
+     * evict each other and parse again on every use. Templates are immutable and only have final fields, hence they
+     * can be published through racy writes to the array.
+     */
+    private static final PatternTemplate[] TEMPLATE_CACHE = new PatternTemplate[TEMPLATE_CACHE_SIZE];
+
     private ParameterFormatter() {
     }
 
     /**
-     * Counts the number of unescaped placeholders in the given messagePattern.
+     * Returns the parsed template of the given message pattern, either from the cache or by parsing it.
      *
-     * @param messagePattern the message pattern to be analyzed.
-     * @return the number of unescaped placeholders.
+     * @param messagePattern the message pattern to be parsed, may be {@code null}.
+     * @return the template, never {@code null}.
      */
-    static int countArgumentPlaceholders(final String messagePattern) {
+    static PatternTemplate template(final String messagePattern) {
+        final PatternTemplate template = cachedTemplate(messagePattern);
+        return template != null ? template : PatternTemplate.parse(messagePattern);
+    }
+
+    /**
+     * Returns the parsed template of the given message pattern if it is cached, or can be cached because its slot is
+     * still free. Patterns that cannot be cached are not parsed, so that callers can fall back to formatting without
+     * allocating.
+     *
+     * @param messagePattern the message pattern to be parsed, may be {@code null}.
+     * @return the template, or {@code null} if the pattern is not cached.
+     */
+    static PatternTemplate cachedTemplate(final String messagePattern) {
         if (messagePattern == null) {
-            return 0;
+            return PatternTemplate.NULL;
         }
-        final int length = messagePattern.length();
-        int result = 0;
-        boolean isEscaped = false;
-        for (int i = 0; i < length - 1; i++) {
-            final char curChar = messagePattern.charAt(i);
-            if (curChar == ESCAPE_CHAR) {
-                isEscaped = !isEscaped;
-            } else if (curChar == DELIM_START) {
-                if (!isEscaped && messagePattern.charAt(i + 1) == DELIM_STOP) {
-                    result++;
-                    i++;
-                }
-                isEscaped = false;
-            } else {
-                isEscaped = false;
-            }
+        final int hash = messagePattern.hashCode();
+        final int slot = (hash ^ (hash >>> 16)) & (TEMPLATE_CACHE_SIZE - 1);
+        final PatternTemplate cachedTemplate = TEMPLATE_CACHE[slot];
+        if (cachedTemplate != null) {
+            return messagePattern.equals(cachedTemplate.pattern) ? cachedTemplate : null;
         }
-        return result;
+        if (messagePattern.length() > MAX_CACHED_PATTERN_LENGTH) {
+            return null;
+        }
+        final PatternTemplate template = PatternTemplate.parse(messagePattern);
+        TEMPLATE_CACHE[slot] = template;
+        return template;
     }
 
     /**
@@ -105,7 +129,7 @@ final class ParameterFormatter {
      * @param messagePattern the message pattern to be analyzed.
      * @return the number of unescaped placeholders.
      */
-    static int countArgumentPlaceholders2(final String messagePattern, final int[] indices) {
+    static int countArgumentPlaceholders(final String messagePattern) {
         if (messagePattern == null) {
             return 0;
         }
@@ -116,11 +140,8 @@ final class ParameterFormatter {
             final char curChar = messagePattern.charAt(i);
             if (curChar == ESCAPE_CHAR) {
                 isEscaped = !isEscaped;
-                indices[0] = -1; // escaping means fast path is not available...
-                result++;
             } else if (curChar == DELIM_START) {
                 if (!isEscaped && messagePattern.charAt(i + 1) == DELIM_STOP) {
-                    indices[result] = i;
                     result++;
                     i++;
                 }
@@ -180,9 +201,12 @@ final class ParameterFormatter {
      * @param messagePattern the message pattern containing placeholders.
      * @param arguments      the arguments to be used to replace placeholders.
      */
-    static void formatMessage2(final StringBuilder buffer, final String messagePattern,
+    static void formatMessage3(final StringBuilder buffer, final char[] messagePattern, final int patternLength,
             final Object[] arguments, final int argCount, final int[] indices) {
-        if (messagePattern == null || arguments == null || argCount == 0) {
+        if (messagePattern == null) {
+            return;
+        }
+        if (arguments == null || argCount == 0) {
             buffer.append(messagePattern);
             return;
         }
@@ -192,7 +216,7 @@ final class ParameterFormatter {
             previous = indices[i] + 2;
             recursiveDeepToString(arguments[i], buffer);
         }
-        buffer.append(messagePattern, previous, messagePattern.length());
+        buffer.append(messagePattern, previous, patternLength);
     }
 
     /**
@@ -202,37 +226,34 @@ final class ParameterFormatter {
      * @param messagePattern the message pattern containing placeholders.
      * @param arguments      the arguments to be used to replace placeholders.
      */
-    static void formatMessage3(final StringBuilder buffer, final char[] messagePattern, final int patternLength,
-            final Object[] arguments, final int argCount, final int[] indices) {
-        if (messagePattern == null) {
-            return;
-        }
-        if (arguments == null || argCount == 0) {
+    static void formatMessage(final StringBuilder buffer, final String messagePattern,
+            final Object[] arguments, final int argCount) {
+        if (messagePattern == null || arguments == null || argCount == 0) {
             buffer.append(messagePattern);
             return;
         }
-        int previous = 0;
-        for (int i = 0; i < argCount; i++) {
-            buffer.append(messagePattern, previous, indices[i]);
-            previous = indices[i] + 2;
-            recursiveDeepToString(arguments[i], buffer);
-        }
-        buffer.append(messagePattern, previous, patternLength);
+        formatMessage(buffer, messagePattern, arguments, null, argCount);
     }
 
     /**
-     * Replace placeholders in the given messagePattern with arguments.
+     * Replace placeholders in the given messagePattern with arguments held in a {@code ParameterBuffer}, without
+     * boxing primitive values.
      *
      * @param buffer the buffer to write the formatted message into
      * @param messagePattern the message pattern containing placeholders.
      * @param arguments      the arguments to be used to replace placeholders.
      */
     static void formatMessage(final StringBuilder buffer, final String messagePattern,
-            final Object[] arguments, final int argCount) {
+            final ParameterBuffer arguments, final int argCount) {
         if (messagePattern == null || arguments == null || argCount == 0) {
             buffer.append(messagePattern);
             return;
         }
+        formatMessage(buffer, messagePattern, null, arguments, argCount);
+    }
+
+    private static void formatMessage(final StringBuilder buffer, final String messagePattern,
+            final Object[] arguments, final ParameterBuffer parameterBuffer, final int argCount) {
         int escapeCounter = 0;
         int currentArgument = 0;
         int i = 0;
@@ -253,7 +274,11 @@ final class ParameterFormatter {
                         writeDelimPair(buffer);
                     } else {
                         // unescaped
-                        writeArgOrDelimPair(arguments, argCount, currentArgument, buffer);
+                        if (parameterBuffer != null) {
+                            writeArgOrDelimPair(parameterBuffer, argCount, currentArgument, buffer);
+                        } else {
+                            writeArgOrDelimPair(arguments, argCount, currentArgument, buffer);
+                        }
                         currentArgument++;
                     }
                 } else {
@@ -373,6 +398,19 @@ final class ParameterFormatter {
         }
     }
 
+    /**
+     * Appends the argument at the specified argument index (or, if no such argument exists, the "{}" delimiter pair) to
+     * the specified result char array at the specified position and returns the resulting position.
+     */
+    private static void writeArgOrDelimPair(final ParameterBuffer arguments, final int argCount,
+            final int currentArgument, final StringBuilder buffer) {
+        if (currentArgument < argCount) {
+            arguments.formatTo(currentArgument, buffer);
+        } else {
+            writeDelimPair(buffer);
+        }
+    }
+
     /**
      * This method performs a deep toString of the given Object.
      * Primitive arrays are converted using their respective Arrays.toString methods while
@@ -689,4 +727,144 @@ final class ParameterFormatter {
         return obj.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(obj));
     }
 
+
+    /**
+     * A message pattern parsed once into the placeholder offsets of its text with escapes resolved, so that formatting
+     * only copies literal segments and appends arguments.
+     */
+    static final class PatternTemplate {
+
+        private static final PatternTemplate NULL = new PatternTemplate(null, null, new int[0]);
+
+        /**
+         * The original message pattern.
+         */
+        private final String pattern;
+
+        /**
+         * The message pattern with escapes resolved, which is the pattern itself if it contains no escape chars.
+         */
+        private final String text;
+
+        /**
+         * Offsets of the unescaped placeholders in {@link #text}.
+         */
+        private final int[] placeholderIndices;
+
+        private PatternTemplate(final String pattern, final String text, final int[] placeholderIndices) {
+            this.pattern = pattern;
+            this.text = text;
+            this.placeholderIndices = placeholderIndices;
+        }
+
+        private static PatternTemplate parse(final String pattern) {
+            if (pattern.indexOf(ESCAPE_CHAR) < 0) {
+                int[] indices = new int[4];
+                int count = 0;
+                for (int i = pattern.indexOf(DELIM_START); i >= 0 && i < pattern.length() - 1;
+                        i = pattern.indexOf(DELIM_START, i + 1)) {
+                    if (pattern.charAt(i + 1) == DELIM_STOP) {
+                        if (count == indices.length) {
+                            indices = Arrays.copyOf(indices, count << 1);
+                        }
+                        indices[count++] = i;
+                        i++;
+                    }
+                }
+                return new PatternTemplate(pattern, pattern, Arrays.copyOf(indices, count));
+            }
+            return parseEscaped(pattern);
+        }
+
+        /**
+         * Resolves escapes the same way {@link #formatMessage(StringBuilder, String, Object[], int)} does, leaving
+         * unescaped placeholders in place and recording their offsets.
+         */
+        private static PatternTemplate parseEscaped(final String pattern) {
+            final StringBuilder buffer = new StringBuilder(pattern.length());
+            int[] indices = new int[4];
+            int count = 0;
+            int escapeCounter = 0;
+            int i = 0;
+            final int len = pattern.length();
+            for (; i < len - 1; i++) { // last char is excluded from the loop
+                final char curChar = pattern.charAt(i);
+                if (curChar == ESCAPE_CHAR) {
+                    escapeCounter++;
+                } else {
+                    if (isDelimPair(curChar, pattern, i)) { // looks ahead one char
+                        i++;
+                        writeEscapedEscapeChars(escapeCounter, buffer);
+                        if (!isOdd(escapeCounter)) {
+                            if (count == indices.length) {
+                                indices = Arrays.copyOf(indices, count << 1);
+                            }
+                            indices[count++] = buffer.length();
+                        }
+                        writeDelimPair(buffer);
+                    } else {
+                        handleLiteralChar(buffer, escapeCounter, curChar);
+                    }
+                    escapeCounter = 0;
+                }
+            }
+            handleRemainingCharIfAny(pattern, len, buffer, escapeCounter, i);
+            return new PatternTemplate(pattern, buffer.toString(), Arrays.copyOf(indices, count));
+        }
+
+        /**
+         * Returns the number of unescaped placeholders.
+         */
+        int getPlaceholderCount() {
+            return placeholderIndices.length;
+        }
+
+        /**
+         * Replace placeholders with arguments.
+         *
+         * @param buffer the buffer to write the formatted message into
+         * @param arguments the arguments to be used to replace placeholders.
+         * @param argCount the number of arguments to be used.
+         */
+        void format(final StringBuilder buffer, final Object[] arguments, final int argCount) {
+            if (pattern == null || arguments == null || argCount == 0) {
+                buffer.append(pattern);
+                return;
+            }
+            final int substitutionCount = Math.min(argCount, placeholderIndices.length);
+            int previous = 0;
+            for (int i = 0; i < substitutionCount; i++) {
+                final int index = placeholderIndices[i];
+                buffer.append(text, previous, index);
+                previous = index + 2;
+                recursiveDeepToString(arguments[i], buffer);
+            }
+            buffer.append(text, previous, text.length());
+        }
+
+        /**
+         * Replace placeholders with arguments held in a {@code ParameterBuffer}, without boxing primitive values.
+         *
+         * @param buffer the buffer to write the formatted message into
+         * @param arguments the arguments to be used to replace placeholders.
+         * @param argCount the number of arguments to be used.
+         */
+        void format(final StringBuilder buffer, final ParameterBuffer arguments, final int argCount) {
+            if (pattern == null || arguments == null || argCount == 0) {
+                buffer.append(pattern);
+                return;
+            }
+            final int substitutionCount = Math.min(argCount, placeholderIndices.length);
+            int previous = 0;
+            for (int i = 0; i < substitutionCount; i++) {
+                final int index = placeholderIndices[i];
+                buffer.append(text, previous, index);
+                previous = index + 2;
+                arguments.formatTo(i, buffer);
+            }
+            buffer.append(text, previous, text.length());
+        }
+
+    }
+
 }
@@ -76,7 +76,7 @@ public class ParameterizedMessage implements Message, StringBuilderFormattable {
 
     private String formattedMessage;
     private transient Throwable throwable;
-    private int[] indices;
+    private transient ParameterFormatter.PatternTemplate template;
     private int usedCount;
 
     /**
@@ -129,9 +129,8 @@ public class ParameterizedMessage implements Message, StringBuilderFormattable {
 
     private void init(final String messagePattern) {
         this.messagePattern = messagePattern;
-        final int len = Math.max(1, messagePattern == null ? 0 : messagePattern.length() >> 1); // divide by 2
-        this.indices = new int[len]; // LOG4J2-1542 ensure non-zero array length
-        final int placeholders = ParameterFormatter.countArgumentPlaceholders2(messagePattern, indices);
+        this.template = ParameterFormatter.template(messagePattern);
+        final int placeholders = template.getPlaceholderCount();
         initThrowable(argArray, placeholders);
         this.usedCount = Math.min(placeholders, argArray == null ? 0 : argArray.length);
     }
@@ -206,12 +205,11 @@ public class ParameterizedMessage implements Message, StringBuilderFormattable {
     public void formatTo(final StringBuilder buffer) {
         if (formattedMessage != null) {
             buffer.append(formattedMessage);
+        } else if (template == null) {
+            // deserialized without its arguments
+            buffer.append(messagePattern);
         } else {
-            if (indices[0] < 0) {
-                ParameterFormatter.formatMessage(buffer, messagePattern, argArray, usedCount);
-            } else {
-                ParameterFormatter.formatMessage2(buffer, messagePattern, argArray, usedCount, indices);
-            }
+            template.format(buffer, argArray, usedCount);
         }
     }
 
@@ -52,6 +52,27 @@ public interface ReusableMessage extends Message, StringBuilderFormattable {
      */
     Object[] swapParameters(Object[] emptyReplacement);
 
+    /**
+     * Returns the parameter buffer that holds the parameters of this reusable message, if any, and replaces it with
+     * the specified buffer. The returned buffer will no longer be modified by this reusable message. The specified
+     * buffer is now "owned" by this reusable message, which may also discard it.
+     * <p>
+     * Messages initialized with primitive parameters may keep them unboxed in a {@link ParameterBuffer}. For such
+     * messages, this method should be preferred to {@link #swapParameters(Object[])}, which has to box them. Other
+     * messages return {@code null} and do not keep the specified buffer: callers should then use
+     * {@link #swapParameters(Object[])}.
+     * </p>
+     *
+     * @param emptyReplacement the buffer that can be used for subsequent uses of this reusable message, may be
+     *         {@code null}
+     * @return the parameter buffer for the current message content or {@code null} if this message does not hold
+     *         its parameters in a buffer
+     * @since 3.0.0
+     */
+    default ParameterBuffer swapParameterBuffer(final ParameterBuffer emptyReplacement) {
+        return null;
+    }
+
     /**
      * Returns the number of parameters that was used to initialize this reusable message for the current content.
      * <p>
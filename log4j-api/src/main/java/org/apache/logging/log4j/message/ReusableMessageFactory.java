@@ -110,6 +110,19 @@ public final class ReusableMessageFactory implements MessageFactory, Serializabl
         return getParameterized().set(message, params);
     }
 
+    /**
+     * Creates {@link ReusableParameterizedMessage} instances from parameters held in a buffer. The buffer is copied,
+     * and primitive parameters are formatted without being boxed.
+     *
+     * @param message The message pattern.
+     * @param params The message parameters.
+     * @return The Message.
+     * @since 3.0.0
+     */
+    public Message newMessage(final String message, final ParameterBuffer params) {
+        return getParameterized().set(message, params);
+    }
+
     @Override
     public Message newMessage(final String message, final Object p0) {
         return getParameterized().set(message, p0);
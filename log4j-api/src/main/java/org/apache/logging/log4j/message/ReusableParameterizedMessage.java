@@ -40,9 +40,11 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
     private String messagePattern;
     private int argCount;
     private int usedCount;
-    private final int[] indices = new int[256];
+    private transient ParameterFormatter.PatternTemplate template;
     private transient Object[] varargs;
     private transient Object[] params = new Object[MAX_PARMS];
+    private transient ParameterBuffer parameterBuffer;
+    private transient boolean unboxed;
     private transient Throwable throwable;
     transient boolean reserved = false; // LOG4J2-1583 prevent scrambled logs with nested logging calls
 
@@ -53,6 +55,9 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
     }
 
     private Object[] getTrimmedParams() {
+        if (unboxed) {
+            return parameterBuffer.toArray();
+        }
         return varargs == null ? Arrays.copyOf(params, argCount) : varargs;
     }
 
@@ -64,7 +69,13 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
     @Override
     public Object[] swapParameters(final Object[] emptyReplacement) {
         Object[] result;
-        if (varargs == null) {
+        if (unboxed) {
+            // callers unaware of swapParameterBuffer() get boxed copies of the primitive parameters
+            result = argCount <= emptyReplacement.length ? emptyReplacement : new Object[argCount];
+            for (int i = 0; i < argCount; i++) {
+                result[i] = parameterBuffer.get(i);
+            }
+        } else if (varargs == null) {
             result = params;
             if (emptyReplacement.length >= MAX_PARMS) {
                 params = emptyReplacement;
@@ -102,6 +113,18 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         return result;
     }
 
+    // see interface javadoc
+    @Override
+    public ParameterBuffer swapParameterBuffer(final ParameterBuffer emptyReplacement) {
+        if (!unboxed) {
+            return null;
+        }
+        final ParameterBuffer result = parameterBuffer;
+        parameterBuffer = emptyReplacement;
+        unboxed = false;
+        return result;
+    }
+
     // see interface javadoc
     @Override
     public short getParameterCount() {
@@ -110,6 +133,12 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
 
     @Override
     public <S> void forEachParameter(final ParameterConsumer<S> action, final S state) {
+        if (unboxed) {
+            for (short i = 0; i < argCount; i++) {
+                action.accept(parameterBuffer.get(i), i, state);
+            }
+            return;
+        }
         final Object[] parameters = getParams();
         for (short i = 0; i < argCount; i++) {
             action.accept(parameters[i], i, state);
@@ -121,48 +150,66 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         return new ParameterizedMessage(messagePattern, getTrimmedParams());
     }
 
-    private void init(final String messagePattern, final int argCount, final Object[] paramArray) {
+    private void init(final String messagePattern, final int argCount, final Object lastArgument) {
         this.varargs = null;
+        this.unboxed = false;
         this.messagePattern = messagePattern;
         this.argCount = argCount;
-        final int placeholderCount = count(messagePattern, indices);
-        initThrowable(paramArray, argCount, placeholderCount);
+        // patterns that are not cached are scanned on each use rather than parsed, which would allocate
+        this.template = ParameterFormatter.cachedTemplate(messagePattern);
+        final int placeholderCount = template != null
+                ? template.getPlaceholderCount()
+                : ParameterFormatter.countArgumentPlaceholders(messagePattern);
+        initThrowable(lastArgument, argCount, placeholderCount);
         this.usedCount = Math.min(placeholderCount, argCount);
     }
 
-    private static int count(final String messagePattern, final int[] indices) {
-        try {
-            // try the fast path first
-            return ParameterFormatter.countArgumentPlaceholders2(messagePattern, indices);
-        } catch (final Exception ex) { // fallback if more than int[] length (256) parameter placeholders
-            return ParameterFormatter.countArgumentPlaceholders(messagePattern);
-        }
-    }
-
-    private void initThrowable(final Object[] params, final int argCount, final int usedParams) {
-        if (usedParams < argCount && params[argCount - 1] instanceof Throwable) {
-            this.throwable = (Throwable) params[argCount - 1];
+    private void initThrowable(final Object lastArgument, final int argCount, final int usedParams) {
+        if (usedParams < argCount && lastArgument instanceof Throwable) {
+            this.throwable = (Throwable) lastArgument;
         } else {
             this.throwable = null;
         }
     }
 
     protected ReusableParameterizedMessage set(final String messagePattern, final Object... arguments) {
-        init(messagePattern, arguments == null ? 0 : arguments.length, arguments);
+        final int argCount = arguments == null ? 0 : arguments.length;
+        init(messagePattern, argCount, argCount == 0 ? null : arguments[argCount - 1]);
         varargs = arguments;
         return this;
     }
 
+    /**
+     * Initializes this message with parameters held in a buffer, which is copied so that primitive parameters are
+     * formatted and handed over to asynchronous loggers without being boxed.
+     *
+     * @param messagePattern the message pattern
+     * @param arguments the message parameters
+     * @return this message
+     * @since 3.0.0
+     */
+    protected ReusableParameterizedMessage set(final String messagePattern, final ParameterBuffer arguments) {
+        if (parameterBuffer == null) {
+            parameterBuffer = new ParameterBuffer();
+        }
+        arguments.copyTo(parameterBuffer);
+        final int last = parameterBuffer.size() - 1;
+        init(messagePattern, last + 1,
+                last < 0 || parameterBuffer.isPrimitive(last) ? null : parameterBuffer.get(last));
+        unboxed = true;
+        return this;
+    }
+
     protected ReusableParameterizedMessage set(final String messagePattern, final Object p0) {
         params[0] = p0;
-        init(messagePattern, 1, params);
+        init(messagePattern, 1, p0);
         return this;
     }
 
     protected ReusableParameterizedMessage set(final String messagePattern, final Object p0, final Object p1) {
         params[0] = p0;
         params[1] = p1;
-        init(messagePattern, 2, params);
+        init(messagePattern, 2, p1);
         return this;
     }
 
@@ -170,7 +217,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         params[0] = p0;
         params[1] = p1;
         params[2] = p2;
-        init(messagePattern, 3, params);
+        init(messagePattern, 3, p2);
         return this;
     }
 
@@ -179,7 +226,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         params[1] = p1;
         params[2] = p2;
         params[3] = p3;
-        init(messagePattern, 4, params);
+        init(messagePattern, 4, p3);
         return this;
     }
 
@@ -189,7 +236,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         params[2] = p2;
         params[3] = p3;
         params[4] = p4;
-        init(messagePattern, 5, params);
+        init(messagePattern, 5, p4);
         return this;
     }
 
@@ -200,7 +247,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         params[3] = p3;
         params[4] = p4;
         params[5] = p5;
-        init(messagePattern, 6, params);
+        init(messagePattern, 6, p5);
         return this;
     }
 
@@ -213,7 +260,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         params[4] = p4;
         params[5] = p5;
         params[6] = p6;
-        init(messagePattern, 7, params);
+        init(messagePattern, 7, p6);
         return this;
     }
 
@@ -227,7 +274,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         params[5] = p5;
         params[6] = p6;
         params[7] = p7;
-        init(messagePattern, 8, params);
+        init(messagePattern, 8, p7);
         return this;
     }
 
@@ -242,7 +289,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         params[6] = p6;
         params[7] = p7;
         params[8] = p8;
-        init(messagePattern, 9, params);
+        init(messagePattern, 9, p8);
         return this;
     }
 
@@ -258,7 +305,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         params[7] = p7;
         params[8] = p8;
         params[9] = p9;
-        init(messagePattern, 10, params);
+        init(messagePattern, 10, p9);
         return this;
     }
 
@@ -323,10 +370,16 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
 
     @Override
     public void formatTo(final StringBuilder builder) {
-        if (indices[0] < 0) {
-            ParameterFormatter.formatMessage(builder, messagePattern, getParams(), argCount);
+        if (template == null) {
+            if (unboxed) {
+                ParameterFormatter.formatMessage(builder, messagePattern, parameterBuffer, usedCount);
+            } else {
+                ParameterFormatter.formatMessage(builder, messagePattern, getParams(), usedCount);
+            }
+        } else if (unboxed) {
+            template.format(builder, parameterBuffer, usedCount);
         } else {
-            ParameterFormatter.formatMessage2(builder, messagePattern, getParams(), usedCount, indices);
+            template.format(builder, getParams(), usedCount);
         }
     }
 
@@ -352,7 +405,9 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
         // reusable message, which is responsible for clearing references.
         reserved = false;
         varargs = null;
+        unboxed = false;
         messagePattern = null;
+        template = null;
         throwable = null;
     }
 }
@@ -2833,11 +2833,7 @@ public abstract class AbstractLogger implements ExtendedLogger, Serializable {
      */
     @Override
     public LogBuilder always() {
-        final DefaultLogBuilder builder = logBuilder.get();
-        if (builder.isInUse()) {
-            return new DefaultLogBuilder(this);
-        }
-        return builder.reset(Level.OFF);
+        return getLogBuilder(Level.OFF).reset(Level.OFF);
     }
     /**
      * Construct a log event.
@@ -2854,8 +2850,13 @@ public abstract class AbstractLogger implements ExtendedLogger, Serializable {
     }
 
     private DefaultLogBuilder getLogBuilder(final Level level) {
-        final DefaultLogBuilder builder = logBuilder.get();
-        return Constants.ENABLE_THREADLOCALS && !builder.isInUse() ? builder : new DefaultLogBuilder(this, level);
+        if (Constants.ENABLE_THREADLOCALS) {
+            final DefaultLogBuilder builder = logBuilder.get().getAvailable();
+            if (builder != null) {
+                return builder;
+            }
+        }
+        return new DefaultLogBuilder(this, level);
     }
 
     private void readObject (final ObjectInputStream s) throws ClassNotFoundException, IOException {
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.logging.log4j.util.PropertiesUtil;
+import org.apache.logging.log4j.util.StringMap;
+
+/**
+ * {@code ThreadContextMap} implementation backed by an immutable hash array mapped trie. Like
+ * {@code CopyOnWriteSortedArrayThreadContextMap}, every instance of the data structure is a snapshot of the
+ * ThreadContext at some point in time and can be passed to log events, including asynchronous ones, without copying.
+ * Unlike it, a modification does not copy the whole map: {@code put} and {@code remove} only copy the O(log n) trie
+ * nodes on the path to the modified key and share the rest with the previous snapshot.
+ * <p>
+ * This implementation can be selected by setting system property {@code log4j2.threadContextMap} to
+ * {@code org.apache.logging.log4j.spi.CopyOnWriteHashTrieThreadContextMap}. The iteration order of the context data
+ * is unspecified.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+public class CopyOnWriteHashTrieThreadContextMap
+        implements ReadOnlyThreadContextMap, ObjectThreadContextMap, CopyOnWrite {
+
+    private static volatile boolean inheritableMap;
+
+    /**
+     * Initializes static variables based on system properties. Normally called when this class is initialized by the VM
+     * and when Log4j is reconfigured.
+     */
+    static void init() {
+        inheritableMap = PropertiesUtil.getProperties()
+                .getBooleanProperty(CopyOnWriteSortedArrayThreadContextMap.INHERITABLE_MAP);
+    }
+
+    static {
+        init();
+    }
+
+    private final ThreadLocal<HashTrieStringMap> localMap;
+
+    public CopyOnWriteHashTrieThreadContextMap() {
+        // LOG4J2-479: by default, use a plain ThreadLocal, only use InheritableThreadLocal if configured.
+        // Snapshots are immutable, so a child thread can share its parent's.
+        this(inheritableMap ? new InheritableThreadLocal<>() : new ThreadLocal<>());
+    }
+
+    CopyOnWriteHashTrieThreadContextMap(final ThreadLocal<HashTrieStringMap> localMap) {
+        this.localMap = localMap;
+    }
+
+    private HashTrieStringMap getMap() {
+        final HashTrieStringMap map = localMap.get();
+        return map == null ? HashTrieStringMap.EMPTY : map;
+    }
+
+    @Override
+    public void put(final String key, final String value) {
+        putValue(key, value);
+    }
+
+    @Override
+    public void putValue(final String key, final Object value) {
+        localMap.set(getMap().with(key, value));
+    }
+
+    @Override
+    public void putAll(final Map<String, String> values) {
+        putAllValues(values);
+    }
+
+    @Override
+    public <V> void putAllValues(final Map<String, V> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        HashTrieStringMap map = getMap();
+        for (final Map.Entry<String, V> entry : values.entrySet()) {
+            map = map.with(entry.getKey(), entry.getValue());
+        }
+        localMap.set(map);
+    }
+
+    @Override
+    public String get(final String key) {
+        return (String) getValue(key);
+    }
+
+    @Override
+    public <V> V getValue(final String key) {
+        final HashTrieStringMap map = localMap.get();
+        return map == null ? null : map.<V>getValue(key);
+    }
+
+    @Override
+    public void remove(final String key) {
+        final HashTrieStringMap map = localMap.get();
+        if (map != null) {
+            localMap.set(map.without(key));
+        }
+    }
+
+    @Override
+    public void removeAll(final Iterable<String> keys) {
+        HashTrieStringMap map = localMap.get();
+        if (map != null) {
+            for (final String key : keys) {
+                map = map.without(key);
+            }
+            localMap.set(map);
+        }
+    }
+
+    @Override
+    public void clear() {
+        localMap.remove();
+    }
+
+    @Override
+    public boolean containsKey(final String key) {
+        final HashTrieStringMap map = localMap.get();
+        return map != null && map.containsKey(key);
+    }
+
+    @Override
+    public Map<String, String> getCopy() {
+        final HashTrieStringMap map = localMap.get();
+        return map == null ? new HashMap<>() : map.toMap();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StringMap getReadOnlyContextData() {
+        return getMap();
+    }
+
+    @Override
+    public Map<String, String> getImmutableMapOrNull() {
+        final HashTrieStringMap map = localMap.get();
+        return map == null ? null : Collections.unmodifiableMap(map.toMap());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        final HashTrieStringMap map = localMap.get();
+        return map == null || map.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return getMap().toString();
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        final HashTrieStringMap map = this.localMap.get();
+        result = prime * result + ((map == null) ? 0 : map.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof ThreadContextMap)) {
+            return false;
+        }
+        final ThreadContextMap other = (ThreadContextMap) obj;
+        final Map<String, String> map = this.getImmutableMapOrNull();
+        final Map<String, String> otherMap = other.getImmutableMapOrNull();
+        return Objects.equals(map, otherMap);
+    }
+}
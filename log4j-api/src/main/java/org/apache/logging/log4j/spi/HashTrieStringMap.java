@@ -0,0 +1,515 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.logging.log4j.util.BiConsumer;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Immutable {@code StringMap} implemented as a hash array mapped trie.
+ * <p>
+ * {@link #with(String, Object)} and {@link #without(String)} return a new map that shares all unchanged trie nodes
+ * with this one, so an update copies O(log<sub>32</sub> n) small arrays instead of the whole map. Instances are always
+ * frozen and may be handed to other threads as they are. Iteration order is unspecified.
+ * </p>
+ * <p>
+ * Instances are serialized as a frozen {@link SortedArrayStringMap}.
+ * </p>
+ */
+final class HashTrieStringMap implements StringMap {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String FROZEN = "Frozen collection cannot be modified";
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** Returned by {@link Node#get(String, int, int)} when the key is absent, since values may be {@code null}. */
+    private static final Object NOT_FOUND = new Object();
+
+    static final HashTrieStringMap EMPTY = new HashTrieStringMap(BitmapNode.EMPTY, 0);
+
+    private final transient Node root;
+    private final int size;
+
+    private HashTrieStringMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns a map with the specified key mapped to the specified value.
+     *
+     * @param key the key, may be {@code null}
+     * @param value the value, may be {@code null}
+     * @return a map containing the mapping; this map if it already contained it
+     */
+    HashTrieStringMap with(final String key, final Object value) {
+        final int hash = Objects.hashCode(key);
+        final Node newRoot = root.put(key, value, hash, 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return new HashTrieStringMap(newRoot, root.get(key, hash, 0) == NOT_FOUND ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map without the specified key.
+     *
+     * @param key the key, may be {@code null}
+     * @return a map without the key; this map if it did not contain it
+     */
+    HashTrieStringMap without(final String key) {
+        final Node newRoot = root.remove(key, Objects.hashCode(key), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return size == 1 ? EMPTY : new HashTrieStringMap(newRoot, size - 1);
+    }
+
+    @Override
+    public Map<String, String> toMap() {
+        final Map<String, String> result = new HashMap<>(size);
+        forEach((key, value) -> result.put(key, value == null ? null : String.valueOf(value)));
+        return result;
+    }
+
+    @Override
+    public boolean containsKey(final String key) {
+        return root.get(key, Objects.hashCode(key), 0) != NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> V getValue(final String key) {
+        final Object value = root.get(key, Objects.hashCode(key), 0);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public <V> void forEach(final BiConsumer<String, ? super V> action) {
+        root.forEach(action);
+    }
+
+    @Override
+    public <V, S> void forEach(final TriConsumer<String, ? super V, S> action, final S state) {
+        root.forEach(action, state);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(FROZEN);
+    }
+
+    @Override
+    public void freeze() {
+        // always frozen
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    public void putAll(final ReadOnlyStringMap source) {
+        throw new UnsupportedOperationException(FROZEN);
+    }
+
+    @Override
+    public void putValue(final String key, final Object value) {
+        throw new UnsupportedOperationException(FROZEN);
+    }
+
+    @Override
+    public void remove(final String key) {
+        throw new UnsupportedOperationException(FROZEN);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ReadOnlyStringMap)) {
+            return false;
+        }
+        final ReadOnlyStringMap other = (ReadOnlyStringMap) obj;
+        if (size != other.size()) {
+            return false;
+        }
+        final boolean[] equal = {true};
+        forEach((key, value) -> {
+            if (equal[0] && (!Objects.equals(value, other.getValue(key)) || !other.containsKey(key))) {
+                equal[0] = false;
+            }
+        });
+        return equal[0];
+    }
+
+    @Override
+    public int hashCode() {
+        final int[] hash = {0};
+        forEach((key, value) -> hash[0] += Objects.hashCode(key) ^ Objects.hashCode(value));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(256);
+        sb.append('{');
+        forEach((key, value) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(key).append('=').append(value);
+        });
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private Object writeReplace() {
+        final SortedArrayStringMap copy = new SortedArrayStringMap(this);
+        copy.freeze();
+        return copy;
+    }
+
+    private static int bit(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Creates the smallest node containing two entries with distinct keys.
+     */
+    private static Node merge(final String key0, final Object value0, final int hash0,
+            final String key1, final Object value1, final int hash1, final int shift) {
+        if (shift >= Integer.SIZE) {
+            return new CollisionNode(new Object[] {key0, value0, key1, value1});
+        }
+        final int bit0 = bit(hash0, shift);
+        final int bit1 = bit(hash1, shift);
+        if (bit0 == bit1) {
+            return new BitmapNode(0, bit0, new Object[] {merge(key0, value0, hash0, key1, value1, hash1, shift + BITS)});
+        }
+        final Object[] content = Integer.compareUnsigned(bit0, bit1) < 0
+                ? new Object[] {key0, value0, key1, value1}
+                : new Object[] {key1, value1, key0, value0};
+        return new BitmapNode(bit0 | bit1, 0, content);
+    }
+
+    private abstract static class Node {
+
+        abstract Object get(String key, int hash, int shift);
+
+        abstract Node put(String key, Object value, int hash, int shift);
+
+        abstract Node remove(String key, int hash, int shift);
+
+        /**
+         * Returns whether this node holds exactly one entry and no sub-node, in which case its parent inlines it.
+         */
+        abstract boolean isSingleEntry();
+
+        abstract String firstKey();
+
+        abstract Object firstValue();
+
+        abstract <V> void forEach(BiConsumer<String, ? super V> action);
+
+        abstract <V, S> void forEach(TriConsumer<String, ? super V, S> action, S state);
+    }
+
+    /**
+     * Trie node indexed by five bits of the key hash. The content array holds the inline key-value pairs in bit order,
+     * followed by the sub-nodes in bit order.
+     */
+    private static final class BitmapNode extends Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+        private final int dataMap;
+        private final int nodeMap;
+        private final Object[] content;
+
+        BitmapNode(final int dataMap, final int nodeMap, final Object[] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(final int bit) {
+            return 2 * Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(final int bit) {
+            return 2 * Integer.bitCount(dataMap) + Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @Override
+        Object get(final String key, final int hash, final int shift) {
+            final int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit);
+                return Objects.equals(key, content[index]) ? content[index + 1] : NOT_FOUND;
+            }
+            if ((nodeMap & bit) != 0) {
+                return ((Node) content[nodeIndex(bit)]).get(key, hash, shift + BITS);
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node put(final String key, final Object value, final int hash, final int shift) {
+            final int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit);
+                final String existingKey = (String) content[index];
+                if (Objects.equals(key, existingKey)) {
+                    if (content[index + 1] == value) {
+                        return this;
+                    }
+                    final Object[] copy = content.clone();
+                    copy[index + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, copy);
+                }
+                final Node node = merge(existingKey, content[index + 1], Objects.hashCode(existingKey),
+                        key, value, hash, shift + BITS);
+                return dataToNode(bit, index, node);
+            }
+            if ((nodeMap & bit) != 0) {
+                final int index = nodeIndex(bit);
+                final Node node = (Node) content[index];
+                final Node newNode = node.put(key, value, hash, shift + BITS);
+                if (newNode == node) {
+                    return this;
+                }
+                final Object[] copy = content.clone();
+                copy[index] = newNode;
+                return new BitmapNode(dataMap, nodeMap, copy);
+            }
+            final int index = dataIndex(bit);
+            final Object[] copy = new Object[content.length + 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            copy[index] = key;
+            copy[index + 1] = value;
+            System.arraycopy(content, index, copy, index + 2, content.length - index);
+            return new BitmapNode(dataMap | bit, nodeMap, copy);
+        }
+
+        @Override
+        Node remove(final String key, final int hash, final int shift) {
+            final int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit);
+                if (!Objects.equals(key, content[index])) {
+                    return this;
+                }
+                final Object[] copy = new Object[content.length - 2];
+                System.arraycopy(content, 0, copy, 0, index);
+                System.arraycopy(content, index + 2, copy, index, content.length - index - 2);
+                return new BitmapNode(dataMap ^ bit, nodeMap, copy);
+            }
+            if ((nodeMap & bit) != 0) {
+                final int index = nodeIndex(bit);
+                final Node node = (Node) content[index];
+                final Node newNode = node.remove(key, hash, shift + BITS);
+                if (newNode == node) {
+                    return this;
+                }
+                if (newNode.isSingleEntry()) {
+                    return nodeToData(bit, index, newNode.firstKey(), newNode.firstValue());
+                }
+                final Object[] copy = content.clone();
+                copy[index] = newNode;
+                return new BitmapNode(dataMap, nodeMap, copy);
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the inline entry at the specified data index by the specified sub-node.
+         */
+        private Node dataToNode(final int bit, final int dataIndex, final Node node) {
+            final int nodeIndex = nodeIndex(bit) - 2;
+            final Object[] copy = new Object[content.length - 1];
+            System.arraycopy(content, 0, copy, 0, dataIndex);
+            System.arraycopy(content, dataIndex + 2, copy, dataIndex, nodeIndex - dataIndex);
+            copy[nodeIndex] = node;
+            System.arraycopy(content, nodeIndex + 2, copy, nodeIndex + 1, content.length - nodeIndex - 2);
+            return new BitmapNode(dataMap ^ bit, nodeMap | bit, copy);
+        }
+
+        /**
+         * Replaces the sub-node at the specified node index by an inline entry.
+         */
+        private Node nodeToData(final int bit, final int nodeIndex, final String key, final Object value) {
+            final int dataIndex = dataIndex(bit);
+            final Object[] copy = new Object[content.length + 1];
+            System.arraycopy(content, 0, copy, 0, dataIndex);
+            copy[dataIndex] = key;
+            copy[dataIndex + 1] = value;
+            System.arraycopy(content, dataIndex, copy, dataIndex + 2, nodeIndex - dataIndex);
+            System.arraycopy(content, nodeIndex + 1, copy, nodeIndex + 2, content.length - nodeIndex - 1);
+            return new BitmapNode(dataMap | bit, nodeMap ^ bit, copy);
+        }
+
+        @Override
+        boolean isSingleEntry() {
+            return nodeMap == 0 && Integer.bitCount(dataMap) == 1;
+        }
+
+        @Override
+        String firstKey() {
+            return (String) content[0];
+        }
+
+        @Override
+        Object firstValue() {
+            return content[1];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        <V> void forEach(final BiConsumer<String, ? super V> action) {
+            final int dataEnd = 2 * Integer.bitCount(dataMap);
+            for (int i = 0; i < dataEnd; i += 2) {
+                action.accept((String) content[i], (V) content[i + 1]);
+            }
+            for (int i = dataEnd; i < content.length; i++) {
+                ((Node) content[i]).forEach(action);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        <V, S> void forEach(final TriConsumer<String, ? super V, S> action, final S state) {
+            final int dataEnd = 2 * Integer.bitCount(dataMap);
+            for (int i = 0; i < dataEnd; i += 2) {
+                action.accept((String) content[i], (V) content[i + 1], state);
+            }
+            for (int i = dataEnd; i < content.length; i++) {
+                ((Node) content[i]).forEach(action, state);
+            }
+        }
+    }
+
+    /**
+     * Leaf node holding the entries whose keys have the same full hash code, as alternating keys and values.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final Object[] content;
+
+        CollisionNode(final Object[] content) {
+            this.content = content;
+        }
+
+        private int indexOf(final String key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (Objects.equals(key, content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object get(final String key, final int hash, final int shift) {
+            final int index = indexOf(key);
+            return index < 0 ? NOT_FOUND : content[index + 1];
+        }
+
+        @Override
+        Node put(final String key, final Object value, final int hash, final int shift) {
+            final int index = indexOf(key);
+            if (index >= 0) {
+                if (content[index + 1] == value) {
+                    return this;
+                }
+                final Object[] copy = content.clone();
+                copy[index + 1] = value;
+                return new CollisionNode(copy);
+            }
+            final Object[] copy = new Object[content.length + 2];
+            System.arraycopy(content, 0, copy, 0, content.length);
+            copy[content.length] = key;
+            copy[content.length + 1] = value;
+            return new CollisionNode(copy);
+        }
+
+        @Override
+        Node remove(final String key, final int hash, final int shift) {
+            final int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            final Object[] copy = new Object[content.length - 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            System.arraycopy(content, index + 2, copy, index, content.length - index - 2);
+            return new CollisionNode(copy);
+        }
+
+        @Override
+        boolean isSingleEntry() {
+            return content.length == 2;
+        }
+
+        @Override
+        String firstKey() {
+            return (String) content[0];
+        }
+
+        @Override
+        Object firstValue() {
+            return content[1];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        <V> void forEach(final BiConsumer<String, ? super V> action) {
+            for (int i = 0; i < content.length; i += 2) {
+                action.accept((String) content[i], (V) content[i + 1]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        <V, S> void forEach(final TriConsumer<String, ? super V, S> action, final S state) {
+            for (int i = 0; i < content.length; i += 2) {
+                action.accept((String) content[i], (V) content[i + 1], state);
+            }
+        }
+    }
+}
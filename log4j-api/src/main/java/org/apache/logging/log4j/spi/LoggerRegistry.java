@@ -22,16 +22,24 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.logging.log4j.message.MessageFactory;
 
 /**
  * Convenience class to be used by {@code LoggerContext} implementations.
+ * <p>
+ * With the default {@link ConcurrentMapFactory}, all loggers are kept in a single concurrent index. Loggers using the
+ * default message factory are keyed by their name alone, so looking them up neither locks nor allocates; other loggers
+ * are keyed by their name and message factory class. Other {@link MapFactory} implementations store the loggers in
+ * the maps they create.
+ * </p>
  */
 public class LoggerRegistry<T extends ExtendedLogger> {
     private static final String DEFAULT_FACTORY_KEY = AbstractLogger.DEFAULT_MESSAGE_FACTORY_CLASS.getName();
     private final MapFactory<T> factory;
     private final Map<String, Map<String, T>> map;
+    private final ConcurrentMap<Object, T> loggers;
 
     /**
      * Interface to control the data structure used by the registry to store the Loggers.
@@ -93,7 +101,13 @@ public class LoggerRegistry<T extends ExtendedLogger> {
 
     public LoggerRegistry(final MapFactory<T> factory) {
         this.factory = Objects.requireNonNull(factory, "factory");
-        this.map = factory.createOuterMap();
+        if (factory.getClass() == ConcurrentMapFactory.class) {
+            this.map = null;
+            this.loggers = new ConcurrentHashMap<>();
+        } else {
+            this.map = factory.createOuterMap();
+            this.loggers = null;
+        }
     }
 
     private static String factoryClassKey(final Class<? extends MessageFactory> messageFactoryClass) {
@@ -104,12 +118,25 @@ public class LoggerRegistry<T extends ExtendedLogger> {
         return messageFactory == null ? DEFAULT_FACTORY_KEY : messageFactory.getClass().getName();
     }
 
+    private static Object loggerKey(final String name, final MessageFactory messageFactory) {
+        return messageFactory == null || messageFactory.getClass() == AbstractLogger.DEFAULT_MESSAGE_FACTORY_CLASS
+                ? name : new LoggerKey(name, messageFactory.getClass().getName());
+    }
+
+    private static Object loggerKey(final String name, final Class<? extends MessageFactory> messageFactoryClass) {
+        return messageFactoryClass == null || messageFactoryClass == AbstractLogger.DEFAULT_MESSAGE_FACTORY_CLASS
+                ? name : new LoggerKey(name, messageFactoryClass.getName());
+    }
+
     /**
      * Returns an ExtendedLogger.
      * @param name The name of the Logger to return.
      * @return The logger with the specified name.
      */
     public T getLogger(final String name) {
+        if (loggers != null) {
+            return loggers.get(name);
+        }
         return getOrCreateInnerMap(DEFAULT_FACTORY_KEY).get(name);
     }
 
@@ -121,6 +148,9 @@ public class LoggerRegistry<T extends ExtendedLogger> {
      * @return The logger with the specified name.
      */
     public T getLogger(final String name, final MessageFactory messageFactory) {
+        if (loggers != null) {
+            return loggers.get(loggerKey(name, messageFactory));
+        }
         return getOrCreateInnerMap(factoryKey(messageFactory)).get(name);
     }
 
@@ -129,6 +159,10 @@ public class LoggerRegistry<T extends ExtendedLogger> {
     }
 
     public Collection<T> getLoggers(final Collection<T> destination) {
+        if (loggers != null) {
+            destination.addAll(loggers.values());
+            return destination;
+        }
         for (final Map<String, T> inner : map.values()) {
             destination.addAll(inner.values());
         }
@@ -150,6 +184,9 @@ public class LoggerRegistry<T extends ExtendedLogger> {
      * @return true if the Logger exists, false otherwise.
      */
     public boolean hasLogger(final String name) {
+        if (loggers != null) {
+            return loggers.containsKey(name);
+        }
         return getOrCreateInnerMap(DEFAULT_FACTORY_KEY).containsKey(name);
     }
 
@@ -161,6 +198,9 @@ public class LoggerRegistry<T extends ExtendedLogger> {
      * @since 2.5
      */
     public boolean hasLogger(final String name, final MessageFactory messageFactory) {
+        if (loggers != null) {
+            return loggers.containsKey(loggerKey(name, messageFactory));
+        }
         return getOrCreateInnerMap(factoryKey(messageFactory)).containsKey(name);
     }
 
@@ -172,10 +212,49 @@ public class LoggerRegistry<T extends ExtendedLogger> {
      * @since 2.5
      */
     public boolean hasLogger(final String name, final Class<? extends MessageFactory> messageFactoryClass) {
+        if (loggers != null) {
+            return loggers.containsKey(loggerKey(name, messageFactoryClass));
+        }
         return getOrCreateInnerMap(factoryClassKey(messageFactoryClass)).containsKey(name);
     }
 
     public void putIfAbsent(final String name, final MessageFactory messageFactory, final T logger) {
+        if (loggers != null) {
+            loggers.putIfAbsent(loggerKey(name, messageFactory), logger);
+            return;
+        }
         factory.putIfAbsent(getOrCreateInnerMap(factoryKey(messageFactory)), name, logger);
     }
+
+    /**
+     * Key of a logger created with a message factory other than the default one.
+     */
+    private static final class LoggerKey {
+        private final String name;
+        private final String factoryKey;
+        private final int hashCode;
+
+        LoggerKey(final String name, final String factoryKey) {
+            this.name = name;
+            this.factoryKey = factoryKey;
+            this.hashCode = 31 * name.hashCode() + factoryKey.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LoggerKey)) {
+                return false;
+            }
+            final LoggerKey other = (LoggerKey) obj;
+            return name.equals(other.name) && factoryKey.equals(other.factoryKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
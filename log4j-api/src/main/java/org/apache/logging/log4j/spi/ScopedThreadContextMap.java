@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * {@code ThreadContextMap} implementation whose context data is bound to a scope: a block of code run with
+ * {@link #where(String, Object) where(key, value)}{@code .run(...)}, rather than to the lifetime of a thread.
+ * <p>
+ * The current scope's context data is an immutable snapshot held in a single carrier shared by all instances of this
+ * class. Entering a scope only stores a reference to a new snapshot, and leaving it restores the previous one, so a
+ * thread that never uses the ThreadContext, such as most of the virtual threads of a server, never allocates a map.
+ * Log events capture the snapshot by reference, exactly like with {@link CopyOnWriteHashTrieThreadContextMap}.
+ * </p><p>
+ * Context data is not inherited by child threads. Tasks handed to other threads, e.g. structured concurrency subtasks
+ * or executor tasks, see the context of the scope that created them if they are wrapped with {@link #wrap(Runnable)}
+ * or {@link Carrier#wrap(Runnable)}. Modifications made with the regular {@code ThreadContext} methods inside a scope
+ * are discarded when the scope exits.
+ * </p><p>
+ * This implementation can be selected by setting system property {@code log4j2.threadContextMap} to
+ * {@code org.apache.logging.log4j.spi.ScopedThreadContextMap}. The static methods of this class only affect the
+ * ThreadContext if it uses this implementation.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+public class ScopedThreadContextMap extends CopyOnWriteHashTrieThreadContextMap {
+
+    // A ThreadLocal of an immutable snapshot. The JDK versions supported by Log4j have no ScopedValue, which would
+    // otherwise be the natural carrier: all accesses go through this field so it can be swapped for one later.
+    private static final ThreadLocal<HashTrieStringMap> CARRIER = new ThreadLocal<>();
+
+    public ScopedThreadContextMap() {
+        super(CARRIER);
+    }
+
+    /**
+     * Returns a carrier binding the specified key to the specified value, on top of the current context data.
+     *
+     * @param key the key to bind
+     * @param value the value to bind
+     * @return a new carrier
+     */
+    public static Carrier where(final String key, final Object value) {
+        return new Carrier(new String[] {key}, new Object[] {value});
+    }
+
+    /**
+     * Returns a task that runs the specified task with the current context data, in whatever thread it is run.
+     *
+     * @param task the task to wrap
+     * @return a task running the specified one with the current context data
+     */
+    public static Runnable wrap(final Runnable task) {
+        return wrap(current(), task);
+    }
+
+    /**
+     * Returns a task that calls the specified task with the current context data, in whatever thread it is called.
+     *
+     * @param task the task to wrap
+     * @param <R> the task result type
+     * @return a task calling the specified one with the current context data
+     */
+    public static <R> Callable<R> wrap(final Callable<R> task) {
+        return wrap(current(), task);
+    }
+
+    private static HashTrieStringMap current() {
+        return CARRIER.get();
+    }
+
+    private static Runnable wrap(final HashTrieStringMap snapshot, final Runnable task) {
+        Objects.requireNonNull(task, "task");
+        return () -> {
+            final HashTrieStringMap previous = enter(snapshot);
+            try {
+                task.run();
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    private static <R> Callable<R> wrap(final HashTrieStringMap snapshot, final Callable<R> task) {
+        Objects.requireNonNull(task, "task");
+        return () -> {
+            final HashTrieStringMap previous = enter(snapshot);
+            try {
+                return task.call();
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    private static HashTrieStringMap enter(final HashTrieStringMap snapshot) {
+        final HashTrieStringMap previous = CARRIER.get();
+        if (snapshot == null) {
+            CARRIER.remove();
+        } else {
+            CARRIER.set(snapshot);
+        }
+        return previous;
+    }
+
+    private static void exit(final HashTrieStringMap previous) {
+        if (previous == null) {
+            CARRIER.remove();
+        } else {
+            CARRIER.set(previous);
+        }
+    }
+
+    /**
+     * Immutable set of key-value bindings applied to the context data for the duration of a task.
+     */
+    public static final class Carrier {
+
+        private final String[] keys;
+        private final Object[] values;
+
+        private Carrier(final String[] keys, final Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        /**
+         * Returns a new carrier with the bindings of this carrier and the specified one.
+         *
+         * @param key the key to bind
+         * @param value the value to bind
+         * @return a new carrier
+         */
+        public Carrier where(final String key, final Object value) {
+            final int length = keys.length;
+            final String[] newKeys = Arrays.copyOf(keys, length + 1);
+            final Object[] newValues = Arrays.copyOf(values, length + 1);
+            newKeys[length] = key;
+            newValues[length] = value;
+            return new Carrier(newKeys, newValues);
+        }
+
+        /**
+         * Runs the specified task in the current thread with this carrier's bindings added to the context data.
+         *
+         * @param task the task to run
+         */
+        public void run(final Runnable task) {
+            wrap(task).run();
+        }
+
+        /**
+         * Calls the specified task in the current thread with this carrier's bindings added to the context data.
+         *
+         * @param task the task to call
+         * @param <R> the task result type
+         * @return the result of the task
+         * @throws Exception if the task throws an exception
+         */
+        public <R> R call(final Callable<R> task) throws Exception {
+            return wrap(task).call();
+        }
+
+        /**
+         * Returns a task that runs the specified task with the current context data and this carrier's bindings, in
+         * whatever thread it is run.
+         *
+         * @param task the task to wrap
+         * @return a task running the specified one with the bound context data
+         */
+        public Runnable wrap(final Runnable task) {
+            return ScopedThreadContextMap.wrap(bind(), task);
+        }
+
+        /**
+         * Returns a task that calls the specified task with the current context data and this carrier's bindings, in
+         * whatever thread it is called.
+         *
+         * @param task the task to wrap
+         * @param <R> the task result type
+         * @return a task calling the specified one with the bound context data
+         */
+        public <R> Callable<R> wrap(final Callable<R> task) {
+            return ScopedThreadContextMap.wrap(bind(), task);
+        }
+
+        private HashTrieStringMap bind() {
+            final HashTrieStringMap current = current();
+            HashTrieStringMap result = current == null ? HashTrieStringMap.EMPTY : current;
+            for (int i = 0; i < keys.length; i++) {
+                result = result.with(keys[i], values[i]);
+            }
+            return result;
+        }
+    }
+}
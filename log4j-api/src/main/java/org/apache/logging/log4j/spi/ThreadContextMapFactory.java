@@ -30,6 +30,13 @@ import org.apache.logging.log4j.util.ProviderUtil;
  * If {@link Constants#ENABLE_THREADLOCALS Log4j can use ThreadLocals}, a garbage-free StringMap-based context map can
  * be installed by setting system property {@code log4j2.garbagefree.threadContextMap} to {@code true}.
  * </p><p>
+ * Applications that put many keys in the ThreadContext can install {@link CopyOnWriteHashTrieThreadContextMap} by
+ * setting system property {@code log4j2.threadContextMap} to its fully qualified class name: modifying it does not copy
+ * the whole map, and log events still capture it without copying.
+ * </p><p>
+ * {@link ScopedThreadContextMap}, selected the same way, binds context data to scopes instead of threads and
+ * propagates it explicitly to tasks run by other threads, which suits servers running one virtual thread per request.
+ * </p><p>
  * Furthermore, any custom {@code ThreadContextMap} can be installed by setting system property
  * {@code log4j2.threadContextMap} to the fully qualified class name of the class implementing the
  * {@code ThreadContextMap} interface. (Also implement the {@code ReadOnlyThreadContextMap} interface if your custom
@@ -63,6 +70,7 @@ public final class ThreadContextMapFactory {
      */
     public static void init() {
         CopyOnWriteSortedArrayThreadContextMap.init();
+        CopyOnWriteHashTrieThreadContextMap.init();
         GarbageFreeSortedArrayThreadContextMap.init();
         DefaultThreadContextMap.init();
         initPrivate();
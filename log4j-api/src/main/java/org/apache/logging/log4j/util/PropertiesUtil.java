@@ -24,6 +24,7 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -137,8 +138,8 @@ public final class PropertiesUtil {
      * @return the boolean value of the property or {@code defaultValue} if undefined.
      */
     public boolean getBooleanProperty(final String name, final boolean defaultValue) {
-        final String prop = getStringProperty(name);
-        return prop == null ? defaultValue : "true".equalsIgnoreCase(prop);
+        final Value prop = environment.get(name);
+        return prop == null ? defaultValue : prop.asBoolean();
     }
 
     /**
@@ -151,9 +152,9 @@ public final class PropertiesUtil {
      */
     public boolean getBooleanProperty(final String name, final boolean defaultValueIfAbsent,
                                       final boolean defaultValueIfPresent) {
-        final String prop = getStringProperty(name);
+        final Value prop = environment.get(name);
         return prop == null ? defaultValueIfAbsent
-            : prop.isEmpty() ? defaultValueIfPresent : "true".equalsIgnoreCase(prop);
+            : prop.string.isEmpty() ? defaultValueIfPresent : prop.asBoolean();
     }
 
     /**
@@ -220,13 +221,10 @@ public final class PropertiesUtil {
      * @return the parsed double value of the property or {@code defaultValue} if it was undefined or could not be parsed.
      */
     public double getDoubleProperty(final String name, final double defaultValue) {
-        final String prop = getStringProperty(name);
+        final Value prop = environment.get(name);
         if (prop != null) {
-            try {
-                return Double.parseDouble(prop);
-            } catch (final Exception ignored) {
-                return defaultValue;
-            }
+            final Double value = prop.asDouble();
+            return value != null ? value : defaultValue;
         }
         return defaultValue;
     }
@@ -240,13 +238,10 @@ public final class PropertiesUtil {
      * parsed.
      */
     public int getIntegerProperty(final String name, final int defaultValue) {
-        final String prop = getStringProperty(name);
+        final Value prop = environment.get(name);
         if (prop != null) {
-            try {
-                return Integer.parseInt(prop);
-            } catch (final Exception ignored) {
-                return defaultValue;
-            }
+            final Integer value = prop.asInteger();
+            return value != null ? value : defaultValue;
         }
         return defaultValue;
     }
@@ -277,13 +272,10 @@ public final class PropertiesUtil {
      * @return the parsed long value of the property or {@code defaultValue} if it was undefined or could not be parsed.
      */
     public long getLongProperty(final String name, final long defaultValue) {
-        final String prop = getStringProperty(name);
+        final Value prop = environment.get(name);
         if (prop != null) {
-            try {
-                return Long.parseLong(prop);
-            } catch (final Exception ignored) {
-                return defaultValue;
-            }
+            final Long value = prop.asLong();
+            return value != null ? value : defaultValue;
         }
         return defaultValue;
     }
@@ -314,9 +306,9 @@ public final class PropertiesUtil {
      * @since 2.13.0
      */
     public Duration getDurationProperty(final String name, final Duration defaultValue) {
-        final String prop = getStringProperty(name);
+        final Value prop = environment.get(name);
         if (prop != null) {
-            return TimeUnit.getDuration(prop);
+            return prop.asDuration();
         }
         return defaultValue;
     }
@@ -365,7 +357,8 @@ public final class PropertiesUtil {
      * @return the String value of the property or {@code null} if undefined.
      */
     public String getStringProperty(final String name) {
-        return environment.get(name);
+        final Value prop = environment.get(name);
+        return prop == null ? null : prop.string;
     }
 
     /**
@@ -396,7 +389,8 @@ public final class PropertiesUtil {
     }
 
     /**
-     * Reloads all properties. This is primarily useful for unit tests.
+     * Reloads all properties. Properties that the property sources can enumerate are only read again by this method.
+     * This is primarily useful for unit tests.
      *
      * @since 2.10.0
      */
@@ -414,15 +408,16 @@ public final class PropertiesUtil {
      * Legacy: the original property name as defined in the source pre-2.10.0.
      * <p>
      * Tokenized: loose matching based on word boundaries.
+     * <p>
+     * The properties enumerated by the property sources are resolved into an immutable {@link Snapshot} on each
+     * reload, so that lookups of these properties only need a single map lookup and no locking.
      *
      * @since 2.10.0
      */
     private static class Environment {
 
         private final Set<PropertySource> sources = new TreeSet<>(new PropertySource.Comparator());
-        private final Map<CharSequence, String> literal = new ConcurrentHashMap<>();
-        private final Map<CharSequence, String> normalized = new ConcurrentHashMap<>();
-        private final Map<List<CharSequence>, String> tokenized = new ConcurrentHashMap<>();
+        private volatile Snapshot snapshot;
 
         private Environment(final PropertySource propertySource) {
             final PropertyFilePropertySource sysProps = new PropertyFilePropertySource(LOG4J_SYSTEM_PROPERTIES_FILE_NAME);
@@ -452,23 +447,36 @@ public final class PropertiesUtil {
         }
 
         private synchronized void reload() {
-            literal.clear();
-            normalized.clear();
-            tokenized.clear();
+            final Map<String, Value> literal = new HashMap<>();
+            final Map<String, Value> normalized = new HashMap<>();
+            final Map<List<CharSequence>, Value> tokenized = new HashMap<>();
             for (final PropertySource source : sources) {
                 source.forEach((key, value) -> {
                     if (key != null && value != null) {
-                        literal.put(key, value);
+                        final Value resolved = new Value(value);
+                        literal.put(key, resolved);
                         final List<CharSequence> tokens = PropertySource.Util.tokenize(key);
                         if (tokens.isEmpty()) {
-                            normalized.put(source.getNormalForm(Collections.singleton(key)), value);
+                            putNormalForm(normalized, source.getNormalForm(Collections.singleton(key)), resolved);
                         } else {
-                            normalized.put(source.getNormalForm(tokens), value);
-                            tokenized.put(tokens, value);
+                            putNormalForm(normalized, source.getNormalForm(tokens), resolved);
+                            tokenized.put(tokens, resolved);
                         }
                     }
                 });
             }
+            // normal forms take precedence over literal names
+            for (final Map.Entry<String, Value> entry : literal.entrySet()) {
+                normalized.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            snapshot = new Snapshot(normalized, tokenized);
+        }
+
+        private static void putNormalForm(final Map<String, Value> normalized, final CharSequence normalForm,
+                                          final Value value) {
+            if (normalForm != null) {
+                normalized.put(normalForm.toString(), value);
+            }
         }
 
         private static boolean hasSystemProperty(final String key) {
@@ -479,29 +487,121 @@ public final class PropertiesUtil {
             }
         }
 
-        private String get(final String key) {
-            if (normalized.containsKey(key)) {
-                return normalized.get(key);
-            }
-            if (literal.containsKey(key)) {
-                return literal.get(key);
+        private Value get(final String key) {
+            final Snapshot current = snapshot;
+            final Value value = current.resolved.get(key);
+            if (value != null) {
+                return value;
             }
+            // properties that were not enumerated by any source when the snapshot was taken are looked up live
             if (hasSystemProperty(key)) {
-                return System.getProperty(key);
+                return Value.of(System.getProperty(key));
             }
             for (final PropertySource source : sources) {
                 if (source.containsProperty(key)) {
-                    return source.getProperty(key);
+                    return Value.of(source.getProperty(key));
                 }
             }
-            return tokenized.get(PropertySource.Util.tokenize(key));
+            return current.tokenized.get(PropertySource.Util.tokenize(key));
         }
 
         private boolean containsKey(final String key) {
-            return normalized.containsKey(key) ||
-                literal.containsKey(key) ||
+            final Snapshot current = snapshot;
+            return current.resolved.containsKey(key) ||
                 hasSystemProperty(key) ||
-                tokenized.containsKey(PropertySource.Util.tokenize(key));
+                current.tokenized.containsKey(PropertySource.Util.tokenize(key));
+        }
+    }
+
+    /**
+     * Immutable view of the properties enumerated by the property sources at the time of the last reload.
+     */
+    private static final class Snapshot {
+
+        /**
+         * Values by normal form and by literal name, normal forms taking precedence.
+         */
+        private final Map<String, Value> resolved;
+        private final Map<List<CharSequence>, Value> tokenized;
+
+        private Snapshot(final Map<String, Value> resolved, final Map<List<CharSequence>, Value> tokenized) {
+            this.resolved = resolved;
+            this.tokenized = tokenized;
+        }
+    }
+
+    /**
+     * A property value along with its most recently parsed typed value, so that repeated typed lookups of a property
+     * in the snapshot do not parse it again. Parsed values are immutable, so they can be published through racy
+     * writes: the worst case is a redundant parse.
+     */
+    private static final class Value {
+
+        private final String string;
+        private Object parsed;
+
+        private Value(final String string) {
+            this.string = string;
+        }
+
+        private static Value of(final String string) {
+            return string == null ? null : new Value(string);
+        }
+
+        private boolean asBoolean() {
+            return "true".equalsIgnoreCase(string);
+        }
+
+        private Integer asInteger() {
+            final Object value = parsed;
+            if (value instanceof Integer) {
+                return (Integer) value;
+            }
+            try {
+                final Integer result = Integer.valueOf(string);
+                parsed = result;
+                return result;
+            } catch (final NumberFormatException ignored) {
+                return null;
+            }
+        }
+
+        private Long asLong() {
+            final Object value = parsed;
+            if (value instanceof Long) {
+                return (Long) value;
+            }
+            try {
+                final Long result = Long.valueOf(string);
+                parsed = result;
+                return result;
+            } catch (final NumberFormatException ignored) {
+                return null;
+            }
+        }
+
+        private Double asDouble() {
+            final Object value = parsed;
+            if (value instanceof Double) {
+                return (Double) value;
+            }
+            try {
+                final Double result = Double.valueOf(string);
+                parsed = result;
+                return result;
+            } catch (final NumberFormatException ignored) {
+                return null;
+            }
+        }
+
+        private Duration asDuration() {
+            final Object value = parsed;
+            if (value instanceof Duration) {
+                return (Duration) value;
+            }
+            final Duration result = TimeUnit.getDuration(string);
+            parsed = result;
+            return result;
         }
     }
 
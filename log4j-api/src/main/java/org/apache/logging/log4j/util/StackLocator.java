@@ -17,7 +17,10 @@
 package org.apache.logging.log4j.util;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.function.Predicate;
 
@@ -28,7 +31,23 @@ public final class StackLocator {
 
     private final static StackWalker walker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
 
-    private final static StackWalker stackWalker = StackWalker.getInstance();
+    /**
+     * Maximum number of call sites whose {@link StackTraceElement} is cached per declaring class.
+     */
+    private static final int MAX_CACHED_CALL_SITES_PER_CLASS = 1024;
+
+    /**
+     * Caches the {@link StackTraceElement}s of call sites, since {@link StackWalker.StackFrame#toStackTraceElement()}
+     * resolves line numbers and formatting information anew on every call. Entries are attached to the declaring class
+     * and hence do not outlive it.
+     */
+    private static final ClassValue<ConcurrentMap<CallSite, StackTraceElement>> CALL_SITES =
+            new ClassValue<ConcurrentMap<CallSite, StackTraceElement>>() {
+                @Override
+                protected ConcurrentMap<CallSite, StackTraceElement> computeValue(final Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
 
     private final static StackLocator INSTANCE = new StackLocator();
 
@@ -97,14 +116,68 @@ public final class StackLocator {
     }
 
     public StackTraceElement calcLocation(final String fqcnOfLogger) {
-        return stackWalker.walk(
+        return walker.walk(
                 s -> s.dropWhile(f -> !f.getClassName().equals(fqcnOfLogger)) // drop the top frames until we reach the logger
                         .dropWhile(f -> f.getClassName().equals(fqcnOfLogger)) // drop the logger frames
-                        .findFirst()).map(StackWalker.StackFrame::toStackTraceElement).orElse(null);
+                        .findFirst()).map(StackLocator::toStackTraceElement).orElse(null);
     }
 
     public StackTraceElement getStackTraceElement(final int depth) {
-        return stackWalker.walk(s -> s.skip(depth).findFirst())
-                .map(StackWalker.StackFrame::toStackTraceElement).orElse(null);
+        return walker.walk(s -> s.skip(depth).findFirst())
+                .map(StackLocator::toStackTraceElement).orElse(null);
+    }
+
+    private static StackTraceElement toStackTraceElement(final StackWalker.StackFrame frame) {
+        final int byteCodeIndex = frame.getByteCodeIndex();
+        if (byteCodeIndex < 0) { // native method
+            return frame.toStackTraceElement();
+        }
+        final ConcurrentMap<CallSite, StackTraceElement> callSites = CALL_SITES.get(frame.getDeclaringClass());
+        final CallSite callSite = new CallSite(frame.getMethodName(), frame.getDescriptor(), byteCodeIndex);
+        StackTraceElement element = callSites.get(callSite);
+        if (element == null) {
+            element = frame.toStackTraceElement();
+            if (callSites.size() < MAX_CACHED_CALL_SITES_PER_CLASS) {
+                callSites.putIfAbsent(callSite, element);
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Identifies a call site within its declaring class.
+     */
+    private static final class CallSite {
+
+        private final String methodName;
+
+        private final String descriptor;
+
+        private final int byteCodeIndex;
+
+        private CallSite(final String methodName, final String descriptor, final int byteCodeIndex) {
+            this.methodName = methodName;
+            this.descriptor = descriptor;
+            this.byteCodeIndex = byteCodeIndex;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CallSite)) {
+                return false;
+            }
+            final CallSite other = (CallSite) obj;
+            return byteCodeIndex == other.byteCodeIndex && methodName.equals(other.methodName)
+                    && Objects.equals(descriptor, other.descriptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * methodName.hashCode() + byteCodeIndex;
+        }
+
     }
 }
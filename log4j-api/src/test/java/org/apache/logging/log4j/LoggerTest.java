@@ -73,6 +73,60 @@ public class LoggerTest {
                 containsString("at org.apache.logging.log4j/org.apache.logging.log4j.LoggerTest.builder(LoggerTest.java:65)"));
     }
 
+    @Test
+    public void builderWithPrimitiveParameters() {
+        logger.atInfo().log("int {}", 42);
+        logger.atInfo().log("double {}", 3.5);
+        logger.atInfo().log("float {}", 0.1f);
+        logger.atInfo().log("boolean {}", true);
+        logger.atInfo().log("char {}", 'c');
+        logger.atInfo().log("long {}", 7L);
+        logger.atInfo().log("boxed {} {}", 1, Long.valueOf(2));
+        assertEquals(7, results.size());
+        assertThat(results.get(0), equalTo(" INFO int 42"));
+        assertThat(results.get(1), equalTo(" INFO double 3.5"));
+        assertThat(results.get(2), equalTo(" INFO float 0.1"));
+        assertThat(results.get(3), equalTo(" INFO boolean true"));
+        assertThat(results.get(4), equalTo(" INFO char c"));
+        assertThat(results.get(5), equalTo(" INFO long 7"));
+        assertThat(results.get(6), equalTo(" INFO boxed 1 2"));
+    }
+
+    @Test
+    public void builderDefaultMethodsBoxPrimitiveParameters() {
+        final StringBuilder parameters = new StringBuilder();
+        final LogBuilder builder = new LogBuilder() {
+            @Override
+            public void log(final String message, final Object p0) {
+                parameters.append(p0.getClass().getSimpleName()).append(' ').append(p0).append(';');
+            }
+        };
+        builder.log("{}", 7L);
+        builder.log("{}", 3.5);
+        builder.log("{}", 0.1f);
+        builder.log("{}", true);
+        builder.log("{}", 'c');
+        assertEquals("Long 7;Double 3.5;Float 0.1;Boolean true;Character c;", parameters.toString());
+    }
+
+    @Test
+    public void builderIsReentrant() {
+        final Object parameter = new Object() {
+            @Override
+            public String toString() {
+                logger.atWarn().log("inner {}", 1);
+                return "outer";
+            }
+        };
+        logger.atInfo().log("{}", parameter);
+        logger.always().log("always {}", parameter);
+        assertEquals(4, results.size());
+        assertThat(results.get(0), equalTo(" WARN inner 1"));
+        assertThat(results.get(1), equalTo(" INFO outer"));
+        assertThat(results.get(2), equalTo(" WARN inner 1"));
+        assertThat(results.get(3), equalTo(" OFF always outer"));
+    }
+
     @Test
     public void basicFlow() {
         logger.traceEntry();
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ParameterBuffer}.
+ */
+public class ParameterBufferTest {
+
+    @Test
+    public void testFormatsLikeBoxedValues() {
+        final Object[] boxed = {Long.MIN_VALUE, -0.0, Double.NaN, 1.1f, false, 'é', new int[] {1, 2}, null};
+        final ParameterBuffer buffer = new ParameterBuffer().add(Long.MIN_VALUE).add(-0.0).add(Double.NaN).add(1.1f)
+                .add(false).add('é').add(new int[] {1, 2}).add((Object) null);
+        assertEquals(boxed.length, buffer.size());
+        for (int i = 0; i < boxed.length; i++) {
+            final StringBuilder expected = new StringBuilder();
+            ParameterFormatter.recursiveDeepToString(boxed[i], expected);
+            final StringBuilder actual = new StringBuilder();
+            buffer.formatTo(i, actual);
+            assertEquals(expected.toString(), actual.toString());
+        }
+        final Object[] array = buffer.toArray();
+        assertArrayEquals(new Object[] {Long.MIN_VALUE, -0.0, Double.NaN, 1.1f, false, 'é'},
+                Arrays.copyOf(array, 6));
+        assertFalse(buffer.isPrimitive(6));
+        assertTrue(buffer.isPrimitive(3));
+    }
+
+    @Test
+    public void testGrowsBeyondDefaultCapacity() {
+        final ParameterBuffer buffer = new ParameterBuffer();
+        for (int i = 0; i < 100; i++) {
+            buffer.add(i).add("s" + i);
+        }
+        assertEquals(200, buffer.size());
+        assertEquals(99L, buffer.get(198));
+        assertEquals("s99", buffer.get(199));
+    }
+
+    @Test
+    public void testCopyToAndClear() {
+        final ParameterBuffer source = new ParameterBuffer();
+        for (int i = 0; i < 20; i++) {
+            source.add(i);
+        }
+        source.add("last");
+        final ParameterBuffer destination = new ParameterBuffer().add("previous");
+        source.copyTo(destination);
+        assertEquals(21, destination.size());
+        assertEquals(19L, destination.get(19));
+        assertEquals("last", destination.get(20));
+
+        source.clear();
+        assertEquals(0, source.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> source.get(0));
+        assertEquals("last", destination.get(20));
+    }
+}
@@ -23,6 +23,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Tests {@link ParameterFormatter}.
@@ -169,6 +171,64 @@ public class ParameterFormatterTest {
         assertEquals("Test message \\ab c", result);
     }
 
+    @Test
+    public void testTemplateFormatMatchesFormatMessage() {
+        final String[] patterns = {
+                "", "aaa", "{}", "{", "}", "{{}", "{}}", "\\", "\\{", "\\{}", "\\\\{}", "\\\\\\{}",
+                "Test message {}{} {}", "Test message \\{}{} {}", "Test message {}{} {}\\",
+                "Test message {}{} {}\\\\", "Test message \\\\{}{} {}", "a\\b{}c\\\\d{}", "{}{}{}a{]b{}"
+        };
+        final String[] args = { "a", "b", "c", "d", "e", "f" };
+        for (final String pattern : patterns) {
+            for (int argCount = 0; argCount <= args.length; argCount++) {
+                final StringBuilder expected = new StringBuilder();
+                ParameterFormatter.formatMessage(expected, pattern, args, argCount);
+                final StringBuilder actual = new StringBuilder();
+                ParameterFormatter.template(pattern).format(actual, args, argCount);
+                assertEquals(expected.toString(), actual.toString(), pattern + " with " + argCount + " arguments");
+            }
+            assertEquals(ParameterFormatter.countArgumentPlaceholders(pattern),
+                    ParameterFormatter.template(pattern).getPlaceholderCount(), pattern);
+        }
+    }
+
+    @Test
+    public void testTemplateIsCached() {
+        final String pattern = "Test message {}{} {}";
+        final String equalPattern = new String(pattern.toCharArray());
+        assertSame(ParameterFormatter.template(pattern), ParameterFormatter.template(equalPattern));
+        final StringBuilder buffer = new StringBuilder();
+        ParameterFormatter.template(null).format(buffer, new Object[] {"a"}, 1);
+        assertEquals("null", buffer.toString());
+    }
+
+    @Test
+    public void testCollidingAndLongPatternsAreNotCached() {
+        // a pattern whose slot holds another pattern, which exists after at most as many patterns as slots
+        String colliding = null;
+        for (int i = 0; colliding == null; i++) {
+            final String pattern = "Colliding message {} #" + i;
+            if (ParameterFormatter.cachedTemplate(pattern) == null) {
+                colliding = pattern;
+            }
+        }
+        final StringBuilder longPattern = new StringBuilder("Long message {}");
+        while (longPattern.length() <= 1024) {
+            longPattern.append(" and {}");
+        }
+        for (final String pattern : new String[] {colliding, longPattern.toString()}) {
+            assertNull(ParameterFormatter.cachedTemplate(pattern), pattern);
+            assertNull(ParameterFormatter.cachedTemplate(pattern), pattern);
+            assertEquals(ParameterFormatter.countArgumentPlaceholders(pattern),
+                    ParameterFormatter.template(pattern).getPlaceholderCount(), pattern);
+            final ReusableParameterizedMessage message = new ReusableParameterizedMessage();
+            message.set(pattern, "a", "b");
+            final StringBuilder expected = new StringBuilder();
+            ParameterFormatter.formatMessage(expected, pattern, new Object[] {"a", "b"}, 2);
+            assertEquals(expected.toString(), message.getFormattedMessage());
+        }
+    }
+
     @Test
     public void testDeepToString() {
         final List<Object> list = new ArrayList<>();
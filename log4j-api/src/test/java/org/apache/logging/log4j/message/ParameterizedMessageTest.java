@@ -126,6 +126,14 @@ public class ParameterizedMessageTest {
         assertEquals("Test message \\ab c", result);
     }
 
+    @Test
+    public void testThrowableWithEscapedPlaceholder() {
+        final Throwable throwable = new IllegalStateException("test");
+        final ParameterizedMessage msg = new ParameterizedMessage("Test message \\{} {}", "a", throwable);
+        assertSame(throwable, msg.getThrowable());
+        assertEquals("Test message {} a", msg.getFormattedMessage());
+    }
+
     @Test
     public void testSafeWithMutableParams() { // LOG4J2-763
         final String testMsg = "Test message {}";
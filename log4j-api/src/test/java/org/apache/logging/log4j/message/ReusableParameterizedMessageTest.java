@@ -166,4 +166,39 @@ public class ReusableParameterizedMessageTest {
         }, null);
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void testParameterBuffer() {
+        final ParameterBuffer params = new ParameterBuffer().add(42L).add(1.5).add(true).add('x');
+        final ReusableParameterizedMessage msg = new ReusableParameterizedMessage();
+        msg.set("{} {} {} {}", params);
+        params.clear(); // the message holds a copy
+        assertEquals("42 1.5 true x", msg.getFormattedMessage());
+        assertArrayEquals(new Object[] {42L, 1.5, true, 'x'}, msg.getParameters());
+        assertEquals(4, msg.getParameterCount());
+        assertNull(msg.getThrowable());
+
+        final ParameterBuffer swapped = msg.swapParameterBuffer(null);
+        assertNotNull(swapped);
+        assertEquals(4, swapped.size());
+        assertTrue(swapped.isPrimitive(0));
+
+        // messages set from objects have no buffer
+        msg.set("{}", "a");
+        assertNull(msg.swapParameterBuffer(swapped));
+        assertEquals("a", msg.getFormattedMessage());
+    }
+
+    @Test
+    public void testParameterBufferWithThrowable() {
+        final Throwable exception = new IllegalStateException();
+        final ReusableParameterizedMessage msg = new ReusableParameterizedMessage();
+        msg.set("{}", new ParameterBuffer().add(7L).add(exception));
+        assertEquals("7", msg.getFormattedMessage());
+        assertSame(exception, msg.getThrowable());
+        final Object[] replacement = new Object[10];
+        assertSame(replacement, msg.swapParameters(replacement));
+        assertEquals(7L, replacement[0]);
+        assertSame(exception, replacement[1]);
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@code CopyOnWriteHashTrieThreadContextMap} class.
+ */
+public class CopyOnWriteHashTrieThreadContextMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        final CopyOnWriteHashTrieThreadContextMap map = new CopyOnWriteHashTrieThreadContextMap();
+        assertTrue(map.isEmpty());
+        assertNull(map.getImmutableMapOrNull());
+        map.put("key", "value");
+        map.putValue("object", 42);
+        assertFalse(map.isEmpty());
+        assertTrue(map.containsKey("key"));
+        assertEquals("value", map.get("key"));
+        assertEquals(Integer.valueOf(42), map.getValue("object"));
+        map.remove("key");
+        assertFalse(map.containsKey("key"));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertTrue(map.getReadOnlyContextData().isEmpty());
+    }
+
+    @Test
+    public void testPutAllAndRemoveAll() {
+        final CopyOnWriteHashTrieThreadContextMap map = new CopyOnWriteHashTrieThreadContextMap();
+        final Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            values.put("key" + i, "value" + i);
+        }
+        map.putAll(values);
+        assertEquals(values, map.getCopy());
+        assertEquals(values, map.getImmutableMapOrNull());
+        map.removeAll(Arrays.asList("key0", "key1"));
+        values.remove("key0");
+        values.remove("key1");
+        assertEquals(values, map.getCopy());
+    }
+
+    @Test
+    public void testReadOnlyContextDataIsSnapshot() {
+        final CopyOnWriteHashTrieThreadContextMap map = new CopyOnWriteHashTrieThreadContextMap();
+        map.put("key", "value");
+        final StringMap snapshot = map.getReadOnlyContextData();
+        assertTrue(snapshot.isFrozen());
+        assertSame(snapshot, map.getReadOnlyContextData());
+        map.put("key", "changed");
+        map.put("other", "value");
+        assertEquals("value", snapshot.getValue("key"));
+        assertFalse(snapshot.containsKey("other"));
+        assertEquals("changed", map.getReadOnlyContextData().getValue("key"));
+    }
+
+    @Test
+    public void testEquals() {
+        final CopyOnWriteHashTrieThreadContextMap map = new CopyOnWriteHashTrieThreadContextMap();
+        map.put("key", "value");
+        final DefaultThreadContextMap other = new DefaultThreadContextMap(true);
+        other.put("key", "value");
+        assertEquals(map, other);
+        assertEquals("{key=value}", map.toString());
+        map.clear();
+        other.clear();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.logging.log4j.util.FilteredObjectInputStream;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@code HashTrieStringMap} class.
+ */
+public class HashTrieStringMapTest {
+
+    private static void assertContent(final Map<String, Object> expected, final HashTrieStringMap actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        for (final Map.Entry<String, Object> entry : expected.entrySet()) {
+            assertTrue(actual.containsKey(entry.getKey()), entry.getKey());
+            assertEquals(entry.getValue(), actual.getValue(entry.getKey()));
+        }
+        final Map<String, Object> iterated = new HashMap<>();
+        actual.forEach((key, value) -> assertNull(iterated.put(key, value), key));
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testWithAndWithoutMatchHashMap() {
+        final Random random = new Random(42);
+        final Map<String, Object> expected = new HashMap<>();
+        HashTrieStringMap map = HashTrieStringMap.EMPTY;
+        for (int i = 0; i < 10_000; i++) {
+            final String key = "key" + random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.without(key);
+            } else {
+                final Object value = random.nextInt(10) == 0 ? null : random.nextInt(5);
+                expected.put(key, value);
+                map = map.with(key, value);
+            }
+        }
+        assertContent(expected, map);
+        for (final String key : new HashMap<>(expected).keySet()) {
+            expected.remove(key);
+            map = map.without(key);
+        }
+        assertContent(expected, map);
+        assertSame(HashTrieStringMap.EMPTY, map);
+    }
+
+    @Test
+    public void testHashCollisions() {
+        // all these keys have the same hash code
+        final String[] keys = {"AaAa", "AaBB", "BBAa", "BBBB"};
+        final Map<String, Object> expected = new HashMap<>();
+        HashTrieStringMap map = HashTrieStringMap.EMPTY.with(null, "null key");
+        expected.put(null, "null key");
+        for (final String key : keys) {
+            expected.put(key, key.toLowerCase());
+            map = map.with(key, key.toLowerCase());
+        }
+        assertContent(expected, map);
+        map = map.with("AaBB", "replaced");
+        expected.put("AaBB", "replaced");
+        assertContent(expected, map);
+        for (final String key : keys) {
+            expected.remove(key);
+            map = map.without(key);
+            assertContent(expected, map);
+        }
+    }
+
+    @Test
+    public void testSnapshotsAreUnaffectedByUpdates() {
+        final HashTrieStringMap first = HashTrieStringMap.EMPTY.with("a", "1").with("b", "2");
+        final HashTrieStringMap second = first.with("a", "3").without("b").with("c", "4");
+        assertEquals("1", first.getValue("a"));
+        assertEquals("2", first.getValue("b"));
+        assertFalse(first.containsKey("c"));
+        assertEquals("3", second.getValue("a"));
+        assertFalse(second.containsKey("b"));
+        assertSame(first, first.with("a", first.getValue("a")));
+        assertSame(first, first.without("missing"));
+    }
+
+    @Test
+    public void testIsFrozen() {
+        final HashTrieStringMap map = HashTrieStringMap.EMPTY.with("a", "1");
+        assertTrue(map.isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> map.putValue("b", "2"));
+        assertThrows(UnsupportedOperationException.class, () -> map.putAll(new SortedArrayStringMap()));
+        assertThrows(UnsupportedOperationException.class, () -> map.remove("a"));
+        assertThrows(UnsupportedOperationException.class, map::clear);
+    }
+
+    @Test
+    public void testEqualsAndToMap() {
+        final HashTrieStringMap map = HashTrieStringMap.EMPTY.with("a", "1").with("b", 2);
+        final SortedArrayStringMap other = new SortedArrayStringMap();
+        other.putValue("a", "1");
+        other.putValue("b", 2);
+        assertEquals(map, other);
+        assertEquals(map, HashTrieStringMap.EMPTY.with("b", 2).with("a", "1"));
+        assertEquals(map.hashCode(), HashTrieStringMap.EMPTY.with("b", 2).with("a", "1").hashCode());
+        assertNotEquals(map, map.with("b", "2"));
+        assertEquals(other.toMap(), map.toMap());
+    }
+
+    @Test
+    public void testSerializedAsSortedArrayStringMap() throws Exception {
+        final HashTrieStringMap map = HashTrieStringMap.EMPTY.with("a", "1").with("b", "2");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        final Object copy;
+        try (final ObjectInputStream in = new FilteredObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+        assertTrue(copy instanceof SortedArrayStringMap);
+        assertTrue(((SortedArrayStringMap) copy).isFrozen());
+        assertEquals(map.toMap(), ((SortedArrayStringMap) copy).toMap());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.StringFormatterMessageFactory;
+import org.apache.logging.log4j.test.TestLogger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoggerRegistryTest {
+
+    static Stream<LoggerRegistry<TestLogger>> registries() {
+        return Stream.of(new LoggerRegistry<>(), new LoggerRegistry<>(new LoggerRegistry.WeakMapFactory<>()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("registries")
+    public void testDefaultMessageFactory(final LoggerRegistry<TestLogger> registry) throws Exception {
+        final MessageFactory defaultFactory = AbstractLogger.DEFAULT_MESSAGE_FACTORY_CLASS.getConstructor().newInstance();
+        final TestLogger logger = new TestLogger("a.b");
+        registry.putIfAbsent("a.b", null, logger);
+        assertSame(logger, registry.getLogger("a.b"));
+        assertSame(logger, registry.getLogger("a.b", null));
+        assertSame(logger, registry.getLogger("a.b", defaultFactory));
+        assertTrue(registry.hasLogger("a.b"));
+        assertTrue(registry.hasLogger("a.b", defaultFactory));
+        assertTrue(registry.hasLogger("a.b", AbstractLogger.DEFAULT_MESSAGE_FACTORY_CLASS));
+        assertFalse(registry.hasLogger("a.b", StringFormatterMessageFactory.class));
+        assertNull(registry.getLogger("a.c"));
+        assertFalse(registry.hasLogger("a.c"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("registries")
+    public void testOtherMessageFactory(final LoggerRegistry<TestLogger> registry) {
+        final TestLogger logger = new TestLogger("a.b");
+        final TestLogger formatterLogger = new TestLogger("a.b", StringFormatterMessageFactory.INSTANCE);
+        registry.putIfAbsent("a.b", null, logger);
+        registry.putIfAbsent("a.b", StringFormatterMessageFactory.INSTANCE, formatterLogger);
+        assertSame(logger, registry.getLogger("a.b"));
+        assertSame(formatterLogger, registry.getLogger("a.b", StringFormatterMessageFactory.INSTANCE));
+        assertSame(formatterLogger, registry.getLogger("a.b", new StringFormatterMessageFactory()));
+        assertTrue(registry.hasLogger("a.b", StringFormatterMessageFactory.class));
+        assertEquals(2, registry.getLoggers().size());
+        assertTrue(registry.getLoggers().contains(logger));
+        assertTrue(registry.getLoggers().contains(formatterLogger));
+    }
+
+    @Test
+    public void testPutIfAbsentKeepsFirstLogger() {
+        final LoggerRegistry<TestLogger> registry = new LoggerRegistry<>();
+        final TestLogger logger = new TestLogger("a.b");
+        registry.putIfAbsent("a.b", null, logger);
+        registry.putIfAbsent("a.b", null, new TestLogger("a.b"));
+        registry.putIfAbsent("a.b", StringFormatterMessageFactory.INSTANCE, new TestLogger("a.b"));
+        assertSame(logger, registry.getLogger("a.b"));
+        assertEquals(2, registry.getLoggers().size());
+    }
+
+}
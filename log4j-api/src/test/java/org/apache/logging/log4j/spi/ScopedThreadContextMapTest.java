@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@code ScopedThreadContextMap} class.
+ */
+public class ScopedThreadContextMapTest {
+
+    private final ScopedThreadContextMap map = new ScopedThreadContextMap();
+
+    @AfterEach
+    public void clear() {
+        map.clear();
+    }
+
+    @Test
+    public void testBindingsAreScoped() {
+        map.put("outer", "value");
+        ScopedThreadContextMap.where("key", "value1").where("other", 42).run(() -> {
+            assertEquals("value", map.get("outer"));
+            assertEquals("value1", map.get("key"));
+            assertEquals(Integer.valueOf(42), map.getValue("other"));
+            ScopedThreadContextMap.where("key", "value2").run(() -> assertEquals("value2", map.get("key")));
+            assertEquals("value1", map.get("key"));
+            map.put("inner", "discarded");
+        });
+        assertFalse(map.containsKey("key"));
+        assertFalse(map.containsKey("inner"));
+        assertEquals("value", map.get("outer"));
+    }
+
+    @Test
+    public void testScopeIsRestoredOnException() {
+        assertThrows(IllegalStateException.class, () -> ScopedThreadContextMap.where("key", "value").call(() -> {
+            throw new IllegalStateException();
+        }));
+        assertTrue(map.isEmpty());
+        assertNull(map.getImmutableMapOrNull());
+    }
+
+    @Test
+    public void testCallReturnsResult() throws Exception {
+        assertEquals("value", ScopedThreadContextMap.where("key", "value").call(() -> map.get("key")));
+    }
+
+    @Test
+    public void testContextDataIsSnapshot() {
+        ScopedThreadContextMap.where("key", "value").run(() -> {
+            final StringMap snapshot = map.getReadOnlyContextData();
+            assertTrue(snapshot.isFrozen());
+            ScopedThreadContextMap.where("key", "changed").run(() -> map.put("other", "value"));
+            assertEquals("value", snapshot.getValue("key"));
+            assertFalse(snapshot.containsKey("other"));
+            assertSame(snapshot, map.getReadOnlyContextData());
+        });
+    }
+
+    @Test
+    public void testWrapPropagatesToOtherThreads() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNull(executor.submit(() -> map.get("key")).get());
+            final String result = ScopedThreadContextMap.where("key", "value").call(
+                    () -> executor.submit(ScopedThreadContextMap.wrap(() -> map.get("key"))).get());
+            assertEquals("value", result);
+            assertEquals("bound", executor.submit(ScopedThreadContextMap.where("key", "bound").wrap(
+                    () -> map.get("key"))).get());
+            assertNull(executor.submit(() -> map.get("key")).get());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.junit.jupiter.api.parallel.Resources;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Properties;
 
@@ -110,6 +111,58 @@ public class PropertiesUtilTest {
         }
     }
 
+    @Test
+    public void testTypedProperties() {
+        final Properties props = new Properties();
+        props.setProperty("log4j2.intValue", "42");
+        props.setProperty("log4j2.doubleValue", "0.5");
+        props.setProperty("log4j2.durationValue", "5s");
+        props.setProperty("log4j2.invalidValue", "not a number");
+        final PropertiesUtil util = new PropertiesUtil(props);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(42, util.getIntegerProperty("log4j2.intValue", 0));
+            assertEquals(42L, util.getLongProperty("log4j2.intValue", 0L));
+            assertEquals(42, util.getIntegerProperty("log4j2.intValue", 0));
+            assertEquals(0.5, util.getDoubleProperty("log4j2.doubleValue", 0.0));
+            assertEquals(Duration.ofSeconds(5), util.getDurationProperty("log4j2.durationValue", null));
+            assertEquals(-1, util.getIntegerProperty("log4j2.invalidValue", -1));
+            assertEquals(-1L, util.getLongProperty("log4j2.invalidValue", -1L));
+            assertEquals(42, util.getIntegerProperty("log4j.int.value", 0));
+            assertEquals(7, util.getIntegerProperty("log4j2.missingValue", 7));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsRefreshedOnReload() {
+        final Properties props = new Properties();
+        props.setProperty("log4j2.snapshotValue", "first");
+        final PropertiesUtil util = new PropertiesUtil(props);
+        assertEquals("first", util.getStringProperty("log4j2.snapshotValue"));
+        props.setProperty("log4j2.snapshotValue", "second");
+        props.setProperty("log4j2.addedValue", "added");
+        assertEquals("first", util.getStringProperty("log4j2.snapshotValue"));
+        assertFalse(util.hasProperty("log4j2.addedValue"));
+        util.reload();
+        assertEquals("second", util.getStringProperty("log4j2.snapshotValue"));
+        assertEquals("added", util.getStringProperty("Log4jAddedValue"));
+        assertTrue(util.hasProperty("log4j2.addedValue"));
+    }
+
+    @Test
+    @ResourceLock(Resources.SYSTEM_PROPERTIES)
+    public void testSystemPropertiesSetAfterReloadAreVisible() {
+        final PropertiesUtil util = new PropertiesUtil(new Properties());
+        final String key = "PropertiesUtilTest.lateSystemProperty";
+        System.setProperty(key, "17");
+        try {
+            assertTrue(util.hasProperty(key));
+            assertEquals(17, util.getIntegerProperty(key, 0));
+        } finally {
+            System.clearProperty(key);
+        }
+        assertFalse(util.hasProperty(key));
+    }
+
     @Test
     @ResourceLock(value = Resources.SYSTEM_PROPERTIES, mode = ResourceAccessMode.READ)
     public void testPublish() {
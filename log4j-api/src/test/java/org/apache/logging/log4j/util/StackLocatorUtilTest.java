@@ -88,6 +88,38 @@ public class StackLocatorUtilTest {
         assertSame(expected, actual);
     }
 
+    @Test
+    public void testStackTraceElementIsCachedPerCallSite() {
+        final StackTraceElement[] elements = new StackTraceElement[2];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = StackLocatorUtil.getStackTraceElement(1);
+        }
+        assertSame(elements[0], elements[1]);
+        final StackTraceElement other = StackLocatorUtil.getStackTraceElement(1);
+        assertEquals("testStackTraceElementIsCachedPerCallSite", other.getMethodName());
+        assertEquals(elements[0].getLineNumber() + 3, other.getLineNumber());
+    }
+
+    @Test
+    public void testCalcLocationIsCachedPerCallSite() {
+        final StackTraceElement[] elements = new StackTraceElement[2];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = FakeLogger.log();
+        }
+        assertSame(elements[0], elements[1]);
+        assertEquals(StackLocatorUtilTest.class.getName(), elements[0].getClassName());
+        assertEquals("testCalcLocationIsCachedPerCallSite", elements[0].getMethodName());
+        assertNotEquals(elements[0], FakeLogger.log());
+    }
+
+    private static final class FakeLogger {
+
+        private static StackTraceElement log() {
+            return StackLocatorUtil.calcLocation(FakeLogger.class.getName());
+        }
+
+    }
+
     @Test
     public void testLocateClass() {
         final ClassLocator locator = new ClassLocator();
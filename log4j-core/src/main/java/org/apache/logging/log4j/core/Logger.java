@@ -18,6 +18,10 @@ package org.apache.logging.log4j.core;
 
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -29,6 +33,7 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.config.ReliabilityStrategy;
 import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
@@ -52,11 +57,24 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Level threshold published when the configuration has a global filter, which must be consulted on each check.
+     */
+    private static final int FILTERED = Integer.MIN_VALUE;
+
     /**
      * Config should be consistent across threads.
      */
     protected volatile PrivateConfig privateConfig;
 
+    /**
+     * Only used if {@link Constants#LOGGER_LEVEL_CALL_SITES} is {@code true}: publishes the intLevel threshold of this
+     * Logger, or {@link #FILTERED}, as a constant the JIT compiler can fold into callers. Its target is replaced when
+     * the configuration of this Logger changes, which deoptimizes the code that folded the previous threshold.
+     */
+    private final transient MutableCallSite levelSite;
+    private final transient MethodHandle levelThreshold;
+
     // FIXME: ditto to the above
     private final LoggerContext context;
 
@@ -70,7 +88,14 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
     protected Logger(final LoggerContext context, final String name, final MessageFactory messageFactory) {
         super(name, messageFactory);
         this.context = context;
-        privateConfig = new PrivateConfig(context.getConfiguration(), this);
+        if (Constants.LOGGER_LEVEL_CALL_SITES) {
+            levelSite = new MutableCallSite(MethodType.methodType(int.class));
+            levelThreshold = levelSite.dynamicInvoker();
+        } else {
+            levelSite = null;
+            levelThreshold = null;
+        }
+        setPrivateConfig(new PrivateConfig(context.getConfiguration(), this));
     }
 
     protected Object writeReplace() throws ObjectStreamException {
@@ -125,7 +150,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             final Logger parent = getParent();
             actualLevel = parent != null ? parent.getLevel() : privateConfig.loggerConfigLevel;
         }
-        privateConfig = new PrivateConfig(privateConfig, actualLevel);
+        setPrivateConfig(new PrivateConfig(privateConfig, actualLevel));
     }
 
     /*
@@ -160,61 +185,71 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Throwable t) {
-        return privateConfig.filter(level, marker, message, t);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, t);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message) {
-        return privateConfig.filter(level, marker, message);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Object... params) {
-        return privateConfig.filter(level, marker, message, params);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, params);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0) {
-        return privateConfig.filter(level, marker, message, p0);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0,
             final Object p1) {
-        return privateConfig.filter(level, marker, message, p0, p1);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0,
             final Object p1, final Object p2) {
-        return privateConfig.filter(level, marker, message, p0, p1, p2);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1, p2);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0,
             final Object p1, final Object p2, final Object p3) {
-        return privateConfig.filter(level, marker, message, p0, p1, p2, p3);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1, p2, p3);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0,
             final Object p1, final Object p2, final Object p3,
             final Object p4) {
-        return privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0,
             final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5) {
-        return privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0,
             final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6) {
-        return privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5, p6);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5, p6);
     }
 
     @Override
@@ -222,7 +257,8 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7) {
-        return privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7);
     }
 
     @Override
@@ -230,7 +266,8 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8) {
-        return privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7, p8);
     }
 
     @Override
@@ -238,22 +275,26 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8, final Object p9) {
-        return privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final CharSequence message, final Throwable t) {
-        return privateConfig.filter(level, marker, message, t);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, t);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final Object message, final Throwable t) {
-        return privateConfig.filter(level, marker, message, t);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, t);
     }
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker, final Message message, final Throwable t) {
-        return privateConfig.filter(level, marker, message, t);
+        final Boolean enabled = enabledByLevel(level);
+        return enabled != null ? enabled : privateConfig.filter(level, marker, message, t);
     }
 
     /**
@@ -374,7 +415,37 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
      *            The new Configuration.
      */
     protected void updateConfiguration(final Configuration newConfig) {
-        this.privateConfig = new PrivateConfig(newConfig, this);
+        setPrivateConfig(new PrivateConfig(newConfig, this));
+    }
+
+    private void setPrivateConfig(final PrivateConfig config) {
+        this.privateConfig = config;
+        if (levelSite != null) {
+            final int threshold = config.config.getFilter() == null ? config.intLevel : FILTERED;
+            levelSite.setTarget(MethodHandles.constant(int.class, threshold));
+            MutableCallSite.syncAll(new MutableCallSite[] {levelSite});
+        }
+    }
+
+    /**
+     * Decides whether the specified level is enabled from the threshold published through {@link #levelSite}.
+     *
+     * @param level The level to check.
+     * @return Whether the level is enabled, or {@code null} if the configuration's filter must be consulted.
+     */
+    private Boolean enabledByLevel(final Level level) {
+        if (Constants.LOGGER_LEVEL_CALL_SITES) {
+            final int threshold;
+            try {
+                threshold = (int) levelThreshold.invokeExact();
+            } catch (final Throwable t) {
+                throw new IllegalStateException(t);
+            }
+            if (threshold != FILTERED) {
+                return level != null && threshold >= level.intLevel();
+            }
+        }
+        return null;
     }
 
     /**
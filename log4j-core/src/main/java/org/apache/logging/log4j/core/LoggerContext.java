@@ -33,6 +33,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.AbstractConfiguration;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.apache.logging.log4j.core.config.ConfigurationListener;
@@ -44,6 +45,7 @@ import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.impl.ThreadContextDataInjector;
 import org.apache.logging.log4j.core.jmx.Server;
 import org.apache.logging.log4j.core.util.Cancellable;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.ExecutorServices;
 import org.apache.logging.log4j.core.util.Loader;
 import org.apache.logging.log4j.core.util.NetUtils;
@@ -572,21 +574,24 @@ public class LoggerContext extends AbstractLifeCycle
 
     /**
      * Adds a Filter to the Configuration. Filters that are added through the API will be lost when a reconfigure
-     * occurs.
+     * occurs. The Loggers are updated, as they may check the level of an event without the Filter when the
+     * Configuration has none.
      *
      * @param filter The Filter to add.
      */
     public void addFilter(final Filter filter) {
         configuration.addFilter(filter);
+        updateLoggers();
     }
 
     /**
-     * Removes a Filter from the current Configuration.
+     * Removes a Filter from the current Configuration and updates the Loggers.
      *
      * @param filter The Filter to remove.
      */
     public void removeFilter(final Filter filter) {
         configuration.removeFilter(filter);
+        updateLoggers();
     }
 
     /**
@@ -751,7 +756,10 @@ public class LoggerContext extends AbstractLifeCycle
         LOGGER.debug("Reconfiguration started for context {} ({})", contextName, this);
         initApiModule();
         final Configuration newConfig = reconfigurable.reconfigure();
-        if (newConfig != null) {
+        if (newConfig != null && applyIncrementally(newConfig)) {
+            LOGGER.debug("Reconfiguration applied incrementally for {} ({}) in {} milliseconds.", contextName, this,
+                    System.currentTimeMillis() - startMillis);
+        } else if (newConfig != null) {
             setConfiguration(newConfig);
             LOGGER.debug("Reconfiguration completed for {} ({}) in {} milliseconds.", contextName, this,
                     System.currentTimeMillis() - startMillis);
@@ -761,6 +769,36 @@ public class LoggerContext extends AbstractLifeCycle
         }
     }
 
+    /**
+     * Applies the specified configuration to the current one if incremental reconfiguration is enabled and the
+     * changes allow it.
+     *
+     * @see Constants#INCREMENTAL_RECONFIGURATION
+     */
+    private boolean applyIncrementally(final Configuration newConfig) {
+        if (!PropertiesUtil.getProperties().getBooleanProperty(Constants.INCREMENTAL_RECONFIGURATION, false)) {
+            return false;
+        }
+        configLock.lock();
+        try {
+            final Configuration config = this.configuration;
+            if (!(config instanceof AbstractConfiguration) || !(newConfig instanceof AbstractConfiguration)
+                    || !((AbstractConfiguration) config).applyIncrementally((AbstractConfiguration) newConfig)) {
+                return false;
+            }
+            firePropertyChangeEvent(new PropertyChangeEvent(this, PROPERTY_CONFIG, config, config));
+            try {
+                Server.reregisterMBeansAfterReconfigure();
+            } catch (final LinkageError | Exception e) {
+                // LOG4J2-716: Android has no java.lang.management
+                LOGGER.error("Could not reconfigure JMX", e);
+            }
+            return true;
+        } finally {
+            configLock.unlock();
+        }
+    }
+
     private void initApiModule() {
         ThreadContextMapFactory.init(); // Or make public and call ThreadContext.init() which calls ThreadContextMapFactory.init().
     }
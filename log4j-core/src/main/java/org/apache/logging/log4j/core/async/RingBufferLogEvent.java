@@ -78,6 +78,8 @@ public class RingBufferLogEvent implements LogEvent, ReusableMessage, CharSequen
     private String messageFormat;
     private StringBuilder messageText;
     private Object[] parameters;
+    private ParameterBuffer parameterBuffer;
+    private boolean unboxedParameters;
     private transient Throwable thrown;
     private ThrowableProxy thrownProxy;
     private StringMap contextData = ContextDataFactory.createContextData();
@@ -130,7 +132,13 @@ public class RingBufferLogEvent implements LogEvent, ReusableMessage, CharSequen
             final ReusableMessage reusable = (ReusableMessage) msg;
             reusable.formatTo(getMessageTextForWriting());
             messageFormat = reusable.getFormat();
-            parameters = reusable.swapParameters(parameters == null ? new Object[10] : parameters);
+            final ParameterBuffer buffer = reusable.swapParameterBuffer(parameterBuffer);
+            unboxedParameters = buffer != null;
+            if (unboxedParameters) {
+                parameterBuffer = buffer;
+            } else {
+                parameters = reusable.swapParameters(parameters == null ? new Object[10] : parameters);
+            }
             parameterCount = reusable.getParameterCount();
         } else {
             this.message = InternalAsyncUtil.makeMessageImmutable(msg);
@@ -243,6 +251,9 @@ public class RingBufferLogEvent implements LogEvent, ReusableMessage, CharSequen
      */
     @Override
     public Object[] getParameters() {
+        if (unboxedParameters) {
+            return parameterBuffer.toArray();
+        }
         return parameters == null ? null : Arrays.copyOf(parameters, parameterCount);
     }
 
@@ -270,11 +281,32 @@ public class RingBufferLogEvent implements LogEvent, ReusableMessage, CharSequen
      */
     @Override
     public Object[] swapParameters(final Object[] emptyReplacement) {
+        if (unboxedParameters) {
+            return parameterBuffer.toArray();
+        }
         final Object[] result = this.parameters;
         this.parameters = emptyReplacement;
         return result;
     }
 
+    /**
+     * Replaces this ReusableMessage's parameter buffer with the specified value and return the original buffer, if the
+     * parameters of this event are held in a buffer.
+     * @param emptyReplacement the parameter buffer that can be used for subsequent uses of this reusable message
+     * @return the original parameter buffer or {@code null}
+     * @see ReusableMessage#swapParameterBuffer(ParameterBuffer)
+     */
+    @Override
+    public ParameterBuffer swapParameterBuffer(final ParameterBuffer emptyReplacement) {
+        if (!unboxedParameters) {
+            return null;
+        }
+        final ParameterBuffer result = this.parameterBuffer;
+        this.parameterBuffer = emptyReplacement;
+        this.unboxedParameters = false;
+        return result;
+    }
+
     /*
      * @see ReusableMessage#getParameterCount
      */
@@ -285,7 +317,11 @@ public class RingBufferLogEvent implements LogEvent, ReusableMessage, CharSequen
 
     @Override
     public <S> void forEachParameter(final ParameterConsumer<S> action, final S state) {
-        if (parameters != null) {
+        if (unboxedParameters) {
+            for (short i = 0; i < parameterCount; i++) {
+                action.accept(parameterBuffer.get(i), i, state);
+            }
+        } else if (parameters != null) {
             for (short i = 0; i < parameterCount; i++) {
                 action.accept(parameters[i], i, state);
             }
@@ -421,13 +457,18 @@ public class RingBufferLogEvent implements LogEvent, ReusableMessage, CharSequen
             if (parameters != null) {
                 Arrays.fill(parameters, null);
             }
+            if (parameterBuffer != null) {
+                parameterBuffer.clear();
+            }
         } else {
             // A user may have manually logged a ReusableMessage implementation, when thread locals are
             // disabled we remove the reference in order to avoid permanently holding references to these
             // buffers.
             messageText = null;
             parameters = null;
+            parameterBuffer = null;
         }
+        unboxedParameters = false;
     }
 
     private void writeObject(final java.io.ObjectOutputStream out) throws IOException {
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -37,6 +38,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
@@ -53,6 +55,7 @@ import org.apache.logging.log4j.core.config.arbiters.Arbiter;
 import org.apache.logging.log4j.core.config.arbiters.SelectArbiter;
 import org.apache.logging.log4j.core.config.plugins.util.PluginBuilder;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.lookup.Interpolator;
 import org.apache.logging.log4j.core.lookup.MapLookup;
@@ -139,6 +142,10 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     private AsyncLoggerConfigDisruptor asyncLoggerConfigDisruptor;
     private NanoClock nanoClock = new DummyNanoClock();
     private final WeakReference<LoggerContext> loggerContext;
+    private boolean nodesCreated;
+    private Node configuredNode;
+    private Map<String, Set<String>> appenderDependencies;
+    private AppenderStarter appenderStarter;
 
     /**
      * Constructor.
@@ -217,6 +224,23 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     @Override
     public void initialize() {
         LOGGER.debug(Version.getProductString() + " initializing configuration {}", this);
+        if (nodesCreated) {
+            // the nodes were created to compare this configuration with a running one
+            nodesCreated = false;
+        } else {
+            createNodes();
+        }
+        setupAdvertisement();
+        doConfigure();
+        setState(State.INITIALIZED);
+        LOGGER.debug("Configuration {} initialized", this);
+    }
+
+    /**
+     * Collects the plugins and builds the node tree of the configuration, without creating any plugin object. When
+     * incremental reconfiguration is enabled, a copy of the tree is kept to be compared with the next configuration.
+     */
+    private void createNodes() {
         subst.setConfiguration(this);
         try {
             scriptManager = new ScriptManager(this, watchManager);
@@ -240,10 +264,9 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             }
         }
         setup();
-        setupAdvertisement();
-        doConfigure();
-        setState(State.INITIALIZED);
-        LOGGER.debug("Configuration {} initialized", this);
+        if (PropertiesUtil.getProperties().getBooleanProperty(Constants.INCREMENTAL_RECONFIGURATION, false)) {
+            configuredNode = new Node(rootNode);
+        }
     }
 
     protected void initializeWatchers(final Reconfigurable reconfigurable, final ConfigurationSource configSource,
@@ -303,8 +326,13 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             logger.start();
             alreadyStarted.add(logger);
         }
-        for (final Appender appender : appenders.values()) {
-            appender.start();
+        final int appenderStartThreads = AppenderStarter.getThreads();
+        if (appenderStartThreads > 1 && appenders.size() > 1) {
+            appenderStarter = AppenderStarter.start(appenders, appenderDependencies, appenderStartThreads);
+        } else {
+            for (final Appender appender : appenders.values()) {
+                appender.start();
+            }
         }
         if (!alreadyStarted.contains(root)) { // LOG4J2-392
             root.start(); // LOG4J2-336
@@ -378,6 +406,13 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
         }
         root.getReliabilityStrategy().beforeStopAppenders();
 
+        if (appenderStarter != null) {
+            // Appenders still starting in the background must not start after they are stopped.
+            LOGGER.trace("{} waiting for the Appenders that are still starting.", cls);
+            appenderStarter.stop(timeout, timeUnit);
+            appenderStarter = null;
+        }
+
         // Stop the appenders in reverse order in case they still have activity.
         final Appender[] array = appenders.values().toArray(new Appender[appenders.size()]);
         final List<Appender> async = getAsyncAppenders(array);
@@ -424,6 +459,286 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
         return true;
     }
 
+    /**
+     * Applies the differences between this running configuration and the specified new one in place, instead of
+     * replacing this configuration with the new one. The node trees of both configurations are compared:
+     * <ul>
+     * <li>Loggers whose level is the only change get their level updated in place;</li>
+     * <li>Appenders that were added or modified, and those referencing them, are created from the new nodes and
+     * replace the old ones, which are stopped afterwards. Unchanged Appenders, and their managers, are kept;</li>
+     * <li>Loggers that were otherwise modified, or that reference a replaced Appender, are recreated;</li>
+     * <li>the configuration filters are replaced if they were modified.</li>
+     * </ul>
+     * Any other change, as well as changes to asynchronous loggers or involving arbiters or scheduled plugins, requires
+     * a full reconfiguration: this method then returns {@code false} without modifying this configuration.
+     * <p>
+     * Nodes are compared before their attributes are resolved, so a change in the value of a lookup used by an
+     * unchanged node is not detected. Node trees are only kept if {@link Constants#INCREMENTAL_RECONFIGURATION} is
+     * enabled.
+     * </p>
+     *
+     * @param newConfig the new configuration, which must not have been initialized
+     * @return {@code true} if the new configuration was applied to this one, {@code false} if this configuration must
+     *         be replaced by the new one
+     * @since 3.0.0
+     */
+    public synchronized boolean applyIncrementally(final AbstractConfiguration newConfig) {
+        if (configuredNode == null || !isStarted() || newConfig.getClass() != getClass()
+                || !newConfig.getState().equals(State.INITIALIZING)) {
+            return false;
+        }
+        if (!newConfig.nodesCreated) {
+            newConfig.createNodes();
+            newConfig.nodesCreated = true;
+        }
+        final Node newNode = newConfig.configuredNode;
+        if (newNode == null || !hasSameSettings(newConfig)) {
+            return false;
+        }
+        final ConfigurationNodes.TopLevel oldNodes = new ConfigurationNodes.TopLevel(configuredNode);
+        final ConfigurationNodes.TopLevel newNodes = new ConfigurationNodes.TopLevel(newNode);
+        if (oldNodes.appenders == null || oldNodes.loggers == null || newNodes.appenders == null
+                || newNodes.loggers == null || !ConfigurationNodes.isEqual(oldNodes.others, newNodes.others)) {
+            return false;
+        }
+        final Map<String, Node> oldAppenderNodes = ConfigurationNodes.getChildrenByName(oldNodes.appenders);
+        final Map<String, Node> newAppenderNodes = ConfigurationNodes.getChildrenByName(newNodes.appenders);
+        final Map<String, Node> oldLoggerNodes = ConfigurationNodes.getChildrenByName(oldNodes.loggers);
+        final Map<String, Node> newLoggerNodes = ConfigurationNodes.getChildrenByName(newNodes.loggers);
+        if (oldAppenderNodes == null || newAppenderNodes == null || oldLoggerNodes == null || newLoggerNodes == null
+                || !newLoggerNodes.containsKey(LogManager.ROOT_LOGGER_NAME)) {
+            return false;
+        }
+
+        // Appenders that were added, removed or modified, and the ones referencing them
+        final Set<String> changedAppenders = new HashSet<>();
+        for (final Map.Entry<String, Node> entry : oldAppenderNodes.entrySet()) {
+            if (!ConfigurationNodes.isEqual(entry.getValue(), newAppenderNodes.get(entry.getKey()))) {
+                changedAppenders.add(entry.getKey());
+            }
+        }
+        for (final String appenderName : newAppenderNodes.keySet()) {
+            if (!oldAppenderNodes.containsKey(appenderName)) {
+                changedAppenders.add(appenderName);
+            }
+        }
+        boolean referencing;
+        do {
+            referencing = false;
+            for (final Map.Entry<String, Node> entry : newAppenderNodes.entrySet()) {
+                if (!changedAppenders.contains(entry.getKey())
+                        && ConfigurationNodes.references(entry.getValue(), changedAppenders)) {
+                    changedAppenders.add(entry.getKey());
+                    referencing = true;
+                }
+            }
+        } while (referencing);
+        for (final String appenderName : changedAppenders) {
+            final Node node = newAppenderNodes.get(appenderName);
+            if (node != null && ConfigurationNodes.requiresFullConfiguration(node)) {
+                return false;
+            }
+        }
+
+        // Loggers whose level changed, that must be recreated or that were removed
+        final Map<String, Level> changedLevels = new LinkedHashMap<>();
+        final List<Node> changedLoggers = new ArrayList<>();
+        for (final Map.Entry<String, Node> entry : newLoggerNodes.entrySet()) {
+            final Node node = entry.getValue();
+            final Node oldNode = oldLoggerNodes.get(entry.getKey());
+            if (ConfigurationNodes.references(node, changedAppenders)
+                    || !ConfigurationNodes.isEqualIgnoring(node, oldNode, "level")) {
+                if (ConfigurationNodes.isAsyncLogger(node) || ConfigurationNodes.isAsyncLogger(oldNode)
+                        || ConfigurationNodes.requiresFullConfiguration(node)) {
+                    return false;
+                }
+                changedLoggers.add(node);
+            } else if (!ConfigurationNodes.isEqual(node, oldNode)) {
+                final String levelName = ConfigurationNodes.getLiteralLevel(node);
+                final Level level = levelName == null ? null : Level.toLevel(levelName, null);
+                if (level == null || loggerConfigs.get(entry.getKey()) == null) {
+                    return false;
+                }
+                changedLevels.put(entry.getKey(), level);
+            }
+        }
+        final List<String> removedLoggers = new ArrayList<>();
+        for (final Map.Entry<String, Node> entry : oldLoggerNodes.entrySet()) {
+            if (!newLoggerNodes.containsKey(entry.getKey())) {
+                if (ConfigurationNodes.isAsyncLogger(entry.getValue())) {
+                    return false;
+                }
+                removedLoggers.add(entry.getKey());
+            }
+        }
+        final boolean filtersChanged = !ConfigurationNodes.isEqual(oldNodes.filters, newNodes.filters);
+        if (filtersChanged) {
+            for (final Node node : newNodes.filters) {
+                if (ConfigurationNodes.requiresFullConfiguration(node)) {
+                    return false;
+                }
+            }
+        }
+
+        // Create the new plugins first, so that nothing is modified if one of them cannot be created
+        final Map<String, Appender> createdAppenders = new HashMap<>();
+        final List<LoggerConfig> createdLoggers = new ArrayList<>();
+        final List<Filter> createdFilters = new ArrayList<>();
+        for (final String appenderName : changedAppenders) {
+            final Node node = newAppenderNodes.get(appenderName);
+            if (node != null) {
+                final Appender appender = createPlugin(node, Appender.class);
+                if (appender == null) {
+                    discard(createdAppenders.values(), createdLoggers, createdFilters);
+                    return false;
+                }
+                createdAppenders.put(appenderName, appender);
+            }
+        }
+        final Map<String, Appender> newAppenders = new HashMap<>(appenders);
+        newAppenders.keySet().removeAll(changedAppenders);
+        newAppenders.putAll(createdAppenders);
+        for (final Node node : changedLoggers) {
+            final LoggerConfig loggerConfig = createPlugin(node, LoggerConfig.class);
+            if (loggerConfig == null) {
+                discard(createdAppenders.values(), createdLoggers, createdFilters);
+                return false;
+            }
+            createdLoggers.add(loggerConfig);
+            for (final AppenderRef ref : loggerConfig.getAppenderRefs()) {
+                final Appender app = newAppenders.get(ref.getRef());
+                if (app != null) {
+                    loggerConfig.addAppender(app, ref.getLevel(), ref.getFilter());
+                } else {
+                    LOGGER.error("Unable to locate appender \"{}\" for logger config \"{}\"", ref.getRef(),
+                            loggerConfig);
+                }
+            }
+        }
+        if (filtersChanged) {
+            for (final Node node : newNodes.filters) {
+                final Filter filter = createPlugin(node, Filter.class);
+                if (filter == null) {
+                    discard(createdAppenders.values(), createdLoggers, createdFilters);
+                    return false;
+                }
+                createdFilters.add(filter);
+            }
+        }
+
+        // Start the new plugins, switch the Loggers to them, then stop the plugins they replace
+        final List<Appender> replacedAppenders = new ArrayList<>();
+        for (final String appenderName : changedAppenders) {
+            final Appender appender = createdAppenders.get(appenderName);
+            final Appender previous = appender == null ? appenders.remove(appenderName)
+                    : appenders.put(appenderName, appender);
+            if (previous != null) {
+                replacedAppenders.add(previous);
+            }
+        }
+        for (final Appender appender : createdAppenders.values()) {
+            appender.start();
+        }
+        final List<Filter> replacedFilters = new ArrayList<>();
+        if (filtersChanged) {
+            final Filter previous = getFilter();
+            if (previous instanceof CompositeFilter) {
+                replacedFilters.addAll(Arrays.asList(((CompositeFilter) previous).getFiltersArray()));
+            } else if (previous != null) {
+                replacedFilters.add(previous);
+            }
+            for (final Filter filter : createdFilters) {
+                filter.start();
+                addFilter(filter);
+            }
+            for (final Filter filter : replacedFilters) {
+                removeFilter(filter);
+            }
+        }
+        for (final Map.Entry<String, Level> entry : changedLevels.entrySet()) {
+            loggerConfigs.get(entry.getKey()).setLevel(entry.getValue());
+        }
+        final List<LoggerConfig> replacedLoggers = new ArrayList<>();
+        for (final LoggerConfig loggerConfig : createdLoggers) {
+            loggerConfig.start();
+            final LoggerConfig previous = loggerConfigs.put(loggerConfig.getName(), loggerConfig);
+            if (previous != null) {
+                replacedLoggers.add(previous);
+            }
+            if (loggerConfig.getName().isEmpty()) {
+                root = loggerConfig;
+            }
+        }
+        for (final String loggerName : removedLoggers) {
+            final LoggerConfig previous = loggerConfigs.remove(loggerName);
+            if (previous != null) {
+                replacedLoggers.add(previous);
+            }
+        }
+        setParents();
+        final LoggerContext context = getLoggerContext();
+        if (context != null && context.getConfiguration() == this) {
+            context.updateLoggers();
+        }
+        for (final LoggerConfig loggerConfig : replacedLoggers) {
+            loggerConfig.getReliabilityStrategy().beforeStopConfiguration(this);
+        }
+        for (final LoggerConfig loggerConfig : replacedLoggers) {
+            loggerConfig.stop();
+        }
+        for (final LoggerConfig loggerConfig : replacedLoggers) {
+            loggerConfig.getReliabilityStrategy().beforeStopAppenders();
+        }
+        final Appender[] array = replacedAppenders.toArray(new Appender[0]);
+        for (final Appender appender : getAsyncAppenders(array)) {
+            appender.stop();
+        }
+        for (final Appender appender : array) {
+            if (appender.isStarted()) {
+                appender.stop();
+            }
+        }
+        for (final LoggerConfig loggerConfig : replacedLoggers) {
+            loggerConfig.clearAppenders();
+        }
+        for (final Filter filter : replacedFilters) {
+            filter.stop();
+        }
+        configuredNode = newNode;
+        LOGGER.debug("Configuration {} updated: {} appenders, {} loggers and {} levels changed.", this,
+                changedAppenders.size(), changedLoggers.size() + removedLoggers.size(), changedLevels.size());
+        return true;
+    }
+
+    private boolean hasSameSettings(final AbstractConfiguration other) {
+        return Objects.equals(name, other.name) && isShutdownHookEnabled == other.isShutdownHookEnabled
+                && shutdownTimeoutMillis == other.shutdownTimeoutMillis
+                && watchManager.getIntervalSeconds() == other.watchManager.getIntervalSeconds()
+                && pluginPackages.equals(other.pluginPackages)
+                && ConfigurationNodes.isEqual(advertiserNode, other.advertiserNode);
+    }
+
+    private <T> T createPlugin(final Node node, final Class<T> clazz) {
+        final Node copy = new Node(node);
+        createConfiguration(copy, null);
+        final Object object = copy.getObject();
+        return clazz.isInstance(object) ? clazz.cast(object) : null;
+    }
+
+    private static void discard(final Collection<Appender> appenders, final List<LoggerConfig> loggerConfigs,
+            final List<Filter> filters) {
+        // Releases the managers the plugins may have acquired when they were built
+        for (final Appender appender : appenders) {
+            appender.stop();
+        }
+        for (final LoggerConfig loggerConfig : loggerConfigs) {
+            loggerConfig.stop();
+        }
+        for (final Filter filter : filters) {
+            filter.stop();
+        }
+    }
+
     private List<Appender> getAsyncAppenders(final Appender[] all) {
         final List<Appender> result = new ArrayList<>();
         for (int i = all.length - 1; i >= 0; --i) {
@@ -636,6 +951,9 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
                 }
                 continue;
             }
+            if (child.getName().equalsIgnoreCase("Appenders") && AppenderStarter.getThreads() > 1) {
+                appenderDependencies = AppenderStarter.findDependencies(child, subst);
+            }
             createConfiguration(child, null);
             if (child.getObject() == null) {
                 continue;
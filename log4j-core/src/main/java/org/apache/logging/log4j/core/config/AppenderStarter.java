@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Starts the Appenders of a configuration in parallel, so that the time Appenders like the database or network ones
+ * spend connecting overlaps.
+ * <p>
+ * An Appender is only started once the Appenders it depends on are started. It depends on the Appenders named by an
+ * attribute or value of its configuration node or of their descendants, like the {@code ref} of an
+ * {@code AppenderRef} or the {@code primary} of a {@code Failover}. An Appender that fails to start is left stopped,
+ * which disables it, and does not prevent the others from starting. Appenders that have not started once the
+ * deadline has passed keep starting in the background, until the configuration stops: it then cancels the starts
+ * that have not begun and waits for those in progress, so that it stops every Appender that started late.
+ * </p>
+ * <p>
+ * Only the work done by {@link Appender#start()} is parallel. Appenders whose manager connects when the Appender is
+ * built, like the {@code Socket} Appender, connect while the configuration is built, one after another, before this
+ * class starts them.
+ * </p>
+ *
+ * @see Constants#APPENDER_START_THREADS
+ */
+final class AppenderStarter {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+    private static final String NAME = "name";
+
+    private final Map<String, Appender> appenders;
+    private final Map<String, Set<String>> dependencies;
+    private final Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+    private final Set<String> visiting = new HashSet<>();
+    private ExecutorService executor;
+    private long timeoutMillis;
+
+    private AppenderStarter(final Map<String, Appender> appenders, final Map<String, Set<String>> dependencies) {
+        this.appenders = appenders;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Returns the number of threads starting the Appenders, {@code 1} if they are started one after another.
+     */
+    static int getThreads() {
+        return Math.max(1, PropertiesUtil.getProperties().getIntegerProperty(Constants.APPENDER_START_THREADS, 1));
+    }
+
+    /**
+     * Returns the names that each Appender of the specified {@code Appenders} node may depend on, before the plugins
+     * are created, as they remove the attributes from the nodes.
+     *
+     * @param appendersNode the node of the Appenders
+     * @param substitutor the substitutor of the configuration, to resolve the names
+     * @return the candidate dependencies by Appender name
+     */
+    static Map<String, Set<String>> findDependencies(final Node appendersNode, final StrSubstitutor substitutor) {
+        final Map<String, Set<String>> dependencies = new HashMap<>();
+        for (final Node appender : appendersNode.getChildren()) {
+            String name = null;
+            final Set<String> names = new HashSet<>();
+            for (final Map.Entry<String, String> attribute : appender.getAttributes().entrySet()) {
+                if (NAME.equalsIgnoreCase(attribute.getKey())) {
+                    name = substitutor.replace(attribute.getValue());
+                } else {
+                    names.add(substitutor.replace(attribute.getValue()));
+                }
+            }
+            if (name != null) {
+                for (final Node child : appender.getChildren()) {
+                    collectNames(child, substitutor, names);
+                }
+                dependencies.put(name, names);
+            }
+        }
+        return dependencies;
+    }
+
+    private static void collectNames(final Node node, final StrSubstitutor substitutor, final Set<String> names) {
+        for (final String value : node.getAttributes().values()) {
+            names.add(substitutor.replace(value));
+        }
+        if (node.getValue() != null) {
+            names.add(substitutor.replace(node.getValue()));
+        }
+        for (final Node child : node.getChildren()) {
+            collectNames(child, substitutor, names);
+        }
+    }
+
+    /**
+     * Starts the specified Appenders on the specified number of threads and waits until they are started, or until
+     * the deadline set by {@link Constants#APPENDER_START_TIMEOUT_MILLIS} has passed.
+     *
+     * @param appenders the Appenders by name
+     * @param dependencies the candidate dependencies of the Appenders, by name
+     * @param threads the maximum number of threads
+     * @return the starter, to {@linkplain #stop(long, TimeUnit) stop} when the configuration stops
+     */
+    static AppenderStarter start(final Map<String, Appender> appenders, final Map<String, Set<String>> dependencies,
+            final int threads) {
+        final long timeoutMillis = PropertiesUtil.getProperties()
+                .getLongProperty(Constants.APPENDER_START_TIMEOUT_MILLIS, DEFAULT_TIMEOUT_MILLIS);
+        final AppenderStarter starter =
+                new AppenderStarter(appenders, dependencies == null ? Collections.emptyMap() : dependencies);
+        starter.start(Math.min(threads, appenders.size()), timeoutMillis);
+        return starter;
+    }
+
+    /**
+     * Cancels the starts that have not begun yet and waits for those in progress to end.
+     *
+     * @param timeout the maximum time to wait, or {@code 0} to wait as long as the deadline of the start
+     * @param timeUnit the unit of the timeout
+     * @return {@code true} if no Appender is still starting
+     */
+    boolean stop(final long timeout, final TimeUnit timeUnit) {
+        for (final CompletableFuture<Void> future : futures.values()) {
+            future.cancel(false);
+        }
+        executor.shutdown();
+        final long waitMillis = timeout > 0 ? timeUnit.toMillis(timeout) : timeoutMillis;
+        try {
+            if (executor.awaitTermination(waitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            LOGGER.warn("Appenders are still starting after {} ms", waitMillis);
+        } catch (final InterruptedException ex) {
+            LOGGER.warn("Interrupted while waiting for the appenders to start");
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private void start(final int threads, final long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        executor = Executors.newFixedThreadPool(threads,
+                Log4jThreadFactory.createDaemonThreadFactory(getClass().getSimpleName()));
+        try {
+            for (final String name : appenders.keySet()) {
+                schedule(name);
+            }
+            final CompletableFuture<Void> all = CompletableFuture.allOf(
+                    futures.values().toArray(new CompletableFuture<?>[0]));
+            // Appenders starting after the deadline may still have to schedule the ones depending on them.
+            all.whenComplete((result, failure) -> executor.shutdown());
+            all.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException ex) {
+            final List<String> pending = new ArrayList<>();
+            for (final Map.Entry<String, CompletableFuture<Void>> entry : futures.entrySet()) {
+                if (!entry.getValue().isDone()) {
+                    pending.add(entry.getKey());
+                }
+            }
+            LOGGER.error("Appenders {} did not start within {} ms, they are disabled until they start", pending,
+                    timeoutMillis);
+        } catch (final InterruptedException ex) {
+            LOGGER.warn("Interrupted while starting the appenders");
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException ex) {
+            // Not expected, as each task handles its own failure
+            LOGGER.error("Unable to start the appenders", ex.getCause());
+        }
+    }
+
+    /**
+     * Schedules the start of the specified Appender after the start of the Appenders it depends on. Dependencies
+     * forming a cycle are ignored.
+     */
+    private CompletableFuture<Void> schedule(final String name) {
+        final CompletableFuture<Void> scheduled = futures.get(name);
+        if (scheduled != null) {
+            return scheduled;
+        }
+        visiting.add(name);
+        final List<CompletableFuture<Void>> required = new ArrayList<>();
+        for (final String dependency : dependencies.getOrDefault(name, Collections.emptySet())) {
+            if (appenders.containsKey(dependency) && !visiting.contains(dependency)) {
+                required.add(schedule(dependency));
+            }
+        }
+        visiting.remove(name);
+        final Appender appender = appenders.get(name);
+        final CompletableFuture<Void> future = CompletableFuture.allOf(required.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> start(appender), executor);
+        futures.put(name, future);
+        return future;
+    }
+
+    private static void start(final Appender appender) {
+        final long startNanos = System.nanoTime();
+        try {
+            appender.start();
+            LOGGER.debug("Started appender {} in {} ms", appender.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (final RuntimeException | LinkageError ex) {
+            LOGGER.error("Unable to start appender {} after {} ms, it is disabled", appender.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), ex);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
+import org.apache.logging.log4j.core.config.arbiters.Arbiter;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.util.PluginType;
+
+/**
+ * Utility methods comparing the {@link Node} trees of two configurations, used to apply a reconfiguration
+ * incrementally.
+ */
+final class ConfigurationNodes {
+
+    private static final String NAME = "name";
+    private static final String LEVEL = "level";
+    private static final String VARIABLE_PREFIX = "${";
+
+    private ConfigurationNodes() {
+    }
+
+    /**
+     * Returns {@code true} if both nodes have the same name, value, attributes and children, in the same order.
+     */
+    static boolean isEqual(final Node node, final Node other) {
+        return isEqualIgnoring(node, other, null);
+    }
+
+    /**
+     * Returns {@code true} if both nodes are equal, except maybe for the specified attribute of the nodes themselves.
+     */
+    static boolean isEqualIgnoring(final Node node, final Node other, final String ignoredAttribute) {
+        if (node == other) {
+            return true;
+        }
+        if (node == null || other == null || !Objects.equals(node.getName(), other.getName())
+                || !Objects.equals(node.getValue(), other.getValue())) {
+            return false;
+        }
+        if (ignoredAttribute == null) {
+            if (!node.getAttributes().equals(other.getAttributes())) {
+                return false;
+            }
+        } else {
+            final Map<String, String> attributes = withoutAttribute(node.getAttributes(), ignoredAttribute);
+            if (!attributes.equals(withoutAttribute(other.getAttributes(), ignoredAttribute))) {
+                return false;
+            }
+        }
+        return isEqual(node.getChildren(), other.getChildren());
+    }
+
+    static boolean isEqual(final List<Node> nodes, final List<Node> others) {
+        if (nodes.size() != others.size()) {
+            return false;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            if (!isEqual(nodes.get(i), others.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, String> withoutAttribute(final Map<String, String> attributes, final String name) {
+        final Map<String, String> result = new LinkedHashMap<>(attributes);
+        result.keySet().removeIf(key -> key.equalsIgnoreCase(name));
+        return result;
+    }
+
+    /**
+     * Returns the value of the specified attribute, looked up ignoring case, or {@code null}.
+     */
+    static String getAttribute(final Node node, final String name) {
+        for (final Map.Entry<String, String> entry : node.getAttributes().entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the literal value of the level attribute of the specified node, or {@code null} if the node has no level
+     * attribute or if it must be resolved first.
+     */
+    static String getLiteralLevel(final Node node) {
+        final String level = getAttribute(node, LEVEL);
+        return level == null || level.contains(VARIABLE_PREFIX) ? null : level;
+    }
+
+    /**
+     * Returns the direct children of the specified container node by name, in order, or {@code null} if one of them
+     * has no literal name. Root loggers are mapped to the empty name, like in the logger configuration map.
+     */
+    static Map<String, Node> getChildrenByName(final Node container) {
+        final Map<String, Node> result = new LinkedHashMap<>();
+        for (final Node child : container.getChildren()) {
+            final String name = isRootLogger(child) ? LogManager.ROOT_LOGGER_NAME : getAttribute(child, NAME);
+            if (name == null || name.contains(VARIABLE_PREFIX) || result.put(name, child) != null) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isRootLogger(final Node node) {
+        final PluginType<?> type = node.getType();
+        return type != null && (LoggerConfig.RootLogger.class.isAssignableFrom(type.getPluginClass())
+                || AsyncLoggerConfig.RootLogger.class.isAssignableFrom(type.getPluginClass()));
+    }
+
+    /**
+     * Returns {@code true} if the specified node creates an asynchronous logger configuration.
+     */
+    static boolean isAsyncLogger(final Node node) {
+        final PluginType<?> type = node.getType();
+        return type != null && (AsyncLoggerConfig.class.isAssignableFrom(type.getPluginClass())
+                || AsyncLoggerConfig.RootLogger.class.isAssignableFrom(type.getPluginClass()));
+    }
+
+    /**
+     * Returns {@code true} if the specified node or one of its descendants may reference one of the specified appender
+     * names. Like {@link AppenderStarter#findDependencies}, any attribute or value other than the name of the node
+     * itself is a possible reference, as plugins can name an appender in any attribute, e.g. the {@code primary} of a
+     * {@code Failover}. Values that must be resolved first reference any appender.
+     */
+    static boolean references(final Node node, final Collection<String> appenderNames) {
+        if (appenderNames.isEmpty()) {
+            return false;
+        }
+        for (final Map.Entry<String, String> entry : node.getAttributes().entrySet()) {
+            if (!NAME.equalsIgnoreCase(entry.getKey()) && isReference(entry.getValue(), appenderNames)) {
+                return true;
+            }
+        }
+        return isReference(node.getValue(), appenderNames) || childrenReference(node, appenderNames);
+    }
+
+    private static boolean childrenReference(final Node node, final Collection<String> appenderNames) {
+        for (final Node child : node.getChildren()) {
+            for (final String value : child.getAttributes().values()) {
+                if (isReference(value, appenderNames)) {
+                    return true;
+                }
+            }
+            if (isReference(child.getValue(), appenderNames) || childrenReference(child, appenderNames)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isReference(final String value, final Collection<String> appenderNames) {
+        return value != null && (value.contains(VARIABLE_PREFIX) || appenderNames.contains(value));
+    }
+
+    /**
+     * Returns {@code true} if the specified node or one of its descendants can only be processed by a full
+     * configuration: arbiters, which are resolved before plugins are created, and scheduled plugins, which size the
+     * configuration scheduler when it starts.
+     */
+    static boolean requiresFullConfiguration(final Node node) {
+        final PluginType<?> type = node.getType();
+        if (type != null && (Arbiter.ELEMENT_TYPE.equals(type.getElementName())
+                || type.getPluginClass().isAnnotationPresent(Scheduled.class))) {
+            return true;
+        }
+        for (final Node child : node.getChildren()) {
+            if (requiresFullConfiguration(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The top-level nodes of a configuration, split the way they are applied incrementally.
+     */
+    static final class TopLevel {
+
+        Node appenders;
+        Node loggers;
+        final List<Node> filters = new ArrayList<>();
+        final List<Node> others = new ArrayList<>();
+
+        TopLevel(final Node root) {
+            for (final Node child : root.getChildren()) {
+                final PluginType<?> type = child.getType();
+                if (child.getName().equalsIgnoreCase("Appenders")) {
+                    appenders = child;
+                } else if (child.getName().equalsIgnoreCase("Loggers")) {
+                    loggers = child;
+                } else if (type != null && Filter.class.isAssignableFrom(type.getPluginClass())) {
+                    filters.add(child);
+                } else {
+                    others.add(child);
+                }
+            }
+        }
+    }
+}
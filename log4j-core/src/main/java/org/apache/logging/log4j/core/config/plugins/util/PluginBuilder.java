@@ -24,10 +24,13 @@ import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.plugins.Node;
 import org.apache.logging.log4j.plugins.PluginAliases;
 import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.plugins.bind.ConfigurationBinder;
 import org.apache.logging.log4j.plugins.bind.FactoryMethodBinder;
 import org.apache.logging.log4j.plugins.bind.FieldConfigurationBinder;
 import org.apache.logging.log4j.plugins.bind.MethodConfigurationBinder;
 import org.apache.logging.log4j.plugins.inject.ConfigurationInjector;
+import org.apache.logging.log4j.plugins.inject.InjectorStrategy;
+import org.apache.logging.log4j.plugins.name.AnnotatedElementNameProvider;
 import org.apache.logging.log4j.plugins.util.Builder;
 import org.apache.logging.log4j.plugins.util.PluginType;
 import org.apache.logging.log4j.plugins.util.TypeUtil;
@@ -36,14 +39,19 @@ import org.apache.logging.log4j.util.ReflectionUtil;
 import org.apache.logging.log4j.util.StringBuilders;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
@@ -56,6 +64,36 @@ public class PluginBuilder implements Builder<Object> {
 
     private static final Logger LOGGER = StatusLogger.getLogger();
 
+    /**
+     * Builder factory method of each plugin class, if it has one.
+     */
+    private static final ClassValue<Optional<Method>> BUILDER_FACTORIES = new ClassValue<Optional<Method>>() {
+        @Override
+        protected Optional<Method> computeValue(final Class<?> clazz) {
+            return Optional.ofNullable(findBuilderFactory(clazz));
+        }
+    };
+
+    /**
+     * Factory method of each plugin class.
+     */
+    private static final ClassValue<Method> FACTORY_METHODS = new ClassValue<Method>() {
+        @Override
+        protected Method computeValue(final Class<?> clazz) {
+            return findFactoryMethod(clazz);
+        }
+    };
+
+    /**
+     * Annotated fields and methods of each builder class, found once per class instead of once per plugin instance.
+     */
+    private static final ClassValue<List<InjectionPoint>> INJECTION_POINTS = new ClassValue<List<InjectionPoint>>() {
+        @Override
+        protected List<InjectionPoint> computeValue(final Class<?> clazz) {
+            return findInjectionPoints(clazz);
+        }
+    };
+
     private final PluginType<?> pluginType;
     private final Class<?> clazz;
 
@@ -121,7 +159,7 @@ public class PluginBuilder implements Builder<Object> {
         substitutor = new Substitutor(event);
         // first try to use a builder class if one is available
         try {
-            final Builder<?> builder = createBuilder(this.clazz);
+            final Builder<?> builder = createBuilder(this.pluginType);
             if (builder != null) {
                 return injectBuilder(builder);
             }
@@ -137,7 +175,7 @@ public class PluginBuilder implements Builder<Object> {
         }
         // or fall back to factory method if no builder class is available
         try {
-            return injectFactoryMethod(findFactoryMethod(this.clazz));
+            return injectFactoryMethod(FACTORY_METHODS.get(this.clazz));
         } catch (final Throwable e) {
             LOGGER.error("Could not create plugin of type {} for element {}: {}", clazz, node.getName(),
                     e.toString(), e);
@@ -150,59 +188,78 @@ public class PluginBuilder implements Builder<Object> {
         Objects.requireNonNull(this.node, "No Node object was set.");
     }
 
-    private static Builder<?> createBuilder(final Class<?> clazz)
+    /**
+     * Creates the builder of a plugin, through the code generated by the plugin processor if there is some, or else
+     * through its builder factory method.
+     */
+    private static Builder<?> createBuilder(final PluginType<?> pluginType)
         throws InvocationTargetException, IllegalAccessException {
+        final Builder<?> builder = pluginType.newBuilder();
+        if (builder != null) {
+            return builder;
+        }
+        final Method method = BUILDER_FACTORIES.get(pluginType.getPluginClass()).orElse(null);
+        if (method == null) {
+            return null;
+        }
+        final Object result = method.invoke(null);
+        return result instanceof Builder ? (Builder<?>) result
+                : new BuilderWrapper((org.apache.logging.log4j.core.util.Builder<?>) result);
+    }
+
+    private static Method findBuilderFactory(final Class<?> clazz) {
         for (final Method method : clazz.getDeclaredMethods()) {
             if ((method.isAnnotationPresent(PluginFactory.class)) &&
                 Modifier.isStatic(method.getModifiers()) &&
                 TypeUtil.isAssignable(Builder.class, method.getReturnType())) {
                 ReflectionUtil.makeAccessible(method);
-                return (Builder<?>) method.invoke(null);
+                return method;
             } else if (method.isAnnotationPresent(org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory.class) &&
                     Modifier.isStatic(method.getModifiers()) &&
                     TypeUtil.isAssignable(org.apache.logging.log4j.core.util.Builder.class, method.getReturnType())) {
                 ReflectionUtil.makeAccessible(method);
-                return new BuilderWrapper((org.apache.logging.log4j.core.util.Builder<?>) method.invoke(null));
+                return method;
             }
         }
         return null;
     }
 
-    private Object injectBuilder(final Builder<?> builder) {
-        final Object target = builder instanceof BuilderWrapper ? ((BuilderWrapper) builder).getBuilder() : builder;
-        final List<Field> fields = TypeUtil.getAllDeclaredFields(target.getClass());
-        AccessibleObject.setAccessible(fields.toArray(new Field[0]), true);
-        final StringBuilder log = new StringBuilder();
-        // TODO: collect OptionBindingExceptions into a composite error message (ConfigurationException?)
+    private static List<InjectionPoint> findInjectionPoints(final Class<?> clazz) {
+        final List<InjectionPoint> points = new ArrayList<>();
+        final List<Field> fields = TypeUtil.getAllDeclaredFields(clazz);
         for (final Field field : fields) {
-            ConfigurationInjector.forAnnotatedElement(field).ifPresent(injector -> {
-                log.append(log.length() == 0 ? simpleName(target) + "(" : ", ");
-                injector.withAliases(extractPluginAliases(field.getAnnotations()))
-                        .withConversionType(field.getGenericType())
-                        .withConfigurationBinder(new FieldConfigurationBinder(field))
-                        .withDebugLog(log)
-                        .withStringSubstitutionStrategy(substitutor)
-                        .withConfiguration(configuration)
-                        .withNode(node)
-                        .inject(target);
-            });
+            final InjectionPoint point = InjectionPoint.forAnnotatedElement(field, field.getGenericType(),
+                    new FieldConfigurationBinder(field));
+            if (point != null) {
+                field.setAccessible(true);
+                points.add(point);
+            }
         }
         // TODO: tests
-        for (final Method method : target.getClass().getMethods()) {
-            ConfigurationInjector.forAnnotatedElement(method).ifPresent(injector -> {
+        for (final Method method : clazz.getMethods()) {
+            if (InjectionPoint.findStrategy(method) != null) {
                 if (method.getParameterCount() != 1) {
                     throw new IllegalArgumentException("Cannot inject to a plugin builder method with parameter count other than 1");
                 }
-                log.append(log.length() == 0 ? simpleName(target) + "(" : ", ");
-                injector.withAliases(extractPluginAliases(method.getAnnotations()))
-                        .withConversionType(method.getGenericParameterTypes()[0])
-                        .withConfigurationBinder(new MethodConfigurationBinder(method))
-                        .withDebugLog(log)
-                        .withStringSubstitutionStrategy(substitutor)
-                        .withConfiguration(configuration)
-                        .withNode(node)
-                        .inject(target);
-            });
+                points.add(InjectionPoint.forAnnotatedElement(method, method.getGenericParameterTypes()[0],
+                        new MethodConfigurationBinder(method)));
+            }
+        }
+        return Collections.unmodifiableList(points);
+    }
+
+    private Object injectBuilder(final Builder<?> builder) {
+        final Object target = builder instanceof BuilderWrapper ? ((BuilderWrapper) builder).getBuilder() : builder;
+        final StringBuilder log = new StringBuilder();
+        // TODO: collect OptionBindingExceptions into a composite error message (ConfigurationException?)
+        for (final InjectionPoint point : INJECTION_POINTS.get(target.getClass())) {
+            log.append(log.length() == 0 ? simpleName(target) + "(" : ", ");
+            point.newInjector()
+                    .withDebugLog(log)
+                    .withStringSubstitutionStrategy(substitutor)
+                    .withConfiguration(configuration)
+                    .withNode(node)
+                    .inject(target);
         }
         log.append(log.length() == 0 ? builder.getClass().getSimpleName() + "()" : ")");
         LOGGER.debug(log.toString());
@@ -302,6 +359,76 @@ public class PluginBuilder implements Builder<Object> {
         }
     }
 
+    /**
+     * Annotated field or method of a builder class, with everything needed to inject it resolved once: the injector
+     * class of its annotation, its name, aliases and conversion type, and the binder setting its value. Injectors
+     * hold the state of one injection, so a new one is configured from these for each plugin instance.
+     */
+    private static final class InjectionPoint {
+        private final Constructor<?> injectorConstructor;
+        private final AnnotatedElement element;
+        private final Annotation annotation;
+        private final String name;
+        private final String[] aliases;
+        private final Type conversionType;
+        private final ConfigurationBinder binder;
+
+        private InjectionPoint(final Constructor<?> injectorConstructor, final AnnotatedElement element,
+                               final Annotation annotation, final String name, final String[] aliases,
+                               final Type conversionType, final ConfigurationBinder binder) {
+            this.injectorConstructor = injectorConstructor;
+            this.element = element;
+            this.annotation = annotation;
+            this.name = name;
+            this.aliases = aliases;
+            this.conversionType = conversionType;
+            this.binder = binder;
+        }
+
+        /**
+         * Returns the annotation of the specified element that names an injector, like
+         * {@link ConfigurationInjector#forAnnotatedElement(AnnotatedElement)}, or {@code null} if it has none.
+         */
+        static Annotation findStrategy(final AnnotatedElement element) {
+            for (final Annotation annotation : element.getAnnotations()) {
+                if (annotation.annotationType().isAnnotationPresent(InjectorStrategy.class)) {
+                    return annotation;
+                }
+            }
+            return null;
+        }
+
+        static InjectionPoint forAnnotatedElement(final AnnotatedElement element, final Type conversionType,
+                                                  final ConfigurationBinder binder) {
+            final Annotation annotation = findStrategy(element);
+            if (annotation == null) {
+                return null;
+            }
+            final InjectorStrategy strategy = annotation.annotationType().getAnnotation(InjectorStrategy.class);
+            return new InjectionPoint(ReflectionUtil.getDefaultConstructor(strategy.value()), element, annotation,
+                    AnnotatedElementNameProvider.getName(element), extractPluginAliases(element.getAnnotations()),
+                    conversionType, binder);
+        }
+
+        @SuppressWarnings("unchecked")
+        ConfigurationInjector<Annotation, Object> newInjector() {
+            final ConfigurationInjector<Annotation, Object> injector;
+            try {
+                injector = (ConfigurationInjector<Annotation, Object>) injectorConstructor.newInstance();
+            } catch (final InvocationTargetException e) {
+                throw new IllegalStateException("Could not create injector " + injectorConstructor, e.getCause());
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create injector " + injectorConstructor, e);
+            }
+            return injector.withAnnotatedElement(element)
+                    .withAnnotation(annotation)
+                    .withName(name)
+                    .withAliases(aliases)
+                    .withConversionType(conversionType)
+                    .withConfigurationBinder(binder);
+        }
+    }
+
     private class Substitutor implements Function<String, String> {
         private final LogEvent event;
         private final StrSubstitutor strSubstitutor;
@@ -0,0 +1,534 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.core.filter;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.apache.logging.log4j.core.config.Scheduled;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * The <code>DuplicateThrowableFilter</code> suppresses repeated logging of the same exception.
+ *
+ * <p>
+ * Each throwable is fingerprinted by its type and the top <code>frames</code> elements of its stack trace. The first
+ * <code>maxOccurrences</code> events carrying a given fingerprint within each <code>interval</code> are accepted, any
+ * further ones are counted and rejected. Once per interval a summary event with the number of suppressed occurrences
+ * is logged through the logger that produced them. Events without a throwable are never affected.
+ * </p>
+ * <p>
+ * Fingerprints are kept in a fixed size table that is updated without locking, so memory use is bounded by
+ * <code>maxFingerprints</code> regardless of how many distinct exceptions are seen. Fingerprints that are not seen
+ * for a whole interval are evicted. When the table is full, events with new fingerprints are accepted.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %t %m%n"/&gt;<br>
+ * &nbsp;&lt;Filters&gt;<br>
+ * &nbsp;&nbsp;&lt;DuplicateThrowableFilter maxOccurrences="5" interval="60" frames="10"/&gt;<br>
+ * &nbsp;&lt;/Filters&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code><br>
+ */
+@Plugin(name = "DuplicateThrowableFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@Scheduled
+@PerformanceSensitive("allocation")
+public final class DuplicateThrowableFilter extends AbstractFilter implements Runnable {
+
+    private static final int DEFAULT_MAX_OCCURRENCES = 5;
+
+    private static final long DEFAULT_INTERVAL_SECONDS = 60;
+
+    private static final int DEFAULT_FRAMES = 10;
+
+    private static final int DEFAULT_MAX_FINGERPRINTS = 1024;
+
+    private static final int MAX_PROBES = 8;
+
+    private final int maxOccurrences;
+
+    private final long intervalNanos;
+
+    private final int frames;
+
+    private final AtomicReferenceArray<Fingerprint> fingerprints;
+
+    private final int mask;
+
+    private final Configuration configuration;
+
+    /** The time from which the intervals are counted. */
+    private final long origin = System.nanoTime();
+
+    private volatile ScheduledFuture<?> future;
+
+    private DuplicateThrowableFilter(final int maxOccurrences, final long intervalSeconds, final int frames,
+                                     final int maxFingerprints, final Configuration configuration,
+                                     final Result onMatch, final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.maxOccurrences = maxOccurrences;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+        this.frames = frames;
+        final int size = ceilingPowerOfTwo(maxFingerprints);
+        this.fingerprints = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.configuration = configuration;
+    }
+
+    private static int ceilingPowerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    @Override
+    public void start() {
+        if (configuration != null) {
+            final ConfigurationScheduler scheduler = configuration.getScheduler();
+            if (!scheduler.isExecutorServiceSet()) {
+                // make sure we have a thread pool
+                scheduler.incrementScheduledItems();
+            }
+            if (!scheduler.isStarted()) {
+                scheduler.start();
+            }
+            final long intervalMillis = TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+            future = scheduler.scheduleWithFixedDelay(this, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        final boolean stopped = stop(future);
+        future = null;
+        setStopped();
+        return stopped;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                         final Object... params) {
+        return params == null || params.length == 0
+                ? onMatch
+                : filter(logger, level, params[params.length - 1]);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                         final Throwable t) {
+        return filter(logger, level, t);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                         final Throwable t) {
+        return filter(logger, level, t);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getLoggerName(), event.getLevel(), event.getThrown());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(logger, level, p0);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(logger, level, p1);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(logger, level, p2);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(logger, level, p3);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(logger, level, p4);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(logger, level, p5);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(logger, level, p6);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(logger, level, p7);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(logger, level, p8);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(logger, level, p9);
+    }
+
+    private Result filter(final Logger logger, final Level level, final Object lastParameter) {
+        return lastParameter instanceof Throwable
+                ? filter(logger.getName(), level, (Throwable) lastParameter)
+                : onMatch;
+    }
+
+    /**
+     * Decide if we're going to log an event carrying <code>thrown</code> based on how often its fingerprint has
+     * been seen in the current interval.
+     *
+     * @param loggerName The name of the logger.
+     * @param level The log level.
+     * @param thrown The throwable of the event, may be null.
+     * @return The onMatch value if the filter passes, onMismatch otherwise.
+     */
+    private Result filter(final String loggerName, final Level level, final Throwable thrown) {
+        if (thrown == null) {
+            return onMatch;
+        }
+        final long now = System.nanoTime();
+        final Fingerprint fingerprint = lookup(thrown, loggerName, level, now);
+        if (fingerprint == null) {
+            // fail open
+            return onMatch;
+        }
+        return fingerprint.tryAcquire(now) ? onMatch : onMismatch;
+    }
+
+    private Fingerprint lookup(final Throwable thrown, final String loggerName, final Level level, final long now) {
+        // the only public accessor of the stack trace copies it, so do it once and use the copy for both the hash and
+        // the comparison with the fingerprints
+        final StackTraceElement[] stackTrace = thrown.getStackTrace();
+        final String className = thrown.getClass().getName();
+        final int count = Math.min(frames, stackTrace.length);
+        final long hash = fingerprint(className, stackTrace, count);
+        final int start = (int) (hash ^ (hash >>> 32));
+        for (int attempt = 0; attempt < MAX_PROBES; attempt++) {
+            // look for the fingerprint in all the slots before reusing one, or it may be added twice
+            int free = -1;
+            Fingerprint freeCurrent = null;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                final int index = (start + probe) & mask;
+                final Fingerprint current = fingerprints.get(index);
+                if (current != null && current.matches(hash, className, stackTrace, count)) {
+                    return current;
+                }
+                if (free < 0 && (current == null || current.isIdle(now))) {
+                    free = index;
+                    freeCurrent = current;
+                }
+            }
+            if (free < 0) {
+                break;
+            }
+            final Fingerprint created = new Fingerprint(hash, className, Arrays.copyOf(stackTrace, count), loggerName,
+                    level, now);
+            if (fingerprints.compareAndSet(free, freeCurrent, created)) {
+                return created;
+            }
+            // another thread took the slot, maybe for the same fingerprint
+        }
+        // table is saturated with live fingerprints
+        return null;
+    }
+
+    private static long fingerprint(final String className, final StackTraceElement[] stackTrace, final int count) {
+        long hash = mix(className.hashCode());
+        for (int i = 0; i < count; i++) {
+            final StackTraceElement element = stackTrace[i];
+            hash = hash * 31 + mix(element.getClassName().hashCode());
+            hash = hash * 31 + mix(Objects.hashCode(element.getMethodName()));
+            hash = hash * 31 + element.getLineNumber();
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Logs a summary for each fingerprint that had occurrences suppressed since the last run and evicts the
+     * fingerprints that have been idle for a whole interval. Called periodically by the configuration scheduler.
+     */
+    @Override
+    public void run() {
+        final long now = System.nanoTime();
+        for (int i = 0; i < fingerprints.length(); i++) {
+            final Fingerprint fingerprint = fingerprints.get(i);
+            if (fingerprint == null) {
+                continue;
+            }
+            if (fingerprint.isIdle(now)) {
+                fingerprints.compareAndSet(i, fingerprint, null);
+            }
+            fingerprint.emitSummary(configuration);
+        }
+    }
+
+    /**
+     * Returns the number of occurrences suppressed since the last summary, for all fingerprints. Used for unit
+     * testing.
+     * @return The number of suppressed occurrences.
+     */
+    public long getSuppressedCount() {
+        long count = 0;
+        for (int i = 0; i < fingerprints.length(); i++) {
+            final Fingerprint fingerprint = fingerprints.get(i);
+            if (fingerprint != null) {
+                count += fingerprint.suppressed.get();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "maxOccurrences=" + maxOccurrences + ", interval=" + TimeUnit.NANOSECONDS.toSeconds(intervalNanos)
+                + ", frames=" + frames + ", maxFingerprints=" + fingerprints.length();
+    }
+
+    /**
+     * Occurrence counters for one throwable fingerprint.
+     */
+    private final class Fingerprint {
+
+        private final long hash;
+
+        private final String throwableClassName;
+
+        private final String loggerName;
+
+        private final Level level;
+
+        private final StackTraceElement[] frames;
+
+        /** The index of the current interval in the upper 32 bits and its number of occurrences in the lower ones. */
+        private final AtomicLong window;
+
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private volatile long lastSeen;
+
+        Fingerprint(final long hash, final String throwableClassName, final StackTraceElement[] frames,
+                    final String loggerName, final Level level, final long now) {
+            this.hash = hash;
+            this.throwableClassName = throwableClassName;
+            this.frames = frames;
+            this.loggerName = loggerName;
+            this.level = level;
+            this.window = new AtomicLong((now - origin) / intervalNanos << 32);
+            this.lastSeen = now;
+        }
+
+        boolean matches(final long otherHash, final String className, final StackTraceElement[] stackTrace,
+                        final int count) {
+            if (hash != otherHash || frames.length != count || !throwableClassName.equals(className)) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (!frames[i].equals(stackTrace[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean tryAcquire(final long now) {
+            lastSeen = now;
+            final long index = (now - origin) / intervalNanos;
+            long current;
+            long next;
+            do {
+                current = window.get();
+                if (current >>> 32 != index) {
+                    // starting a new interval resets the count in the same update
+                    next = index << 32 | 1;
+                } else if ((current & 0xFFFFFFFFL) < maxOccurrences) {
+                    next = current + 1;
+                } else {
+                    suppressed.incrementAndGet();
+                    return false;
+                }
+            } while (!window.compareAndSet(current, next));
+            return true;
+        }
+
+        boolean isIdle(final long now) {
+            return now - lastSeen >= intervalNanos;
+        }
+
+        void emitSummary(final Configuration config) {
+            final long count = suppressed.getAndSet(0);
+            if (count == 0 || config == null) {
+                return;
+            }
+            final LoggerContext context = config.getLoggerContext();
+            if (context != null) {
+                context.getLogger(loggerName).log(level, "Suppressed {} duplicate occurrences of {}", count,
+                        throwableClassName);
+            }
+        }
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder> implements org.apache.logging.log4j.plugins.util.Builder<DuplicateThrowableFilter> {
+
+        @PluginBuilderAttribute
+        private int maxOccurrences = DEFAULT_MAX_OCCURRENCES;
+
+        @PluginBuilderAttribute
+        private long interval = DEFAULT_INTERVAL_SECONDS;
+
+        @PluginBuilderAttribute
+        private int frames = DEFAULT_FRAMES;
+
+        @PluginBuilderAttribute
+        private int maxFingerprints = DEFAULT_MAX_FINGERPRINTS;
+
+        @PluginConfiguration
+        private Configuration configuration;
+
+        /**
+         * Sets the number of occurrences of a throwable fingerprint to accept per interval.
+         * @param maxOccurrences the number of occurrences to accept per interval.
+         * @return this
+         */
+        public Builder setMaxOccurrences(final int maxOccurrences) {
+            this.maxOccurrences = maxOccurrences;
+            return this;
+        }
+
+        /**
+         * Sets the length of the interval, in seconds, after which occurrences are counted again and a summary of the
+         * suppressed ones is logged.
+         * @param interval the interval length in seconds.
+         * @return this
+         */
+        public Builder setInterval(final long interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        /**
+         * Sets the number of stack trace elements, starting from the top, that make up a throwable fingerprint.
+         * @param frames the number of stack trace elements to consider.
+         * @return this
+         */
+        public Builder setFrames(final int frames) {
+            this.frames = frames;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of fingerprints tracked at the same time. Rounded up to a power of two.
+         * @param maxFingerprints the maximum number of fingerprints.
+         * @return this
+         */
+        public Builder setMaxFingerprints(final int maxFingerprints) {
+            this.maxFingerprints = maxFingerprints;
+            return this;
+        }
+
+        /**
+         * Sets the configuration used to schedule and log the summaries.
+         * @param configuration the configuration.
+         * @return this
+         */
+        public Builder setConfiguration(final Configuration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        @Override
+        public DuplicateThrowableFilter build() {
+            if (this.maxOccurrences < 0) {
+                this.maxOccurrences = DEFAULT_MAX_OCCURRENCES;
+            }
+            if (this.interval <= 0) {
+                this.interval = DEFAULT_INTERVAL_SECONDS;
+            }
+            if (this.frames < 0) {
+                this.frames = DEFAULT_FRAMES;
+            }
+            if (this.maxFingerprints <= 0) {
+                this.maxFingerprints = DEFAULT_MAX_FINGERPRINTS;
+            }
+            return new DuplicateThrowableFilter(this.maxOccurrences, this.interval, this.frames, this.maxFingerprints,
+                    this.configuration, this.getOnMatch(), this.getOnMismatch());
+        }
+    }
+}
@@ -18,9 +18,11 @@ package org.apache.logging.log4j.core.filter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
@@ -51,14 +53,21 @@ public class MapFilter extends AbstractFilter {
     private final IndexedStringMap map;
     private final boolean isAnd;
 
+    /**
+     * The values to match by key, hashed so that matching a value costs the same whatever the number of values.
+     */
+    private final Map<String, Set<String>> valueSets;
+
     protected MapFilter(final Map<String, List<String>> map, final boolean oper, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.isAnd = oper;
         Objects.requireNonNull(map, "map cannot be null");
 
         this.map = new SortedArrayStringMap(map.size());
+        this.valueSets = new HashMap<>(map.size() * 2);
         for (final Map.Entry<String, List<String>> entry : map.entrySet()) {
             this.map.putValue(entry.getKey(), entry.getValue());
+            this.valueSets.put(entry.getKey(), new HashSet<>(entry.getValue()));
         }
     }
 
@@ -81,10 +90,15 @@ public class MapFilter extends AbstractFilter {
     }
 
     protected boolean filter(final MapMessage<?, ?> mapMessage) {
+        if (isAnd && mapMessage.getIndexedReadOnlyStringMap().size() < map.size()) {
+            // a key is missing
+            return false;
+        }
         boolean match = false;
         for (int i = 0; i < map.size(); i++) {
-            final String toMatch = mapMessage.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+            final String key = map.getKeyAt(i);
+            final String toMatch = mapMessage.get(key);
+            match = toMatch != null && valueSets.get(key).contains(toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -94,10 +108,15 @@ public class MapFilter extends AbstractFilter {
     }
 
     protected boolean filter(final Map<String, String> data) {
+        if (isAnd && data.size() < map.size()) {
+            // a key is missing
+            return false;
+        }
         boolean match = false;
         for (int i = 0; i < map.size(); i++) {
-            final String toMatch = data.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+            final String key = map.getKeyAt(i);
+            final String toMatch = data.get(key);
+            match = toMatch != null && valueSets.get(key).contains(toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -107,10 +126,27 @@ public class MapFilter extends AbstractFilter {
     }
 
     protected boolean filter(final ReadOnlyStringMap data) {
+        final int size = data.size();
+        if (isAnd && size < map.size()) {
+            // a key is missing
+            return false;
+        }
+        if (!isAnd && size < map.size() && data instanceof IndexedReadOnlyStringMap) {
+            // fewer lookups by dispatching the entries of the data on the keys
+            final IndexedReadOnlyStringMap indexed = (IndexedReadOnlyStringMap) data;
+            for (int i = 0; i < size; i++) {
+                final Set<String> values = valueSets.get(indexed.getKeyAt(i));
+                if (values != null && values.contains(indexed.getValueAt(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
         boolean match = false;
         for (int i = 0; i < map.size(); i++) {
-            final String toMatch = data.getValue(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+            final String key = map.getKeyAt(i);
+            final String toMatch = data.getValue(key);
+            match = toMatch != null && valueSets.get(key).contains(toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
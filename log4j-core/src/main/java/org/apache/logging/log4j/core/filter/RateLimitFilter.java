@@ -0,0 +1,596 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.apache.logging.log4j.core.config.Scheduled;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * The <code>RateLimitFilter</code> limits the rate of events separately for each key, so that one noisy source
+ * cannot flood the logs for everyone.
+ *
+ * <p>
+ * The key of an event is the name of its logger, the name of its marker, or the value of a context map entry, as
+ * selected by <code>key</code> and <code>contextKey</code>. Each key has a token bucket holding up to
+ * <code>maxBurst</code> events and refilled with <code>rate</code> events per second. Events at <code>level</code>
+ * or less specific are accepted while their bucket is not empty and rejected otherwise. Events without a key and
+ * events more specific than <code>level</code> are always accepted. Once per <code>interval</code> a summary event
+ * with the number of rejected events is logged for each key.
+ * </p>
+ * <p>
+ * Buckets are kept in a fixed size table that is updated without locking, so memory use is bounded by
+ * <code>maxKeys</code> regardless of how many distinct keys are seen. Buckets that have refilled completely are
+ * evicted. When the table is full, the events of new keys share a single bucket.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %t %m%n"/&gt;<br>
+ * &nbsp;&lt;Filters&gt;<br>
+ * &nbsp;&nbsp;&lt;RateLimitFilter key="context" contextKey="tenant" level="INFO" rate="16" maxBurst="100"/&gt;<br>
+ * &nbsp;&lt;/Filters&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code><br>
+ */
+@Plugin(name = "RateLimitFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@Scheduled
+@PerformanceSensitive("allocation")
+public final class RateLimitFilter extends AbstractFilter implements Runnable {
+
+    /**
+     * What identifies the bucket of an event.
+     */
+    public enum Key {
+        /** The name of the logger. */
+        LOGGER,
+        /** The name of the marker. */
+        MARKER,
+        /** The value of the context map entry named by <code>contextKey</code>. */
+        CONTEXT
+    }
+
+    /**
+     * Marker of the summary events, which are never rejected.
+     */
+    public static final Marker SUMMARY_MARKER = MarkerManager.getMarker("RATE_LIMIT_SUMMARY");
+
+    private static final float DEFAULT_RATE = 10;
+
+    private static final int DEFAULT_RATE_MULTIPLE = 100;
+
+    private static final long DEFAULT_INTERVAL_SECONDS = 60;
+
+    private static final int DEFAULT_MAX_KEYS = 1024;
+
+    private static final int MAX_PROBES = 8;
+
+    private static final long NANOS_IN_SECONDS = 1000000000;
+
+    private final Key key;
+
+    private final String contextKey;
+
+    private final Level level;
+
+    private final long emissionIntervalNanos;
+
+    private final long burstNanos;
+
+    private final long intervalNanos;
+
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private final int mask;
+
+    private final Bucket overflow;
+
+    private final ContextDataInjector injector;
+
+    private final Configuration configuration;
+
+    private volatile ScheduledFuture<?> future;
+
+    private RateLimitFilter(final Key key, final String contextKey, final Level level, final float rate,
+                            final long maxBurst, final long intervalSeconds, final int maxKeys,
+                            final Configuration configuration, final Result onMatch, final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.key = key;
+        this.contextKey = contextKey;
+        this.level = level;
+        this.emissionIntervalNanos = Math.max(1, (long) (NANOS_IN_SECONDS / rate));
+        this.burstNanos = emissionIntervalNanos * maxBurst;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+        final int size = ceilingPowerOfTwo(maxKeys);
+        this.buckets = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.overflow = new Bucket(null, System.nanoTime());
+        this.injector = key == Key.CONTEXT ? ContextDataInjectorFactory.createInjector() : null;
+        this.configuration = configuration;
+    }
+
+    private static int ceilingPowerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    @Override
+    public void start() {
+        if (configuration != null) {
+            final ConfigurationScheduler scheduler = configuration.getScheduler();
+            if (!scheduler.isExecutorServiceSet()) {
+                // make sure we have a thread pool
+                scheduler.incrementScheduledItems();
+            }
+            if (!scheduler.isStarted()) {
+                scheduler.start();
+            }
+            final long intervalMillis = TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+            future = scheduler.scheduleWithFixedDelay(this, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        final boolean stopped = stop(future);
+        future = null;
+        setStopped();
+        return stopped;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                         final Object... params) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                         final Throwable t) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                         final Throwable t) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        final Marker marker = event.getMarker();
+        final String value;
+        switch (key) {
+            case MARKER:
+                value = marker == null ? null : marker.getName();
+                break;
+            case CONTEXT:
+                value = event.getContextData().getValue(contextKey);
+                break;
+            default:
+                value = event.getLoggerName();
+        }
+        return filter(value, event.getLoggerName(), event.getLevel(), marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(logger, level, marker);
+    }
+
+    private Result filter(final Logger logger, final Level level, final Marker marker) {
+        final String value;
+        switch (key) {
+            case MARKER:
+                value = marker == null ? null : marker.getName();
+                break;
+            case CONTEXT:
+                value = injector.rawContextData().getValue(contextKey);
+                break;
+            default:
+                value = logger.getName();
+        }
+        return filter(value, logger.getName(), level, marker);
+    }
+
+    /**
+     * Decide if we're going to log an event based on the tokens left in the bucket of its key.
+     *
+     * @param value The key of the event, may be null.
+     * @param loggerName The name of the logger.
+     * @param level The log level.
+     * @param marker The marker of the event, may be null.
+     * @return The onMatch value if the filter passes, onMismatch otherwise.
+     */
+    private Result filter(final String value, final String loggerName, final Level level, final Marker marker) {
+        if (value == null || !this.level.isMoreSpecificThan(level) || marker == SUMMARY_MARKER) {
+            return onMatch;
+        }
+        final long now = System.nanoTime();
+        final Bucket bucket = lookup(value, now);
+        return bucket.tryAcquire(now, loggerName, level) ? onMatch : onMismatch;
+    }
+
+    private Bucket lookup(final String value, final long now) {
+        final int hash = value.hashCode();
+        final int start = hash ^ (hash >>> 16);
+        for (int attempt = 0; attempt < MAX_PROBES; attempt++) {
+            // look for the key in all the slots before reusing one, or it may get a second, full bucket
+            int free = -1;
+            Bucket freeCurrent = null;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                final int index = (start + probe) & mask;
+                final Bucket current = buckets.get(index);
+                if (current != null && value.equals(current.key)) {
+                    return current;
+                }
+                if (free < 0 && (current == null || current.isEvictable(now))) {
+                    free = index;
+                    freeCurrent = current;
+                }
+            }
+            if (free < 0) {
+                break;
+            }
+            final Bucket created = new Bucket(value, now);
+            if (buckets.compareAndSet(free, freeCurrent, created)) {
+                return created;
+            }
+            // another thread took the slot, maybe for the same key
+        }
+        // table is saturated with live buckets
+        return overflow;
+    }
+
+    /**
+     * Logs a summary for each key that had events rejected since the last run and evicts the buckets that have
+     * refilled completely. Called periodically by the configuration scheduler.
+     */
+    @Override
+    public void run() {
+        final long now = System.nanoTime();
+        for (int i = 0; i < buckets.length(); i++) {
+            final Bucket bucket = buckets.get(i);
+            if (bucket == null) {
+                continue;
+            }
+            bucket.emitSummary(configuration);
+            if (bucket.isEvictable(now)) {
+                buckets.compareAndSet(i, bucket, null);
+            }
+        }
+        overflow.emitSummary(configuration);
+    }
+
+    /**
+     * Returns the number of events rejected since the last summary, for all keys. Used for unit testing.
+     * @return The number of rejected events.
+     */
+    public long getDroppedCount() {
+        long count = overflow.dropped.get();
+        for (int i = 0; i < buckets.length(); i++) {
+            final Bucket bucket = buckets.get(i);
+            if (bucket != null) {
+                count += bucket.dropped.get();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of events of the specified key rejected since the last summary.
+     * @param value The key.
+     * @return The number of rejected events, 0 if the key has no bucket.
+     */
+    public long getDroppedCount(final String value) {
+        for (int i = 0; i < buckets.length(); i++) {
+            final Bucket bucket = buckets.get(i);
+            if (bucket != null && value.equals(bucket.key)) {
+                return bucket.dropped.get();
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "key=" + (key == Key.CONTEXT ? contextKey : key.toString()) + ", level=" + level
+                + ", rate=" + (float) NANOS_IN_SECONDS / emissionIntervalNanos
+                + ", maxBurst=" + burstNanos / emissionIntervalNanos + ", maxKeys=" + buckets.length();
+    }
+
+    /**
+     * Token bucket of one key. The bucket is represented by the time at which it will be full again, which advances
+     * by the emission interval for each accepted event, so that it can be updated with a single compare and set.
+     */
+    private final class Bucket {
+
+        private final String key;
+
+        private final AtomicLong fullTime;
+
+        private final AtomicLong dropped = new AtomicLong();
+
+        private volatile String loggerName;
+
+        private volatile Level level;
+
+        Bucket(final String key, final long now) {
+            this.key = key;
+            this.fullTime = new AtomicLong(now);
+        }
+
+        boolean tryAcquire(final long now, final String eventLoggerName, final Level eventLevel) {
+            for (;;) {
+                final long full = fullTime.get();
+                final long next = Math.max(full, now) + emissionIntervalNanos;
+                if (next - now > burstNanos) {
+                    loggerName = eventLoggerName;
+                    level = eventLevel;
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                if (fullTime.compareAndSet(full, next)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isEvictable(final long now) {
+            return fullTime.get() - now <= 0 && dropped.get() == 0;
+        }
+
+        void emitSummary(final Configuration config) {
+            final long count = dropped.getAndSet(0);
+            if (count == 0 || config == null) {
+                return;
+            }
+            final LoggerContext context = config.getLoggerContext();
+            if (context != null) {
+                context.getLogger(loggerName).log(level, SUMMARY_MARKER,
+                        "Rate limit exceeded for {}, dropped {} events", key == null ? "new keys" : key, count);
+            }
+        }
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder> implements org.apache.logging.log4j.plugins.util.Builder<RateLimitFilter> {
+
+        @PluginBuilderAttribute
+        private Key key = Key.LOGGER;
+
+        @PluginBuilderAttribute
+        private String contextKey;
+
+        @PluginBuilderAttribute
+        private Level level = Level.WARN;
+
+        @PluginBuilderAttribute
+        private float rate = DEFAULT_RATE;
+
+        @PluginBuilderAttribute
+        private long maxBurst;
+
+        @PluginBuilderAttribute
+        private long interval = DEFAULT_INTERVAL_SECONDS;
+
+        @PluginBuilderAttribute
+        private int maxKeys = DEFAULT_MAX_KEYS;
+
+        @PluginConfiguration
+        private Configuration configuration;
+
+        /**
+         * Sets what identifies the bucket of an event.
+         * @param key the key type.
+         * @return this
+         */
+        public Builder setKey(final Key key) {
+            this.key = key;
+            return this;
+        }
+
+        /**
+         * Sets the name of the context map entry identifying the bucket of an event, when the key is
+         * {@link Key#CONTEXT}.
+         * @param contextKey the name of the context map entry.
+         * @return this
+         */
+        public Builder setContextKey(final String contextKey) {
+            this.contextKey = contextKey;
+            return this;
+        }
+
+        /**
+         * Sets the most specific level of the events to limit.
+         * @param level the logging level to use.
+         * @return this
+         */
+        public Builder setLevel(final Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the average number of events per second to allow for each key.
+         * @param rate the average number of events per second to allow. This must be a positive number.
+         * @return this
+         */
+        public Builder setRate(final float rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events of a key that can occur before events are filtered for exceeding the
+         * average rate. The default is 100 times the rate.
+         * @param maxBurst the maximum number of events in a burst.
+         * @return this
+         */
+        public Builder setMaxBurst(final long maxBurst) {
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        /**
+         * Sets the length of the interval, in seconds, after which a summary of the rejected events is logged.
+         * @param interval the interval length in seconds.
+         * @return this
+         */
+        public Builder setInterval(final long interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of keys tracked at the same time. Rounded up to a power of two.
+         * @param maxKeys the maximum number of keys.
+         * @return this
+         */
+        public Builder setMaxKeys(final int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        /**
+         * Sets the configuration used to schedule and log the summaries.
+         * @param configuration the configuration.
+         * @return this
+         */
+        public Builder setConfiguration(final Configuration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        @Override
+        public RateLimitFilter build() {
+            if (this.key == null) {
+                this.key = Key.LOGGER;
+            }
+            if (this.key == Key.CONTEXT && this.contextKey == null) {
+                LOGGER.error("A contextKey is required to rate limit by context in RateLimitFilter");
+                return null;
+            }
+            if (this.level == null) {
+                this.level = Level.WARN;
+            }
+            if (this.rate <= 0) {
+                this.rate = DEFAULT_RATE;
+            }
+            if (this.maxBurst <= 0) {
+                this.maxBurst = (long) (this.rate * DEFAULT_RATE_MULTIPLE);
+            }
+            if (this.interval <= 0) {
+                this.interval = DEFAULT_INTERVAL_SECONDS;
+            }
+            if (this.maxKeys <= 0) {
+                this.maxKeys = DEFAULT_MAX_KEYS;
+            }
+            return new RateLimitFilter(this.key, this.contextKey, this.level, this.rate, this.maxBurst, this.interval,
+                    this.maxKeys, this.configuration, this.getOnMatch(), this.getOnMismatch());
+        }
+    }
+}
@@ -27,12 +27,15 @@ import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.util.RegexPrefilter;
 import org.apache.logging.log4j.plugins.Node;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
 import org.apache.logging.log4j.plugins.PluginFactory;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableParameterizedMessage;
 
 /**
  * This filter returns the onMatch result if the message matches the regular expression.
@@ -40,17 +43,21 @@ import org.apache.logging.log4j.message.Message;
  * The "useRawMsg" attribute can be used to indicate whether the regular expression should be applied to the result of
  * calling Message.getMessageFormat (true) or Message.getFormattedMessage() (false). The default is false.
  *
+ * The literals that any match must contain are extracted from the regular expression when the filter is created,
+ * so that most messages that do not match are rejected by a substring search, without running the regular expression.
  */
 @Plugin(name = "RegexFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
 public final class RegexFilter extends AbstractFilter {
 
     private static final int DEFAULT_PATTERN_FLAGS = 0;
     private final Pattern pattern;
+    private final RegexPrefilter prefilter;
     private final boolean useRawMessage;
 
     private RegexFilter(final boolean raw, final Pattern pattern, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.pattern = pattern;
+        this.prefilter = RegexPrefilter.create(pattern);
         this.useRawMessage = raw;
     }
 
@@ -75,20 +82,40 @@ public final class RegexFilter extends AbstractFilter {
         if (msg == null) {
             return onMismatch;
         }
-        final String text = useRawMessage ? msg.getFormat() : msg.getFormattedMessage();
-        return filter(text);
+        return filter(getText(msg));
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        final String text = useRawMessage ? event.getMessage().getFormat() : event.getMessage().getFormattedMessage();
-        return filter(text);
+        return filter(getText(event.getMessage()));
+    }
+
+    private String getText(final Message msg) {
+        return useRawMessage || hasNoParameters(msg) ? msg.getFormat() : msg.getFormattedMessage();
+    }
+
+    /**
+     * Returns true if the format of the specified message is also its formatted message, as it has no parameters, so
+     * that it does not need to be formatted.
+     */
+    private static boolean hasNoParameters(final Message msg) {
+        if (msg instanceof ReusableParameterizedMessage) {
+            return ((ReusableParameterizedMessage) msg).getParameterCount() == 0 && msg.getFormat() != null;
+        }
+        if (msg instanceof ParameterizedMessage) {
+            final Object[] params = msg.getParameters();
+            return (params == null || params.length == 0) && msg.getFormat() != null;
+        }
+        return false;
     }
 
     private Result filter(final String msg) {
         if (msg == null) {
             return onMismatch;
         }
+        if (prefilter != null && !prefilter.mayMatch(msg)) {
+            return onMismatch;
+        }
         final Matcher m = pattern.matcher(msg);
         return m.matches() ? onMatch : onMismatch;
     }
@@ -98,6 +125,9 @@ public final class RegexFilter extends AbstractFilter {
         final StringBuilder sb = new StringBuilder();
         sb.append("useRaw=").append(useRawMessage);
         sb.append(", pattern=").append(pattern.toString());
+        if (prefilter != null) {
+            sb.append(", literals=").append(prefilter.getLiterals());
+        }
         return sb.toString();
     }
 
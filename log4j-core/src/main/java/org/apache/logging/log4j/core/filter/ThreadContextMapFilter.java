@@ -37,7 +37,6 @@ import org.apache.logging.log4j.plugins.PluginFactory;
 import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.message.Message;
-import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 import org.apache.logging.log4j.util.ReadOnlyStringMap;
 
@@ -96,20 +95,9 @@ public class ThreadContextMapFilter extends MapFilter {
     }
 
     private Result filter() {
-        boolean match = false;
+        final boolean match;
         if (useMap) {
-            ReadOnlyStringMap currentContextData = null;
-            final IndexedReadOnlyStringMap map = getStringMap();
-            for (int i = 0; i < map.size(); i++) {
-                if (currentContextData == null) {
-                    currentContextData = currentContextData();
-                }
-                final String toMatch = currentContextData.getValue(map.getKeyAt(i));
-                match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
-                if ((!isAnd() && match) || (isAnd() && !match)) {
-                    break;
-                }
-            }
+            match = filter(currentContextData());
         } else {
             match = value.equals(currentContextData().getValue(key));
         }
@@ -58,6 +58,8 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
     private String messageFormat;
     private StringBuilder messageText;
     private Object[] parameters;
+    private ParameterBuffer parameterBuffer;
+    private boolean unboxedParameters;
     private Throwable thrown;
     private ThrowableProxy thrownProxy;
     private StringMap contextData = ContextDataFactory.createContextData();
@@ -150,6 +152,10 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
         if (parameters != null) {
             Arrays.fill(parameters, null);
         }
+        if (parameterBuffer != null) {
+            parameterBuffer.clear();
+        }
+        unboxedParameters = false;
 
         // primitive fields that cannot be cleared:
         //timeMillis;
@@ -212,7 +218,13 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
             final ReusableMessage reusable = (ReusableMessage) msg;
             reusable.formatTo(getMessageTextForWriting());
             this.messageFormat = msg.getFormat();
-            parameters = reusable.swapParameters(parameters == null ? new Object[10] : parameters);
+            final ParameterBuffer buffer = reusable.swapParameterBuffer(parameterBuffer);
+            unboxedParameters = buffer != null;
+            if (unboxedParameters) {
+                parameterBuffer = buffer;
+            } else {
+                parameters = reusable.swapParameters(parameters == null ? new Object[10] : parameters);
+            }
             parameterCount = reusable.getParameterCount();
         } else {
             this.message = InternalAsyncUtil.makeMessageImmutable(msg);
@@ -249,12 +261,19 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
      */
     @Override
     public Object[] getParameters() {
+        if (unboxedParameters) {
+            return parameterBuffer.toArray();
+        }
         return parameters == null ? null : Arrays.copyOf(parameters, parameterCount);
     }
 
     @Override
     public <S> void forEachParameter(final ParameterConsumer<S> action, final S state) {
-        if (parameters != null) {
+        if (unboxedParameters) {
+            for (short i = 0; i < parameterCount; i++) {
+                action.accept(parameterBuffer.get(i), i, state);
+            }
+        } else if (parameters != null) {
             for (short i = 0; i < parameterCount; i++) {
                 action.accept(parameters[i], i, state);
             }
@@ -285,11 +304,32 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
      */
     @Override
     public Object[] swapParameters(final Object[] emptyReplacement) {
+        if (unboxedParameters) {
+            return parameterBuffer.toArray();
+        }
         final Object[] result = this.parameters;
         this.parameters = emptyReplacement;
         return result;
     }
 
+    /**
+     * Replaces this ReusableMessage's parameter buffer with the specified value and return the original buffer, if the
+     * parameters of this event are held in a buffer.
+     * @param emptyReplacement the parameter buffer that can be used for subsequent uses of this reusable message
+     * @return the original parameter buffer or {@code null}
+     * @see ReusableMessage#swapParameterBuffer(ParameterBuffer)
+     */
+    @Override
+    public ParameterBuffer swapParameterBuffer(final ParameterBuffer emptyReplacement) {
+        if (!unboxedParameters) {
+            return null;
+        }
+        final ParameterBuffer result = this.parameterBuffer;
+        this.parameterBuffer = emptyReplacement;
+        this.unboxedParameters = false;
+        return result;
+    }
+
     /*
      * @see ReusableMessage#getParameterCount
      */
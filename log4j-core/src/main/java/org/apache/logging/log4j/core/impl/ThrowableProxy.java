@@ -86,6 +86,31 @@ public class ThrowableProxy implements Serializable {
         this.suppressedProxies = ThrowableProxy.EMPTY_ARRAY;
     }
 
+    /**
+     * Constructs a proxy from previously serialized data, e.g., for binary IO.
+     *
+     * @param name               The class name of the Throwable.
+     * @param message            The message of the Throwable.
+     * @param localizedMessage   The localized message of the Throwable.
+     * @param extendedStackTrace The stack trace including packaging data, must not be null.
+     * @param commonElementCount The number of stack trace elements in common with the enclosing Throwable.
+     * @param causeProxy         The proxy of the cause, may be null.
+     * @param suppressedProxies  The proxies of the suppressed Throwables, must not be null.
+     * @since 3.0.0
+     */
+    public ThrowableProxy(final String name, final String message, final String localizedMessage,
+                          final ExtendedStackTraceElement[] extendedStackTrace, final int commonElementCount,
+                          final ThrowableProxy causeProxy, final ThrowableProxy[] suppressedProxies) {
+        this.throwable = null;
+        this.name = name;
+        this.message = message;
+        this.localizedMessage = localizedMessage;
+        this.extendedStackTrace = extendedStackTrace;
+        this.commonElementCount = commonElementCount;
+        this.causeProxy = causeProxy;
+        this.suppressedProxies = suppressedProxies;
+    }
+
     /**
      * Constructs the wrapper for the Throwable that includes packaging data.
      *
@@ -0,0 +1,429 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ExtendedStackTraceElement;
+import org.apache.logging.log4j.core.impl.ThrowableProxy;
+import org.apache.logging.log4j.core.layout.internal.BinaryEventFormat;
+import org.apache.logging.log4j.core.time.Instant;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Writes a {@link LogEvent} as a single {@link BinaryEventFormat} frame into a reusable byte array.
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+final class BinaryEventWriter {
+
+    /**
+     * Room reserved in front of the body for the magic and version bytes and the body length varint.
+     */
+    private static final int HEADER_RESERVE = 2 + 5;
+
+    private static final TriConsumer<String, Object, BinaryEventWriter> CONTEXT_DATA_WRITER =
+            (key, value, writer) -> {
+                writer.writeString(key);
+                writer.writeString(value == null ? null : value instanceof String ? (String) value : value.toString());
+            };
+
+    private final int initialCapacity;
+
+    private final int maxCapacity;
+
+    private final StringTable stringTable = new StringTable();
+
+    private final StringBuilder messageBuilder = new StringBuilder(AbstractStringLayout.DEFAULT_STRING_BUILDER_SIZE);
+
+    private byte[] buffer;
+
+    private int position;
+
+    private int frameOffset;
+
+    BinaryEventWriter(final int initialCapacity, final int maxCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.maxCapacity = maxCapacity;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    int getFrameOffset() {
+        return frameOffset;
+    }
+
+    int getFrameLength() {
+        return position - frameOffset;
+    }
+
+    /**
+     * Serializes the given event, whose frame is then available through {@link #getBuffer()},
+     * {@link #getFrameOffset()} and {@link #getFrameLength()}.
+     */
+    void write(final LogEvent event, final boolean locationInfo, final boolean includeStacktrace) {
+        if (buffer.length > maxCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+        stringTable.clear();
+        position = HEADER_RESERVE;
+        writeBody(event, locationInfo, includeStacktrace);
+        final int bodyLength = position - HEADER_RESERVE;
+        frameOffset = HEADER_RESERVE - 2 - varIntSize(bodyLength);
+        buffer[frameOffset] = BinaryEventFormat.MAGIC;
+        buffer[frameOffset + 1] = BinaryEventFormat.VERSION;
+        final int bodyPosition = position;
+        position = frameOffset + 2;
+        writeVarInt(bodyLength);
+        position = bodyPosition;
+    }
+
+    private void writeBody(final LogEvent event, final boolean locationInfo, final boolean includeStacktrace) {
+        final Level level = event.getLevel();
+        if (level != null) {
+            writeVarInt(BinaryEventFormat.TAG_LEVEL);
+            final int levelCode = BinaryEventFormat.toLevelCode(level);
+            writeVarInt(levelCode);
+            if (levelCode == 0) {
+                writeString(level.name());
+                writeVarInt(level.intLevel());
+            }
+        }
+        writeStringField(BinaryEventFormat.TAG_LOGGER_NAME, event.getLoggerName());
+        writeStringField(BinaryEventFormat.TAG_LOGGER_FQCN, event.getLoggerFqcn());
+        final Instant instant = event.getInstant();
+        writeVarInt(BinaryEventFormat.TAG_INSTANT);
+        writeVarLong(zigZag(instant.getEpochMillisecond()));
+        writeVarInt(instant.getNanoOfMillisecond());
+        if (event.getNanoTime() != 0) {
+            writeVarInt(BinaryEventFormat.TAG_NANO_TIME);
+            writeVarLong(zigZag(event.getNanoTime()));
+        }
+        writeStringField(BinaryEventFormat.TAG_THREAD_NAME, event.getThreadName());
+        writeVarInt(BinaryEventFormat.TAG_THREAD_ID);
+        writeVarLong(zigZag(event.getThreadId()));
+        writeVarInt(BinaryEventFormat.TAG_THREAD_PRIORITY);
+        writeVarInt(zigZag(event.getThreadPriority()));
+        writeMessage(event.getMessage());
+        final Marker marker = event.getMarker();
+        if (marker != null) {
+            writeVarInt(BinaryEventFormat.TAG_MARKER);
+            writeMarker(marker);
+        }
+        final ReadOnlyStringMap contextData = event.getContextData();
+        if (contextData != null && !contextData.isEmpty()) {
+            writeVarInt(BinaryEventFormat.TAG_CONTEXT_DATA);
+            writeVarInt(contextData.size());
+            contextData.forEach(CONTEXT_DATA_WRITER, this);
+        }
+        final ThreadContext.ContextStack contextStack = event.getContextStack();
+        if (contextStack != null && contextStack.getDepth() > 0) {
+            writeVarInt(BinaryEventFormat.TAG_CONTEXT_STACK);
+            writeVarInt(contextStack.getDepth());
+            for (final String element : contextStack) {
+                writeString(element);
+            }
+        }
+        final ThrowableProxy thrownProxy = event.getThrownProxy();
+        if (thrownProxy != null) {
+            writeVarInt(BinaryEventFormat.TAG_THROWN);
+            writeThrowableProxy(thrownProxy, includeStacktrace);
+        }
+        if (locationInfo) {
+            final StackTraceElement source = event.getSource();
+            if (source != null) {
+                writeVarInt(BinaryEventFormat.TAG_SOURCE);
+                writeString(source.getClassLoaderName());
+                writeString(source.getModuleName());
+                writeString(source.getModuleVersion());
+                writeString(source.getClassName());
+                writeString(source.getMethodName());
+                writeString(source.getFileName());
+                writeVarInt(zigZag(source.getLineNumber()));
+            }
+        }
+        if (event.isEndOfBatch()) {
+            writeVarInt(BinaryEventFormat.TAG_END_OF_BATCH);
+        }
+        writeVarInt(BinaryEventFormat.TAG_END);
+    }
+
+    private void writeStringField(final int tag, final String value) {
+        if (value != null) {
+            writeVarInt(tag);
+            writeString(value);
+        }
+    }
+
+    private void writeMessage(final Message message) {
+        if (message == null) {
+            return;
+        }
+        writeVarInt(BinaryEventFormat.TAG_MESSAGE);
+        messageBuilder.setLength(0);
+        if (message instanceof StringBuilderFormattable) {
+            ((StringBuilderFormattable) message).formatTo(messageBuilder);
+        } else {
+            messageBuilder.append(message.getFormattedMessage());
+        }
+        // Messages are rarely repeated within an event, hence they bypass the string table.
+        writeUtf8(messageBuilder);
+        StringBuilders.trimToMaxSize(messageBuilder, AbstractStringLayout.MAX_STRING_BUILDER_SIZE);
+    }
+
+    private void writeMarker(final Marker marker) {
+        writeString(marker.getName());
+        final Marker[] parents = marker.getParents();
+        final int parentCount = parents == null ? 0 : parents.length;
+        writeVarInt(parentCount);
+        for (int i = 0; i < parentCount; i++) {
+            writeMarker(parents[i]);
+        }
+    }
+
+    private void writeThrowableProxy(final ThrowableProxy proxy, final boolean includeStacktrace) {
+        writeString(proxy.getName());
+        writeString(proxy.getMessage());
+        writeString(proxy.getLocalizedMessage());
+        if (includeStacktrace) {
+            writeVarInt(proxy.getCommonElementCount());
+            final ExtendedStackTraceElement[] stackTrace = proxy.getExtendedStackTrace();
+            writeVarInt(stackTrace.length);
+            for (final ExtendedStackTraceElement element : stackTrace) {
+                writeString(element.getClassLoaderName());
+                writeString(element.getModuleName());
+                writeString(element.getModuleVersion());
+                writeString(element.getClassName());
+                writeString(element.getMethodName());
+                writeString(element.getFileName());
+                writeVarInt(zigZag(element.getLineNumber()));
+                writeVarInt(element.getExact() ? 1 : 0);
+                writeString(element.getLocation());
+                writeString(element.getVersion());
+            }
+        } else {
+            writeVarInt(0);
+            writeVarInt(0);
+        }
+        final ThrowableProxy causeProxy = proxy.getCauseProxy();
+        writeVarInt(causeProxy == null ? 0 : 1);
+        if (causeProxy != null) {
+            writeThrowableProxy(causeProxy, includeStacktrace);
+        }
+        final ThrowableProxy[] suppressedProxies = proxy.getSuppressedProxies();
+        writeVarInt(suppressedProxies.length);
+        for (final ThrowableProxy suppressedProxy : suppressedProxies) {
+            writeThrowableProxy(suppressedProxy, includeStacktrace);
+        }
+    }
+
+    private void writeString(final String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        final int index = stringTable.indexOf(value);
+        if (index >= 0) {
+            writeVarInt((index << 1) | 1);
+        } else {
+            stringTable.add(value);
+            writeUtf8(value);
+        }
+    }
+
+    /**
+     * Writes the given text as an even string header followed by its UTF-8 bytes. Unpaired surrogates are replaced
+     * with {@code ?} just like {@link String#getBytes(java.nio.charset.Charset)} does.
+     */
+    private void writeUtf8(final CharSequence text) {
+        final int length = text.length();
+        int byteCount = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                byteCount++;
+            } else if (c < 0x800) {
+                byteCount += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                byteCount += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                byteCount++;
+            } else {
+                byteCount += 3;
+            }
+        }
+        writeVarInt((byteCount + 1) << 1);
+        ensureCapacity(byteCount);
+        final byte[] bytes = buffer;
+        int offset = position;
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[offset++] = (byte) (0xC0 | (c >> 6));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                bytes[offset++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                bytes[offset++] = '?';
+            } else {
+                bytes[offset++] = (byte) (0xE0 | (c >> 12));
+                bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        position = offset;
+    }
+
+    private void writeVarInt(final int value) {
+        ensureCapacity(5);
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[position++] = (byte) remaining;
+    }
+
+    private void writeVarLong(final long value) {
+        ensureCapacity(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[position++] = (byte) remaining;
+    }
+
+    private static int varIntSize(final int value) {
+        int size = 1;
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            size++;
+            remaining >>>= 7;
+        }
+        return size;
+    }
+
+    private static int zigZag(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensureCapacity(final int byteCount) {
+        final int minCapacity = position + byteCount;
+        if (minCapacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(minCapacity, buffer.length << 1));
+        }
+    }
+
+    /**
+     * Open-addressing string to index map, whose slots are reused across frames.
+     */
+    private static final class StringTable {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private static final int MAX_RETAINED_CAPACITY = 1024;
+
+        private String[] keys = new String[INITIAL_CAPACITY];
+
+        private int[] indices = new int[INITIAL_CAPACITY];
+
+        private int size;
+
+        private void clear() {
+            if (keys.length > MAX_RETAINED_CAPACITY) {
+                keys = new String[INITIAL_CAPACITY];
+                indices = new int[INITIAL_CAPACITY];
+            } else if (size > 0) {
+                Arrays.fill(keys, null);
+            }
+            size = 0;
+        }
+
+        private int indexOf(final String value) {
+            final int mask = keys.length - 1;
+            for (int slot = mix(value.hashCode()) & mask;; slot = (slot + 1) & mask) {
+                final String key = keys[slot];
+                if (key == null) {
+                    return -1;
+                }
+                if (key.equals(value)) {
+                    return indices[slot];
+                }
+            }
+        }
+
+        private void add(final String value) {
+            if ((size + 1) << 1 > keys.length) {
+                grow();
+            }
+            insert(keys, indices, value, size++);
+        }
+
+        private void grow() {
+            final String[] oldKeys = keys;
+            final int[] oldIndices = indices;
+            keys = new String[oldKeys.length << 1];
+            indices = new int[oldKeys.length << 1];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    insert(keys, indices, oldKeys[i], oldIndices[i]);
+                }
+            }
+        }
+
+        private static void insert(final String[] keys, final int[] indices, final String value, final int index) {
+            final int mask = keys.length - 1;
+            int slot = mix(value.hashCode()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = value;
+            indices[slot] = index;
+        }
+
+        private static int mix(final int hash) {
+            final int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.layout.internal.BinaryEventFormat;
+import org.apache.logging.log4j.core.parser.BinaryLogEventParser;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.spi.AbstractLogger;
+
+/**
+ * Lays out events in a compact binary format, which can be read back with {@link BinaryLogEventParser}.
+ * <p>
+ * Each event is written as a self-contained frame: a magic byte, a version byte, the length of the body and the body
+ * itself. Numbers are written as varints, standard levels are written as single byte dictionary codes and strings
+ * repeated within an event (e.g., class names in stack traces and context data keys) are written once and then
+ * referred to by their index. See {@link BinaryEventFormat} for details.
+ * </p>
+ * <p>
+ * Messages are written in their formatted form, hence they are read back as
+ * {@link org.apache.logging.log4j.message.SimpleMessage}s. Likewise, markers are read back by their name and
+ * parents.
+ * </p>
+ */
+@Plugin(name = "BinaryLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+public final class BinaryLayout extends AbstractLayout<byte[]> {
+
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private static final int MAX_BUFFER_SIZE = Math.max(DEFAULT_BUFFER_SIZE, Constants.ENCODER_BYTE_BUFFER_SIZE);
+
+    private static final ThreadLocal<BinaryEventWriter> threadLocal = new ThreadLocal<>();
+
+    public static class Builder<B extends Builder<B>> extends AbstractLayout.Builder<B>
+            implements org.apache.logging.log4j.plugins.util.Builder<BinaryLayout> {
+
+        @PluginBuilderAttribute
+        private boolean locationInfo;
+
+        @PluginBuilderAttribute
+        private boolean includeStacktrace = true;
+
+        public boolean isLocationInfo() {
+            return locationInfo;
+        }
+
+        public boolean isIncludeStacktrace() {
+            return includeStacktrace;
+        }
+
+        /**
+         * Whether to include the location of the logging call (optional, defaults to false).
+         *
+         * @return this builder
+         */
+        public B setLocationInfo(final boolean locationInfo) {
+            this.locationInfo = locationInfo;
+            return asBuilder();
+        }
+
+        /**
+         * Whether to include the stack traces of logged Throwables (optional, defaults to true).
+         * If set to false, only the class names and messages of the Throwables will be included.
+         *
+         * @return this builder
+         */
+        public B setIncludeStacktrace(final boolean includeStacktrace) {
+            this.includeStacktrace = includeStacktrace;
+            return asBuilder();
+        }
+
+        @Override
+        public BinaryLayout build() {
+            return new BinaryLayout(getConfiguration(), locationInfo, includeStacktrace);
+        }
+    }
+
+    private final boolean locationInfo;
+
+    private final boolean includeStacktrace;
+
+    private BinaryLayout(final Configuration config, final boolean locationInfo, final boolean includeStacktrace) {
+        super(config, null, null);
+        this.locationInfo = locationInfo;
+        this.includeStacktrace = includeStacktrace;
+    }
+
+    @PluginFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    @Override
+    public boolean requiresLocation() {
+        return locationInfo;
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] toSerializable(final LogEvent event) {
+        return toByteArray(event);
+    }
+
+    @Override
+    public byte[] toByteArray(final LogEvent event) {
+        final BinaryEventWriter writer = getWriter();
+        writer.write(event, locationInfo, includeStacktrace);
+        final int offset = writer.getFrameOffset();
+        return Arrays.copyOfRange(writer.getBuffer(), offset, offset + writer.getFrameLength());
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final BinaryEventWriter writer = getWriter();
+        writer.write(event, locationInfo, includeStacktrace);
+        destination.writeBytes(writer.getBuffer(), writer.getFrameOffset(), writer.getFrameLength());
+    }
+
+    private static BinaryEventWriter getWriter() {
+        if (!Constants.ENABLE_THREADLOCALS || AbstractLogger.getRecursionDepth() > 1) {
+            // Recursive logging may clobber the cached writer.
+            return new BinaryEventWriter(DEFAULT_BUFFER_SIZE, MAX_BUFFER_SIZE);
+        }
+        BinaryEventWriter writer = threadLocal.get();
+        if (writer == null) {
+            writer = new BinaryEventWriter(DEFAULT_BUFFER_SIZE, MAX_BUFFER_SIZE);
+            threadLocal.set(writer);
+        }
+        return writer;
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryLayout{locationInfo=" + locationInfo + ", includeStacktrace=" + includeStacktrace + "}";
+    }
+
+}
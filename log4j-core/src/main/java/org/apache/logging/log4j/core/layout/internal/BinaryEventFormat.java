@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout.internal;
+
+import org.apache.logging.log4j.Level;
+
+/**
+ * Constants shared by {@link org.apache.logging.log4j.core.layout.BinaryLayout} and
+ * {@link org.apache.logging.log4j.core.parser.BinaryLogEventParser}.
+ * <p>
+ * A frame is composed of a {@link #MAGIC} byte, a {@link #VERSION} byte, the body length as an unsigned varint and
+ * the body. The body is a sequence of fields, each starting with a varint tag, terminated by {@link #TAG_END}.
+ * Integers are encoded as (zig-zag) varints. Strings are prefixed by a varint header: {@code 0} stands for
+ * {@code null}, odd values {@code 2i+1} refer to the {@code i}th string previously written in the same frame, and
+ * even values {@code 2(n+1)} precede the {@code n} UTF-8 bytes of a string, which is then appended to the string
+ * table of the frame.
+ * </p>
+ */
+public final class BinaryEventFormat {
+
+    public static final byte MAGIC = (byte) 0xB4;
+
+    public static final byte VERSION = 1;
+
+    public static final int TAG_END = 0;
+    public static final int TAG_LEVEL = 1;
+    public static final int TAG_LOGGER_NAME = 2;
+    public static final int TAG_LOGGER_FQCN = 3;
+    public static final int TAG_INSTANT = 4;
+    public static final int TAG_NANO_TIME = 5;
+    public static final int TAG_THREAD_NAME = 6;
+    public static final int TAG_THREAD_ID = 7;
+    public static final int TAG_THREAD_PRIORITY = 8;
+    public static final int TAG_MESSAGE = 9;
+    public static final int TAG_MARKER = 10;
+    public static final int TAG_CONTEXT_DATA = 11;
+    public static final int TAG_CONTEXT_STACK = 12;
+    public static final int TAG_THROWN = 13;
+    public static final int TAG_SOURCE = 14;
+    public static final int TAG_END_OF_BATCH = 15;
+
+    /**
+     * Levels encoded by their {@code index + 1}, custom levels are encoded as {@code 0} followed by their name and
+     * {@link Level#intLevel() intLevel}. The order must never change.
+     */
+    private static final Level[] STANDARD_LEVELS = {
+            Level.OFF, Level.FATAL, Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG, Level.TRACE, Level.ALL
+    };
+
+    private BinaryEventFormat() {
+    }
+
+    /**
+     * Returns the dictionary code of the given level, or {@code 0} if it is a custom level.
+     */
+    public static int toLevelCode(final Level level) {
+        for (int i = 0; i < STANDARD_LEVELS.length; i++) {
+            if (STANDARD_LEVELS[i] == level) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the standard level of the given dictionary code, or {@code null} if the code is unknown.
+     */
+    public static Level fromLevelCode(final int code) {
+        return code > 0 && code <= STANDARD_LEVELS.length ? STANDARD_LEVELS[code - 1] : null;
+    }
+
+}
@@ -40,4 +40,16 @@ public class EnvironmentLookup extends AbstractLookup {
         // getenv throws NullPointerException if <code>name</code> is <code>null</code>
         return key != null ? System.getenv(key) : null;
     }
+
+    /**
+     * Environment variables do not change during the lifetime of the process.
+     *
+     * @param key
+     *            the key to look up
+     * @return true
+     */
+    @Override
+    public boolean isInvariant(final String key) {
+        return true;
+    }
 }
@@ -238,6 +238,25 @@ public class Interpolator extends AbstractConfigurationAwareLookup {
         return null;
     }
 
+    /**
+     * Returns whether the lookup object registered for the prefix of the specified variable declares its value
+     * invariant and resolves it. A variable it does not resolve is looked up by the default lookup, whose value
+     * may depend on the LogEvent.
+     *
+     * @param var the name of the variable
+     * @return true if the value of the variable never changes
+     */
+    @Override
+    public boolean isInvariant(final String var) {
+        final int prefixPos = var.indexOf(PREFIX_SEPARATOR);
+        if (prefixPos < 0) {
+            return false;
+        }
+        final StrLookup lookup = strLookupMap.get(var.substring(0, prefixPos).toLowerCase(Locale.US));
+        final String name = var.substring(prefixPos + 1);
+        return lookup != null && lookup.isInvariant(name) && lookup.lookup(name) != null;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -95,4 +95,17 @@ public interface StrLookup {
      * @return the matching value, null if no match
      */
     String lookup(LogEvent event, String key);
+
+    /**
+     * Returns whether the value of the specified key does not depend on the LogEvent and does not change, like the
+     * value of an environment variable. The value of such a key may be cached when substituting variables for
+     * LogEvents.
+     *
+     * @param key  the key to be looked up, not null
+     * @return true if the value of the key never changes, false by default
+     * @since 3.0
+     */
+    default boolean isInvariant(final String key) {
+        return false;
+    }
 }
@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
@@ -137,6 +138,12 @@ import org.apache.logging.log4j.util.Strings;
  * {@link #setEnableSubstitutionInVariables(boolean) enableSubstitutionInVariables}
  * property to <b>true</b>.
  * </p>
+ * <p>
+ * The strings passed to {@link #replace(LogEvent, String)} with a LogEvent are compiled once into their literal text
+ * and their variables, so that substituting them again, like the patterns substituted for each LogEvent, only
+ * resolves the variables. The values of the variables the {@link StrLookup} declares {@link StrLookup#isInvariant(String)
+ * invariant} are resolved once for all the LogEvents.
+ * </p>
  */
 public class StrSubstitutor implements ConfigurationAware {
 
@@ -166,6 +173,11 @@ public class StrSubstitutor implements ConfigurationAware {
 
     private static final int BUF_SIZE = 256;
 
+    /**
+     * Maximum number of compiled templates kept by a substitutor.
+     */
+    private static final int MAX_TEMPLATES = 1024;
+
     /**
      * Stores the escape character.
      */
@@ -207,6 +219,11 @@ public class StrSubstitutor implements ConfigurationAware {
      */
     private Configuration configuration;
 
+    /**
+     * The compiled templates, by source string.
+     */
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
     //-----------------------------------------------------------------------
     /**
      * Creates a new instance with defaults for variable prefix and suffix
@@ -463,6 +480,13 @@ public class StrSubstitutor implements ConfigurationAware {
         if (source == null) {
             return null;
         }
+        final Template template = getTemplate(source, event != null);
+        if (template != null) {
+            final String result = template.substitute(event);
+            if (result != null) {
+                return result;
+            }
+        }
         final StringBuilder buf = new StringBuilder(source);
         if (!substitute(event, buf, 0, source.length())) {
             return source;
@@ -930,7 +954,6 @@ public class StrSubstitutor implements ConfigurationAware {
         final StrMatcher prefixMatcher = getVariablePrefixMatcher();
         final StrMatcher suffixMatcher = getVariableSuffixMatcher();
         final char escape = getEscapeChar();
-        final StrMatcher valueDelimiterMatcher = getValueDelimiterMatcher();
         final boolean substitutionInVariablesEnabled = isEnableSubstitutionInVariables();
 
         final boolean top = priorVariables == null;
@@ -982,47 +1005,9 @@ public class StrSubstitutor implements ConfigurationAware {
                                 pos += endMatchLen;
                                 final int endPos = pos;
 
-                                String varName = varNameExpr;
-                                String varDefaultValue = null;
-
-                                if (valueDelimiterMatcher != null) {
-                                    final char [] varNameExprChars = varNameExpr.toCharArray();
-                                    int valueDelimiterMatchLen = 0;
-                                    for (int i = 0; i < varNameExprChars.length; i++) {
-                                        // if there's any nested variable when nested variable substitution disabled, then stop resolving name and default value.
-                                        if (!substitutionInVariablesEnabled
-                                                && prefixMatcher.isMatch(varNameExprChars, i, i, varNameExprChars.length) != 0) {
-                                            break;
-                                        }
-                                        if (valueEscapeDelimiterMatcher != null) {
-                                            final int matchLen = valueEscapeDelimiterMatcher.isMatch(varNameExprChars, i);
-                                            if (matchLen != 0) {
-                                                final String varNamePrefix = varNameExpr.substring(0, i) + Interpolator.PREFIX_SEPARATOR;
-                                                varName = varNamePrefix + varNameExpr.substring(i + matchLen - 1);
-                                                for (int j = i + matchLen; j < varNameExprChars.length; ++j){
-                                                    if ((valueDelimiterMatchLen = valueDelimiterMatcher.isMatch(varNameExprChars, j)) != 0) {
-                                                        varName = varNamePrefix + varNameExpr.substring(i + matchLen, j);
-                                                        varDefaultValue = varNameExpr.substring(j + valueDelimiterMatchLen);
-                                                        break;
-                                                    }
-                                                }
-                                                break;
-                                            } else {
-                                                if ((valueDelimiterMatchLen = valueDelimiterMatcher.isMatch(varNameExprChars, i)) != 0) {
-                                                    varName = varNameExpr.substring(0, i);
-                                                    varDefaultValue = varNameExpr.substring(i + valueDelimiterMatchLen);
-                                                    break;
-                                                }
-                                            }
-                                        } else {
-                                            if ((valueDelimiterMatchLen = valueDelimiterMatcher.isMatch(varNameExprChars, i)) != 0) {
-                                                varName = varNameExpr.substring(0, i);
-                                                varDefaultValue = varNameExpr.substring(i + valueDelimiterMatchLen);
-                                                break;
-                                            }
-                                        }
-                                    }
-                                }
+                                final String[] variable = parseVariable(varNameExpr);
+                                final String varName = variable[0];
+                                final String varDefaultValue = variable[1];
 
                                 // on the first call initialize priorVariables
                                 if (priorVariables == null) {
@@ -1069,6 +1054,57 @@ public class StrSubstitutor implements ConfigurationAware {
         return lengthChange;
     }
 
+    /**
+     * Splits the expression of a variable into its name and its default value.
+     *
+     * @param varNameExpr  the expression between the variable prefix and suffix, not null
+     * @return the name of the variable and its default value, or null if it has none
+     */
+    private String[] parseVariable(final String varNameExpr) {
+        String varName = varNameExpr;
+        String varDefaultValue = null;
+
+        if (valueDelimiterMatcher != null) {
+            final char [] varNameExprChars = varNameExpr.toCharArray();
+            int valueDelimiterMatchLen = 0;
+            for (int i = 0; i < varNameExprChars.length; i++) {
+                // if there's any nested variable when nested variable substitution disabled, then stop resolving name and default value.
+                if (!enableSubstitutionInVariables
+                        && prefixMatcher.isMatch(varNameExprChars, i, i, varNameExprChars.length) != 0) {
+                    break;
+                }
+                if (valueEscapeDelimiterMatcher != null) {
+                    final int matchLen = valueEscapeDelimiterMatcher.isMatch(varNameExprChars, i);
+                    if (matchLen != 0) {
+                        final String varNamePrefix = varNameExpr.substring(0, i) + Interpolator.PREFIX_SEPARATOR;
+                        varName = varNamePrefix + varNameExpr.substring(i + matchLen - 1);
+                        for (int j = i + matchLen; j < varNameExprChars.length; ++j){
+                            if ((valueDelimiterMatchLen = valueDelimiterMatcher.isMatch(varNameExprChars, j)) != 0) {
+                                varName = varNamePrefix + varNameExpr.substring(i + matchLen, j);
+                                varDefaultValue = varNameExpr.substring(j + valueDelimiterMatchLen);
+                                break;
+                            }
+                        }
+                        break;
+                    } else {
+                        if ((valueDelimiterMatchLen = valueDelimiterMatcher.isMatch(varNameExprChars, i)) != 0) {
+                            varName = varNameExpr.substring(0, i);
+                            varDefaultValue = varNameExpr.substring(i + valueDelimiterMatchLen);
+                            break;
+                        }
+                    }
+                } else {
+                    if ((valueDelimiterMatchLen = valueDelimiterMatcher.isMatch(varNameExprChars, i)) != 0) {
+                        varName = varNameExpr.substring(0, i);
+                        varDefaultValue = varNameExpr.substring(i + valueDelimiterMatchLen);
+                        break;
+                    }
+                }
+            }
+        }
+        return new String[] {varName, varDefaultValue};
+    }
+
     /**
      * Checks if the specified variable is already in the stack (list) of variables.
      *
@@ -1116,6 +1152,238 @@ public class StrSubstitutor implements ConfigurationAware {
         return resolver.lookup(event, variableName);
     }
 
+    // Templates
+    //-----------------------------------------------------------------------
+    /**
+     * Returns the compiled template of the specified source, or null if it must be substituted by
+     * {@link #substitute(LogEvent, StringBuilder, int, int)}, as a subclass may override it, too many templates
+     * were compiled or it is only compiled when substituted for LogEvents. The strings substituted once while the
+     * configuration is built would otherwise take the place of those substituted for each LogEvent.
+     *
+     * @param source  the source string, not null
+     * @param compile  whether to compile the source if it has no template yet
+     * @return the template, or null
+     */
+    private Template getTemplate(final String source, final boolean compile) {
+        if (getClass() != StrSubstitutor.class) {
+            return null;
+        }
+        Template template = templates.get(source);
+        if (template == null && compile && templates.size() < MAX_TEMPLATES) {
+            template = compile(source);
+            templates.put(source, template);
+        }
+        return template;
+    }
+
+    /**
+     * Compiles the specified source into its literal text and its variables, scanning it the way
+     * {@link #substitute(LogEvent, StringBuilder, int, int, List)} does.
+     *
+     * @param source  the source string, not null
+     * @return the template
+     */
+    private Template compile(final String source) {
+        final char[] chars = source.toCharArray();
+        final int end = chars.length;
+        final List<Object> parts = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        boolean altered = false;
+        int pos = 0;
+        while (pos < end) {
+            final int startMatchLen = prefixMatcher.isMatch(chars, pos, 0, end);
+            if (startMatchLen == 0) {
+                literal.append(chars[pos++]);
+            } else if (literal.length() > 0 && literal.charAt(literal.length() - 1) == escapeChar) {
+                // escaped, the escape character is removed
+                literal.setCharAt(literal.length() - 1, chars[pos++]);
+                altered = true;
+            } else {
+                // find suffix
+                int suffixPos = pos + startMatchLen;
+                int endMatchLen = 0;
+                int nestedVarCount = 0;
+                while (suffixPos < end) {
+                    if (enableSubstitutionInVariables
+                            && (endMatchLen = prefixMatcher.isMatch(chars, suffixPos, 0, end)) != 0) {
+                        nestedVarCount++;
+                        suffixPos += endMatchLen;
+                    } else if ((endMatchLen = suffixMatcher.isMatch(chars, suffixPos, 0, end)) == 0) {
+                        suffixPos++;
+                    } else if (nestedVarCount == 0) {
+                        break;
+                    } else {
+                        nestedVarCount--;
+                        suffixPos += endMatchLen;
+                    }
+                }
+                if (suffixPos >= end) {
+                    // not terminated, left as is
+                    literal.append(chars, pos, end - pos);
+                    break;
+                }
+                if (literal.length() > 0) {
+                    parts.add(literal.toString());
+                    literal.setLength(0);
+                }
+                final int endPos = suffixPos + endMatchLen;
+                parts.add(new Variable(source.substring(pos, endPos),
+                        source.substring(pos + startMatchLen, suffixPos)));
+                pos = endPos;
+            }
+        }
+        if (parts.isEmpty()) {
+            return new Template(source, altered ? literal.toString() : source, null);
+        }
+        if (literal.length() > 0) {
+            parts.add(literal.toString());
+        }
+        return new Template(source, null, parts.toArray());
+    }
+
+    /**
+     * Checks whether the specified string contains a variable prefix.
+     *
+     * @param str  the string to check, not null
+     * @return true if the string may contain a variable
+     */
+    private boolean containsVariable(final String str) {
+        final char[] chars = str.toCharArray();
+        for (int pos = 0; pos < chars.length; pos++) {
+            if (prefixMatcher.isMatch(chars, pos, 0, chars.length) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Source string compiled into its literal text and its variables, so that substituting it again only resolves
+     * the variables.
+     */
+    private final class Template {
+
+        private final String source;
+        private final String constant;
+        private final Object[] parts;
+
+        Template(final String source, final String constant, final Object[] parts) {
+            this.source = source;
+            this.constant = constant;
+            this.parts = parts;
+        }
+
+        /**
+         * Substitutes the variables of this template.
+         *
+         * @param event  the current LogEvent, if there is one
+         * @return the result, or null if the source must be substituted by
+         * {@link StrSubstitutor#substitute(LogEvent, StringBuilder, int, int)}
+         */
+        String substitute(final LogEvent event) {
+            if (constant != null) {
+                return constant;
+            }
+            final StringBuilder buf = new StringBuilder(source.length() + BUF_SIZE / 4);
+            for (final Object part : parts) {
+                if (part instanceof Variable) {
+                    if (!((Variable) part).appendTo(event, buf, source)) {
+                        return null;
+                    }
+                } else {
+                    buf.append((String) part);
+                }
+            }
+            return buf.toString();
+        }
+    }
+
+    /**
+     * Variable of a template. The value of a variable the resolver declares invariant is cached once resolved for a
+     * LogEvent.
+     *
+     * @see StrLookup#isInvariant(String)
+     */
+    private final class Variable {
+
+        private final String text;
+        private final String expression;
+        private final String name;
+        private final String defaultValue;
+        private int invariant;
+        private volatile String invariantValue;
+
+        Variable(final String text, final String expression) {
+            this.text = text;
+            this.expression = expression;
+            if (enableSubstitutionInVariables && containsVariable(expression)) {
+                // resolved for each substitution
+                this.name = null;
+                this.defaultValue = null;
+            } else {
+                final String[] variable = parseVariable(expression);
+                this.name = variable[0];
+                this.defaultValue = variable[1];
+            }
+        }
+
+        /**
+         * Appends the value of this variable.
+         *
+         * @param event  the current LogEvent, if there is one
+         * @param buf  the buffer to append to
+         * @param source  the source string of the template
+         * @return false if the variable is escaped by the end of the value of the previous one
+         */
+        boolean appendTo(final LogEvent event, final StringBuilder buf, final String source) {
+            final int length = buf.length();
+            if (length > 0 && buf.charAt(length - 1) == escapeChar) {
+                return false;
+            }
+            final String cachedValue = invariantValue;
+            if (cachedValue != null && event != null) {
+                buf.append(cachedValue);
+                return true;
+            }
+            String varName = name;
+            String varDefaultValue = defaultValue;
+            if (varName == null) {
+                final String[] variable = parseVariable(replace(event, expression));
+                varName = variable[0];
+                varDefaultValue = variable[1];
+            }
+            String varValue = variableResolver == null ? null : variableResolver.lookup(event, varName);
+            final boolean resolved = varValue != null;
+            if (!resolved) {
+                varValue = varDefaultValue;
+            }
+            if (varValue == null) {
+                buf.append(text);
+            } else if (!containsVariable(varValue)) {
+                buf.append(varValue);
+                if (resolved && event != null && name != null && isInvariant()) {
+                    invariantValue = varValue;
+                }
+            } else {
+                // recursive replace
+                final List<String> priorVariables = new ArrayList<>();
+                priorVariables.add(source);
+                priorVariables.add(varName);
+                final StringBuilder valueBuf = new StringBuilder(varValue);
+                StrSubstitutor.this.substitute(event, valueBuf, 0, varValue.length(), priorVariables);
+                buf.append(valueBuf);
+            }
+            return true;
+        }
+
+        private boolean isInvariant() {
+            if (invariant == 0) {
+                invariant = variableResolver.isInvariant(name) ? 1 : -1;
+            }
+            return invariant > 0;
+        }
+    }
+
     // Escape
     //-----------------------------------------------------------------------
     /**
@@ -1136,6 +1404,7 @@ public class StrSubstitutor implements ConfigurationAware {
      */
     public void setEscapeChar(final char escapeCharacter) {
         this.escapeChar = escapeCharacter;
+        templates.clear();
     }
 
     // Prefix
@@ -1171,6 +1440,7 @@ public class StrSubstitutor implements ConfigurationAware {
             throw new IllegalArgumentException("Variable prefix matcher must not be null!");
         }
         this.prefixMatcher = prefixMatcher;
+        templates.clear();
         return this;
     }
 
@@ -1240,6 +1510,7 @@ public class StrSubstitutor implements ConfigurationAware {
             throw new IllegalArgumentException("Variable suffix matcher must not be null!");
         }
         this.suffixMatcher = suffixMatcher;
+        templates.clear();
         return this;
     }
 
@@ -1312,6 +1583,7 @@ public class StrSubstitutor implements ConfigurationAware {
      */
     public StrSubstitutor setValueDelimiterMatcher(final StrMatcher valueDelimiterMatcher) {
         this.valueDelimiterMatcher = valueDelimiterMatcher;
+        templates.clear();
         return this;
     }
 
@@ -1377,6 +1649,7 @@ public class StrSubstitutor implements ConfigurationAware {
             ((ConfigurationAware) variableResolver).setConfiguration(this.configuration);
         }
         this.variableResolver = variableResolver;
+        templates.clear();
     }
 
     // Substitution support in variable names
@@ -1400,6 +1673,7 @@ public class StrSubstitutor implements ConfigurationAware {
      */
     public void setEnableSubstitutionInVariables(final boolean enableSubstitutionInVariables) {
         this.enableSubstitutionInVariables = enableSubstitutionInVariables;
+        templates.clear();
     }
 
     private char[] getChars(final StringBuilder sb) {
@@ -1441,5 +1715,6 @@ public class StrSubstitutor implements ConfigurationAware {
         if (this.variableResolver instanceof ConfigurationAware) {
             ((ConfigurationAware) this.variableResolver).setConfiguration(this.configuration);
         }
+        templates.clear();
     }
 }
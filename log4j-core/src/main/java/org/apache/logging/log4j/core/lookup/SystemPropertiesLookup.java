@@ -47,4 +47,14 @@ public class SystemPropertiesLookup extends AbstractLookup {
             return null;
         }
     }
+
+    /**
+     * System properties are not expected to change while logging.
+     * @param key  the key to be looked up
+     * @return true
+     */
+    @Override
+    public boolean isInvariant(final String key) {
+        return true;
+    }
 }
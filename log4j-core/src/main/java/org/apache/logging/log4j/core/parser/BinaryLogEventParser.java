@@ -0,0 +1,409 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.ExtendedStackTraceElement;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.ThrowableProxy;
+import org.apache.logging.log4j.core.layout.internal.BinaryEventFormat;
+import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.spi.MutableThreadContextStack;
+import org.apache.logging.log4j.util.StringMap;
+
+/**
+ * Parses the output of {@link org.apache.logging.log4j.core.layout.BinaryLayout} into instances of
+ * {@link LogEvent}.
+ * <p>
+ * Since the layout writes self-contained frames, a stream of events can be split with
+ * {@link #getFrameLength(byte[], int, int)} before parsing each frame. Custom levels must be declared before
+ * events using them are parsed.
+ * </p>
+ */
+public class BinaryLogEventParser implements LogEventParser {
+
+    /** The number of nested markers or throwables to read at most, which bounds the recursion on malformed input. */
+    private static final int MAX_NESTING_DEPTH = 64;
+
+    @Override
+    public LogEvent parseFrom(final byte[] input) throws ParseException {
+        return parseFrom(input, 0, input.length);
+    }
+
+    @Override
+    public LogEvent parseFrom(final byte[] input, final int offset, final int length) throws ParseException {
+        if (offset < 0 || length < 0 || offset + length > input.length) {
+            throw new ParseException("Invalid range [" + offset + ", " + offset + '+' + length + ") for input of length "
+                    + input.length);
+        }
+        return new FrameReader(input, offset, offset + length).readFrame();
+    }
+
+    /**
+     * Returns the length of the frame starting at the given offset, or {@code -1} if the specified range does not yet
+     * contain the complete frame header.
+     *
+     * @param input  the byte array
+     * @param offset  the offset of the frame
+     * @param length  the number of available bytes
+     *
+     * @return the length of the frame including its header, or {@code -1} if more input is needed
+     * @throws ParseException if the input does not start with a supported frame header
+     */
+    public static int getFrameLength(final byte[] input, final int offset, final int length) throws ParseException {
+        final FrameReader reader = new FrameReader(input, offset, offset + length);
+        try {
+            final int bodyLength = reader.readHeader();
+            return reader.position - offset + bodyLength;
+        } catch (final TruncatedInputException e) {
+            return -1;
+        }
+    }
+
+    private static final class TruncatedInputException extends ParseException {
+
+        private static final long serialVersionUID = 1L;
+
+        private TruncatedInputException() {
+            super("Unexpected end of input");
+        }
+    }
+
+    private static final class FrameReader {
+
+        private final byte[] input;
+
+        private final int limit;
+
+        private final List<String> strings = new ArrayList<>();
+
+        private int position;
+
+        private int depth;
+
+        private FrameReader(final byte[] input, final int offset, final int limit) {
+            this.input = input;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        private int readHeader() throws ParseException {
+            final byte magic = readByte();
+            if (magic != BinaryEventFormat.MAGIC) {
+                throw new ParseException("Invalid magic byte: " + magic);
+            }
+            final byte version = readByte();
+            if (version != BinaryEventFormat.VERSION) {
+                throw new ParseException("Unsupported version: " + version);
+            }
+            final int bodyLength = readVarInt();
+            if (bodyLength < 0) {
+                throw new ParseException("Invalid body length: " + bodyLength);
+            }
+            return bodyLength;
+        }
+
+        private LogEvent readFrame() throws ParseException {
+            final int bodyLength = readHeader();
+            if (limit - position != bodyLength) {
+                throw new ParseException("Expecting exactly one event of " + bodyLength + " bytes, found "
+                        + (limit - position) + " bytes");
+            }
+            final Log4jLogEvent.Builder builder = Log4jLogEvent.newBuilder();
+            for (int tag = readVarInt(); tag != BinaryEventFormat.TAG_END; tag = readVarInt()) {
+                readField(tag, builder);
+            }
+            if (position != limit) {
+                throw new ParseException("Unexpected trailing bytes: " + (limit - position));
+            }
+            return builder.build();
+        }
+
+        private void readField(final int tag, final Log4jLogEvent.Builder builder) throws ParseException {
+            switch (tag) {
+                case BinaryEventFormat.TAG_LEVEL:
+                    builder.setLevel(readLevel());
+                    break;
+                case BinaryEventFormat.TAG_LOGGER_NAME:
+                    builder.setLoggerName(readString());
+                    break;
+                case BinaryEventFormat.TAG_LOGGER_FQCN:
+                    builder.setLoggerFqcn(readString());
+                    break;
+                case BinaryEventFormat.TAG_INSTANT:
+                    builder.setInstant(readInstant());
+                    break;
+                case BinaryEventFormat.TAG_NANO_TIME:
+                    builder.setNanoTime(unZigZag(readVarLong()));
+                    break;
+                case BinaryEventFormat.TAG_THREAD_NAME:
+                    builder.setThreadName(readString());
+                    break;
+                case BinaryEventFormat.TAG_THREAD_ID:
+                    builder.setThreadId(unZigZag(readVarLong()));
+                    break;
+                case BinaryEventFormat.TAG_THREAD_PRIORITY:
+                    builder.setThreadPriority(unZigZag(readVarInt()));
+                    break;
+                case BinaryEventFormat.TAG_MESSAGE:
+                    builder.setMessage(new SimpleMessage(readText()));
+                    break;
+                case BinaryEventFormat.TAG_MARKER:
+                    builder.setMarker(readMarker());
+                    break;
+                case BinaryEventFormat.TAG_CONTEXT_DATA:
+                    builder.setContextData(readContextData());
+                    break;
+                case BinaryEventFormat.TAG_CONTEXT_STACK:
+                    builder.setContextStack(readContextStack());
+                    break;
+                case BinaryEventFormat.TAG_THROWN:
+                    builder.setThrownProxy(readThrowableProxy());
+                    break;
+                case BinaryEventFormat.TAG_SOURCE:
+                    builder.setSource(readSource()).setIncludeLocation(true);
+                    break;
+                case BinaryEventFormat.TAG_END_OF_BATCH:
+                    builder.setEndOfBatch(true);
+                    break;
+                default:
+                    throw new ParseException("Unknown field tag: " + tag);
+            }
+        }
+
+        private Level readLevel() throws ParseException {
+            final int code = readVarInt();
+            if (code == 0) {
+                final String name = readString();
+                // the intLevel only matters to the application, which must declare its custom levels: parsing never
+                // registers a level, as levels cannot be removed
+                readVarInt();
+                final Level level = name == null ? null : Level.getLevel(name);
+                if (level == null) {
+                    throw new ParseException("Unknown custom level: " + name);
+                }
+                return level;
+            }
+            final Level level = BinaryEventFormat.fromLevelCode(code);
+            if (level == null) {
+                throw new ParseException("Unknown level code: " + code);
+            }
+            return level;
+        }
+
+        private MutableInstant readInstant() throws ParseException {
+            final long epochMillisecond = unZigZag(readVarLong());
+            final int nanoOfMillisecond = readVarInt();
+            final MutableInstant instant = new MutableInstant();
+            try {
+                instant.initFromEpochMilli(epochMillisecond, nanoOfMillisecond);
+            } catch (final IllegalArgumentException e) {
+                throw new ParseException(e);
+            }
+            return instant;
+        }
+
+        private Marker readMarker() throws ParseException {
+            enter();
+            final String name = readRequiredString();
+            final int parentCount = readCount();
+            final Marker[] parents = new Marker[parentCount];
+            for (int i = 0; i < parentCount; i++) {
+                parents[i] = readMarker();
+            }
+            depth--;
+            // markers known to the application are reused as they are, others are detached from the MarkerManager,
+            // so that parsing never changes the markers of the application
+            if (MarkerManager.exists(name)) {
+                return MarkerManager.getMarker(name);
+            }
+            return new MarkerManager.Log4jMarker(name).setParents(parents);
+        }
+
+        private void enter() throws ParseException {
+            if (++depth > MAX_NESTING_DEPTH) {
+                throw new ParseException("Nesting deeper than " + MAX_NESTING_DEPTH + " at offset " + position);
+            }
+        }
+
+        private StringMap readContextData() throws ParseException {
+            final int size = readCount();
+            final StringMap contextData = ContextDataFactory.createContextData(size);
+            for (int i = 0; i < size; i++) {
+                contextData.putValue(readRequiredString(), readString());
+            }
+            return contextData;
+        }
+
+        private MutableThreadContextStack readContextStack() throws ParseException {
+            final int depth = readCount();
+            final List<String> elements = new ArrayList<>(depth);
+            for (int i = 0; i < depth; i++) {
+                elements.add(readString());
+            }
+            return new MutableThreadContextStack(elements);
+        }
+
+        private ThrowableProxy readThrowableProxy() throws ParseException {
+            enter();
+            final String name = readString();
+            final String message = readString();
+            final String localizedMessage = readString();
+            final int commonElementCount = readVarInt();
+            final int frameCount = readCount();
+            final ExtendedStackTraceElement[] stackTrace = new ExtendedStackTraceElement[frameCount];
+            for (int i = 0; i < frameCount; i++) {
+                final String classLoaderName = readString();
+                final String moduleName = readString();
+                final String moduleVersion = readString();
+                final String className = readRequiredString();
+                final String methodName = readRequiredString();
+                final String fileName = readString();
+                final int lineNumber = unZigZag(readVarInt());
+                final boolean exact = readVarInt() != 0;
+                final String location = readString();
+                final String version = readString();
+                stackTrace[i] = new ExtendedStackTraceElement(classLoaderName, moduleName, moduleVersion, className,
+                        methodName, fileName, lineNumber, exact, location, version);
+            }
+            final ThrowableProxy causeProxy = readVarInt() != 0 ? readThrowableProxy() : null;
+            final int suppressedCount = readCount();
+            final ThrowableProxy[] suppressedProxies = new ThrowableProxy[suppressedCount];
+            for (int i = 0; i < suppressedCount; i++) {
+                suppressedProxies[i] = readThrowableProxy();
+            }
+            depth--;
+            return new ThrowableProxy(name, message, localizedMessage, stackTrace, commonElementCount, causeProxy,
+                    suppressedProxies);
+        }
+
+        private StackTraceElement readSource() throws ParseException {
+            final String classLoaderName = readString();
+            final String moduleName = readString();
+            final String moduleVersion = readString();
+            final String className = readRequiredString();
+            final String methodName = readRequiredString();
+            final String fileName = readString();
+            final int lineNumber = unZigZag(readVarInt());
+            return new StackTraceElement(classLoaderName, moduleName, moduleVersion, className, methodName, fileName,
+                    lineNumber);
+        }
+
+        private String readRequiredString() throws ParseException {
+            final String value = readString();
+            if (value == null) {
+                throw new ParseException("Unexpected null string at offset " + position);
+            }
+            return value;
+        }
+
+        private String readString() throws ParseException {
+            final int header = readVarInt();
+            if (header == 0) {
+                return null;
+            }
+            if ((header & 1) != 0) {
+                final int index = header >>> 1;
+                if (index >= strings.size()) {
+                    throw new ParseException("Invalid string reference: " + index);
+                }
+                return strings.get(index);
+            }
+            final String value = readUtf8((header >>> 1) - 1);
+            strings.add(value);
+            return value;
+        }
+
+        private String readText() throws ParseException {
+            final int header = readVarInt();
+            if (header == 0 || (header & 1) != 0) {
+                throw new ParseException("Invalid text header: " + header);
+            }
+            return readUtf8((header >>> 1) - 1);
+        }
+
+        private String readUtf8(final int byteCount) throws ParseException {
+            if (byteCount > limit - position) {
+                throw new TruncatedInputException();
+            }
+            final String value = new String(input, position, byteCount, StandardCharsets.UTF_8);
+            position += byteCount;
+            return value;
+        }
+
+        /**
+         * Reads a collection size, which cannot exceed the remaining bytes since every element takes at least one.
+         */
+        private int readCount() throws ParseException {
+            final int count = readVarInt();
+            if (count < 0 || count > limit - position) {
+                throw new ParseException("Invalid count: " + count);
+            }
+            return count;
+        }
+
+        private int readVarInt() throws ParseException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                final byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new ParseException("Malformed varint at offset " + position);
+        }
+
+        private long readVarLong() throws ParseException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new ParseException("Malformed varint at offset " + position);
+        }
+
+        private byte readByte() throws ParseException {
+            if (position >= limit) {
+                throw new TruncatedInputException();
+            }
+            return input[position++];
+        }
+
+        private static int unZigZag(final int value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private static long unZigZag(final long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+    }
+
+}
@@ -20,6 +20,7 @@ import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.util.RegexPrefilter;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAttribute;
 import org.apache.logging.log4j.plugins.PluginFactory;
@@ -35,6 +36,8 @@ public final class RegexReplacement {
 
     private final Pattern pattern;
 
+    private final RegexPrefilter prefilter;
+
     private final String substitution;
 
     /**
@@ -45,6 +48,7 @@ public final class RegexReplacement {
      */
     private RegexReplacement(final Pattern pattern, final String substitution) {
         this.pattern = pattern;
+        this.prefilter = RegexPrefilter.create(pattern);
         this.substitution = substitution;
     }
 
@@ -54,6 +58,9 @@ public final class RegexReplacement {
      * @return the replacement String.
      */
     public String format(final String msg) {
+        if (prefilter != null && !prefilter.mayMatch(msg)) {
+            return msg;
+        }
         return pattern.matcher(msg).replaceAll(substitution);
     }
 
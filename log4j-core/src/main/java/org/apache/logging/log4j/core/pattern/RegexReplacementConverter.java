@@ -21,11 +21,13 @@ import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.RegexPrefilter;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 
 /**
- * Replacement pattern converter.
+ * Replacement pattern converter. Text that does not contain the literals required by the regular expression is
+ * appended without running the regular expression.
  */
 @Plugin(name = "replace", category = PatternConverter.CATEGORY)
 @ConverterKeys({ "replace" })
@@ -33,6 +35,8 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
 
     private final Pattern pattern;
 
+    private final RegexPrefilter prefilter;
+
     private final String substitution;
 
     private final List<PatternFormatter> formatters;
@@ -47,6 +51,7 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
                                       final Pattern pattern, final String substitution) {
         super("replace", "replace");
         this.pattern = pattern;
+        this.prefilter = RegexPrefilter.create(pattern);
         this.substitution = substitution;
         this.formatters = formatters;
     }
@@ -92,6 +97,10 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
         for (final PatternFormatter formatter : formatters) {
             formatter.format(event, buf);
         }
+        if (prefilter != null && !prefilter.mayMatch(buf)) {
+            toAppendTo.append(buf);
+            return;
+        }
         toAppendTo.append(pattern.matcher(buf.toString()).replaceAll(substitution));
     }
 }
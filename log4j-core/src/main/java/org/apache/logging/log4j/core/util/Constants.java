@@ -43,6 +43,33 @@ public final class Constants {
      */
     public static final String JNDI_CONTEXT_NAME = "java:comp/env/log4j/context-name";
 
+    /**
+     * Name of the system property that makes a LoggerContext apply a modified configuration incrementally: the node
+     * tree of the new configuration is compared with the running one, levels are updated in place and only the
+     * Appenders and Loggers that changed are rebuilt, so unchanged Appenders keep their managers, files and
+     * connections. Changes that cannot be applied this way fall back to a full reconfiguration. {@code false} by
+     * default.
+     */
+    public static final String INCREMENTAL_RECONFIGURATION = "log4j2.incrementalReconfiguration";
+
+    /**
+     * Name of the system property holding the number of threads starting the Appenders of a configuration. When
+     * greater than one, Appenders are started in parallel, each one after the Appenders it refers to, so that the time
+     * spent connecting by database or network Appenders overlaps, and an Appender failing to start is left stopped
+     * instead of failing the start of the configuration. {@code 1} by default, which starts the Appenders one after
+     * another.
+     */
+    public static final String APPENDER_START_THREADS = "log4j2.appenderStartThreads";
+
+    /**
+     * Name of the system property holding the number of milliseconds the start of a configuration waits for its
+     * Appenders to start when they are started in parallel. Appenders that have not started by then keep starting in
+     * the background. 30000 by default.
+     *
+     * @see #APPENDER_START_THREADS
+     */
+    public static final String APPENDER_START_TIMEOUT_MILLIS = "log4j2.appenderStartTimeoutMillis";
+
     /**
      * Number of milliseconds in a second.
      */
@@ -54,6 +81,29 @@ public final class Constants {
     public static final boolean FORMAT_MESSAGES_IN_BACKGROUND = PropertiesUtil.getProperties().getBooleanProperty(
             "log4j.format.msg.async", false);
 
+    /**
+     * If {@code true}, each Logger publishes its level through a {@link java.lang.invoke.MutableCallSite}, so that the
+     * JIT compiler can treat it as a constant and reduce level checks of disabled statements to nothing after warmup.
+     * The compiler can only do so where the Logger itself is a constant, like a {@code static final} field, and its
+     * final fields are trusted, which HotSpot requires {@code -XX:+TrustFinalNonStaticFields} for; elsewhere level
+     * checks get slower. Updating the level of a Logger is also more expensive, as it deoptimizes the code that depends
+     * on it. Changes to the configuration are seen by Loggers once {@code LoggerContext.updateLoggers()} has been
+     * called. Controlled by system property "log4j2.loggerLevelCallSites", {@code false} by default.
+     */
+    public static final boolean LOGGER_LEVEL_CALL_SITES = PropertiesUtil.getProperties().getBooleanProperty(
+            "log4j2.loggerLevelCallSites", false);
+
+    /**
+     * If {@code true}, the configuration files monitored because of a positive {@code monitorInterval} are watched
+     * through the {@link java.nio.file.WatchService} of the file system, which reports their modifications as they
+     * happen, instead of being polled every {@code monitorInterval} seconds. Sources that cannot be watched this way,
+     * like URLs, are still polled. Controlled by system property "log4j2.fileWatchService", {@code false} by default.
+     *
+     * @see FileWatchEventService
+     */
+    public static final boolean FILE_WATCH_SERVICE = PropertiesUtil.getProperties().getBooleanProperty(
+            "log4j2.fileWatchService", false);
+
     /**
      * LOG4J2-3198 property which used to globally opt out of lookups in pattern layout message text, however
      * this is the default and this property is no longer read.
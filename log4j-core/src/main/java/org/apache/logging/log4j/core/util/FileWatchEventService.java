@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * {@link WatchEventService} backed by the {@link WatchService} of the default file system, which is notified of file
+ * modifications by the operating system, e.g. through inotify on Linux, instead of polling the modification time of
+ * the watched files.
+ * <p>
+ * A single instance, with a single thread, serves all the {@link WatchManager}s of the JVM. It watches the directories
+ * of the files watched by the subscribed managers and, once no event has been received for
+ * {@value #QUIET_PERIOD_MILLIS} milliseconds, lets the managers watching a file in a modified directory check their
+ * files, so that a burst of modifications is only reported once. The thread ends when the last manager unsubscribes.
+ * </p>
+ *
+ * @see Constants#FILE_WATCH_SERVICE
+ * @since 3.0.0
+ */
+public final class FileWatchEventService implements WatchEventService {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final long QUIET_PERIOD_MILLIS = 100;
+
+    private static final FileWatchEventService INSTANCE = new FileWatchEventService();
+
+    private final Set<WatchManager> managers = ConcurrentHashMap.newKeySet();
+    private final Set<Path> directories = new HashSet<>();
+    private WatchService watchService;
+
+    private FileWatchEventService() {
+    }
+
+    /**
+     * Returns the instance serving all the {@link WatchManager}s.
+     *
+     * @return the FileWatchEventService
+     */
+    public static FileWatchEventService getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void subscribe(final WatchManager manager) {
+        register(manager);
+    }
+
+    /**
+     * Subscribes the specified manager and watches the directories of the files it watches.
+     *
+     * @param manager the manager to subscribe
+     * @return {@code true} if all the sources of the manager are watched by this service, {@code false} if some of them
+     *         must still be polled
+     */
+    synchronized boolean register(final WatchManager manager) {
+        boolean watchesAll = true;
+        for (final Source source : manager.getConfigurationWatchers().keySet()) {
+            watchesAll &= watchDirectory(source.getFile());
+        }
+        managers.add(manager);
+        return watchesAll;
+    }
+
+    @Override
+    public synchronized void unsubscribe(final WatchManager manager) {
+        if (managers.remove(manager) && managers.isEmpty() && watchService != null) {
+            try {
+                watchService.close();
+            } catch (final IOException ex) {
+                LOGGER.debug("Unable to close WatchService", ex);
+            }
+            watchService = null;
+            directories.clear();
+        }
+    }
+
+    /**
+     * Returns the directory containing the specified file, as registered with the WatchService.
+     */
+    static Path getDirectory(final File file) {
+        return file.getAbsoluteFile().toPath().getParent();
+    }
+
+    private boolean watchDirectory(final File file) {
+        final Path directory = file == null ? null : getDirectory(file);
+        if (directory == null) {
+            return false;
+        }
+        if (directories.contains(directory)) {
+            return true;
+        }
+        try {
+            if (watchService == null) {
+                final WatchService service = FileSystems.getDefault().newWatchService();
+                Log4jThreadFactory.createDaemonThreadFactory(getClass().getSimpleName())
+                        .newThread(() -> run(service))
+                        .start();
+                watchService = service;
+            }
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.add(directory);
+            return true;
+        } catch (final IOException | RuntimeException ex) {
+            LOGGER.warn("Unable to watch directory {}, {} will be polled: {}", directory, file, ex.toString());
+            return false;
+        }
+    }
+
+    private void run(final WatchService service) {
+        try {
+            while (true) {
+                final Set<Path> modified = new HashSet<>();
+                WatchKey key = service.take();
+                while (key != null) {
+                    if (!key.pollEvents().isEmpty()) {
+                        modified.add((Path) key.watchable());
+                    }
+                    key.reset();
+                    key = service.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                for (final WatchManager manager : managers) {
+                    try {
+                        manager.checkFiles(modified);
+                    } catch (final RuntimeException ex) {
+                        LOGGER.error("Unable to check the files of {}", manager, ex);
+                    }
+                }
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException ex) {
+            // The service was closed because no manager is subscribed anymore.
+        }
+    }
+}
@@ -75,30 +75,27 @@ public final class JsonUtils {
     public static void quoteAsString(final CharSequence input, final StringBuilder output) {
         final char[] qbuf = getQBuf();
         final int escCodeCount = ESC_CODES.length;
-        int inPtr = 0;
         final int inputLen = input.length();
 
-        outer:
-        while (inPtr < inputLen) {
-            tight_loop:
-            while (true) {
-                final char c = input.charAt(inPtr);
-                if (c < escCodeCount && ESC_CODES[c] != 0) {
-                    break tight_loop;
-                }
-                output.append(c);
-                if (++inPtr >= inputLen) {
-                    break outer;
+        // scan for characters to escape and bulk copy the runs in between
+        int runStart = 0;
+        for (int inPtr = 0; inPtr < inputLen; inPtr++) {
+            final char c = input.charAt(inPtr);
+            if (c < escCodeCount && ESC_CODES[c] != 0) {
+                if (runStart < inPtr) {
+                    output.append(input, runStart, inPtr);
                 }
+                // something to escape; 2 or 6-char variant?
+                final int escCode = ESC_CODES[c];
+                final int length = (escCode < 0)
+                        ? _appendNumeric(c, qbuf)
+                        : _appendNamed(escCode, qbuf);
+                output.append(qbuf, 0, length);
+                runStart = inPtr + 1;
             }
-            // something to escape; 2 or 6-char variant?
-            final char d = input.charAt(inPtr++);
-            final int escCode = ESC_CODES[d];
-            final int length = (escCode < 0)
-                    ? _appendNumeric(d, qbuf)
-                    : _appendNamed(escCode, qbuf);
-
-            output.append(qbuf, 0, length);
+        }
+        if (runStart < inputLen) {
+            output.append(input, runStart, inputLen);
         }
     }
 
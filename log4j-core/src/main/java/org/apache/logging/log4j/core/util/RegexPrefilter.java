@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Rejects text that a regular expression cannot match, without running the regular expression.
+ * <p>
+ * The regular expression is analyzed once for the literals that any match must contain: for each top level
+ * alternative, the longest sequence of characters that is neither optional nor inside a group or a character class.
+ * Text containing none of these literals cannot match, which a substring search finds faster than the regular
+ * expression engine. Regular expressions that are case insensitive, use comments or use constructs that are not
+ * analyzed have no prefilter.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+public final class RegexPrefilter {
+
+    private static final int SUPPORTED_FLAGS = Pattern.DOTALL | Pattern.MULTILINE | Pattern.UNIX_LINES
+            | Pattern.UNICODE_CHARACTER_CLASS;
+
+    /** Escapes of control characters and the characters they stand for. */
+    private static final String CONTROL_ESCAPES = "tnrfae";
+    private static final String CONTROL_CHARACTERS = "\t\n\r\f\u001B\u0007";
+
+    /** Escapes of character classes and boundaries, which are never literals. */
+    private static final String CLASS_ESCAPES = "dDsSwWhHvVRXbBAzZG";
+
+    private final String[] literals;
+
+    private RegexPrefilter(final String[] literals) {
+        this.literals = literals;
+    }
+
+    /**
+     * Creates the prefilter of the specified pattern.
+     *
+     * @param pattern the compiled regular expression
+     * @return the prefilter, or {@code null} if the regular expression can match text without any literal
+     */
+    public static RegexPrefilter create(final Pattern pattern) {
+        final int flags = pattern.flags();
+        if ((flags & Pattern.LITERAL) != 0) {
+            final String regex = pattern.pattern();
+            return (flags & ~Pattern.LITERAL & ~SUPPORTED_FLAGS) != 0 || regex.isEmpty()
+                    ? null : new RegexPrefilter(new String[] {regex});
+        }
+        if ((flags & ~SUPPORTED_FLAGS) != 0) {
+            return null;
+        }
+        final List<String> literals = requiredLiterals(pattern.pattern());
+        return literals == null ? null : new RegexPrefilter(literals.toArray(new String[0]));
+    }
+
+    /**
+     * Returns {@code false} if the regular expression cannot find a match in the specified text.
+     *
+     * @param text the text to search
+     * @return {@code true} if the text contains one of the required literals
+     */
+    public boolean mayMatch(final CharSequence text) {
+        if (text instanceof String) {
+            final String string = (String) text;
+            for (final String literal : literals) {
+                if (string.indexOf(literal) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (text instanceof StringBuilder) {
+            final StringBuilder builder = (StringBuilder) text;
+            for (final String literal : literals) {
+                if (builder.indexOf(literal) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return mayMatch(text.toString());
+    }
+
+    /**
+     * Returns the literals of which any match contains at least one.
+     *
+     * @return the literals
+     */
+    public List<String> getLiterals() {
+        return Arrays.asList(literals);
+    }
+
+    @Override
+    public String toString() {
+        return "RegexPrefilter" + Arrays.toString(literals);
+    }
+
+    /**
+     * Returns one required literal for each top level alternative of the specified regular expression, or
+     * {@code null} if one of them has none or uses a construct that is not analyzed.
+     */
+    static List<String> requiredLiterals(final String regex) {
+        final List<String> literals = new ArrayList<>();
+        final StringBuilder run = new StringBuilder();
+        String longest = "";
+        // the number of characters of the last atom when it ends the run, 0 otherwise
+        int atomLength = 0;
+        final int length = regex.length();
+        int i = 0;
+        while (i < length) {
+            final char c = regex.charAt(i);
+            switch (c) {
+                case '|':
+                    longest = longest(longest, run);
+                    if (!addLiteral(literals, longest)) {
+                        return null;
+                    }
+                    longest = "";
+                    run.setLength(0);
+                    atomLength = 0;
+                    i++;
+                    break;
+                case '\\': {
+                    if (i + 1 >= length) {
+                        return null;
+                    }
+                    final char next = regex.charAt(i + 1);
+                    if (next == 'Q') {
+                        final int end = regex.indexOf("\\E", i + 2);
+                        final String quoted = regex.substring(i + 2, end < 0 ? length : end);
+                        if (quoted.isEmpty()) {
+                            return null;
+                        }
+                        run.append(quoted);
+                        atomLength = Character.charCount(quoted.codePointBefore(quoted.length()));
+                        i = end < 0 ? length : end + 2;
+                    } else if (!Character.isLetterOrDigit(next)) {
+                        run.append(next);
+                        atomLength = 1;
+                        i += 2;
+                    } else if (CONTROL_ESCAPES.indexOf(next) >= 0) {
+                        run.append(CONTROL_CHARACTERS.charAt(CONTROL_ESCAPES.indexOf(next)));
+                        atomLength = 1;
+                        i += 2;
+                    } else if (CLASS_ESCAPES.indexOf(next) >= 0) {
+                        longest = longest(longest, run);
+                        run.setLength(0);
+                        atomLength = 0;
+                        i += 2;
+                    } else {
+                        // back references, code points, properties...
+                        return null;
+                    }
+                    break;
+                }
+                case '[':
+                    i = skipClass(regex, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                    longest = longest(longest, run);
+                    run.setLength(0);
+                    atomLength = 0;
+                    break;
+                case '(':
+                    if (i + 2 < length && regex.charAt(i + 1) == '?'
+                            && (Character.isLetter(regex.charAt(i + 2)) || regex.charAt(i + 2) == '-')) {
+                        // embedded flags may make the rest case insensitive
+                        return null;
+                    }
+                    i = skipGroup(regex, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                    longest = longest(longest, run);
+                    run.setLength(0);
+                    atomLength = 0;
+                    break;
+                case '?':
+                case '*':
+                case '+':
+                case '{': {
+                    final boolean optional;
+                    if (c == '{') {
+                        final int end = regex.indexOf('}', i);
+                        if (end < 0) {
+                            return null;
+                        }
+                        final int comma = regex.indexOf(',', i);
+                        final String min = regex.substring(i + 1, comma >= 0 && comma < end ? comma : end);
+                        if (min.isEmpty() || !isDigits(min)) {
+                            return null;
+                        }
+                        // zero repetitions allowed
+                        optional = min.replace("0", "").isEmpty();
+                        i = end + 1;
+                    } else {
+                        optional = c != '+';
+                        i++;
+                    }
+                    if (i < length && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+                        // reluctant or possessive
+                        i++;
+                    }
+                    if (optional) {
+                        run.setLength(run.length() - atomLength);
+                    }
+                    // a repeated atom separates the characters before it from those after it
+                    longest = longest(longest, run);
+                    run.setLength(0);
+                    atomLength = 0;
+                    break;
+                }
+                case '.':
+                case '^':
+                case '$':
+                    longest = longest(longest, run);
+                    run.setLength(0);
+                    atomLength = 0;
+                    i++;
+                    break;
+                case ')':
+                    return null;
+                default:
+                    if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(regex.charAt(i + 1))) {
+                        run.append(c).append(regex.charAt(i + 1));
+                        atomLength = 2;
+                        i += 2;
+                    } else {
+                        run.append(c);
+                        atomLength = 1;
+                        i++;
+                    }
+            }
+        }
+        return addLiteral(literals, longest(longest, run)) ? literals : null;
+    }
+
+    private static String longest(final String longest, final StringBuilder run) {
+        return run.length() > longest.length() ? run.toString() : longest;
+    }
+
+    private static boolean addLiteral(final List<String> literals, final String literal) {
+        if (literal.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < literals.size(); i++) {
+            final String other = literals.get(i);
+            if (literal.contains(other)) {
+                // finding the other is enough
+                return true;
+            }
+            if (other.contains(literal)) {
+                literals.set(i, literal);
+                return true;
+            }
+        }
+        literals.add(literal);
+        return true;
+    }
+
+    private static boolean isDigits(final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index following the character class starting at the specified index, or -1 if it does not end.
+     */
+    private static int skipClass(final String regex, final int start) {
+        final int length = regex.length();
+        int i = start + 1;
+        if (i < length && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < length && regex.charAt(i) == ']') {
+            // a leading bracket is literal
+            i++;
+        }
+        while (i < length) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == ']') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index following the group starting at the specified index, or -1 if it does not end.
+     */
+    private static int skipGroup(final String regex, final int start) {
+        final int length = regex.length();
+        int i = start + 1;
+        while (i < length) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == '(') {
+                i = skipGroup(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == ')') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipEscape(final String regex, final int start) {
+        if (start + 1 >= regex.length()) {
+            return -1;
+        }
+        if (regex.charAt(start + 1) == 'Q') {
+            final int end = regex.indexOf("\\E", start + 2);
+            return end < 0 ? regex.length() : end + 2;
+        }
+        return start + 2;
+    }
+}
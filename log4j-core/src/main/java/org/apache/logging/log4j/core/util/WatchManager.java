@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.util;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -24,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -40,6 +42,10 @@ import org.apache.logging.log4j.util.LoaderUtil;
 
 /**
  * Manages {@link FileWatcher}s.
+ * <p>
+ * Watched sources are polled every {@link #getIntervalSeconds() intervalSeconds} seconds, except the files whose
+ * modifications are reported by the {@link FileWatchEventService} when {@link Constants#FILE_WATCH_SERVICE} is enabled.
+ * </p>
  *
  * @see FileWatcher
  * @see ConfigurationScheduler
@@ -104,24 +110,14 @@ public class WatchManager extends AbstractLifeCycle {
         public void run() {
             logger.trace("{} run triggered.", SIMPLE_NAME);
             for (final Map.Entry<Source, ConfigurationMonitor> entry : watchers.entrySet()) {
-                final Source source = entry.getKey();
-                final ConfigurationMonitor monitor = entry.getValue();
-                if (monitor.getWatcher().isModified()) {
-                    final long lastModified = monitor.getWatcher().getLastModified();
-                    if (logger.isInfoEnabled()) {
-                        logger.info("Source '{}' was modified on {} ({}), previous modification was on {} ({})", source,
-                                millisToString(lastModified), lastModified, millisToString(monitor.lastModifiedMillis),
-                                monitor.lastModifiedMillis);
-                    }
-                    monitor.lastModifiedMillis = lastModified;
-                    monitor.getWatcher().modified();
-                }
+                checkModified(entry.getKey(), entry.getValue());
             }
             logger.trace("{} run ended.", SIMPLE_NAME);
         }
     }
     private static final Logger logger = StatusLogger.getLogger();
     private final List<WatchEventService> eventServiceList;
+    private final FileWatchEventService fileEventService;
     private ScheduledFuture<?> future;
     // This just needs to be a unique key within the WatchEventManager.
     private final UUID id = LocalUUID.get();
@@ -133,7 +129,12 @@ public class WatchManager extends AbstractLifeCycle {
     private final ConcurrentMap<Source, ConfigurationMonitor> watchers = new ConcurrentHashMap<>();
 
     public WatchManager(final ConfigurationScheduler scheduler) {
+        this(scheduler, Constants.FILE_WATCH_SERVICE ? FileWatchEventService.getInstance() : null);
+    }
+
+    WatchManager(final ConfigurationScheduler scheduler, final FileWatchEventService fileEventService) {
         this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        this.fileEventService = fileEventService;
         eventServiceList = getEventServices();
     }
 
@@ -141,6 +142,33 @@ public class WatchManager extends AbstractLifeCycle {
         new WatchRunnable().run();
     }
 
+    /**
+     * Checks the watched files located in one of the specified directories.
+     *
+     * @param directories the modified directories
+     */
+    void checkFiles(final Set<Path> directories) {
+        for (final Map.Entry<Source, ConfigurationMonitor> entry : watchers.entrySet()) {
+            final File file = entry.getKey().getFile();
+            if (file != null && directories.contains(FileWatchEventService.getDirectory(file))) {
+                checkModified(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void checkModified(final Source source, final ConfigurationMonitor monitor) {
+        if (monitor.getWatcher().isModified()) {
+            final long lastModified = monitor.getWatcher().getLastModified();
+            if (logger.isInfoEnabled()) {
+                logger.info("Source '{}' was modified on {} ({}), previous modification was on {} ({})", source,
+                        millisToString(lastModified), lastModified, millisToString(monitor.lastModifiedMillis),
+                        monitor.lastModifiedMillis);
+            }
+            monitor.lastModifiedMillis = lastModified;
+            monitor.getWatcher().modified();
+        }
+    }
+
 
     /**
      * Return the ConfigurationWaatchers.
@@ -292,22 +320,36 @@ public class WatchManager extends AbstractLifeCycle {
     public void start() {
         super.start();
 
-        if (intervalSeconds > 0) {
-            future = scheduler.scheduleWithFixedDelay(new WatchRunnable(), intervalSeconds, intervalSeconds,
-                    TimeUnit.SECONDS);
+        // Files whose modifications are reported by the FileWatchEventService are not polled.
+        if (intervalSeconds > 0 && (fileEventService == null || !fileEventService.register(this))) {
+            startPolling();
         }
         for (final WatchEventService service : eventServiceList) {
             service.subscribe(this);
         }
     }
 
+    private synchronized void startPolling() {
+        if (future == null) {
+            future = scheduler.scheduleWithFixedDelay(new WatchRunnable(), intervalSeconds, intervalSeconds,
+                    TimeUnit.SECONDS);
+        }
+    }
+
     @Override
     public boolean stop(final long timeout, final TimeUnit timeUnit) {
         setStopping();
         for (final WatchEventService service : eventServiceList) {
             service.unsubscribe(this);
         }
-        final boolean stopped = stop(future);
+        if (fileEventService != null) {
+            fileEventService.unsubscribe(this);
+        }
+        final boolean stopped;
+        synchronized (this) {
+            stopped = stop(future);
+            future = null;
+        }
         setStopped();
         return stopped;
     }
@@ -354,6 +396,9 @@ public class WatchManager extends AbstractLifeCycle {
             logger.debug("Watching configuration '{}' for lastModified {} ({})", source, millisToString(lastModified), lastModified);
         }
         watchers.put(source, new ConfigurationMonitor(lastModified, watcher));
+        if (fileEventService != null && intervalSeconds > 0 && isStarted() && !fileEventService.register(this)) {
+            startPolling();
+        }
     }
 
     /**
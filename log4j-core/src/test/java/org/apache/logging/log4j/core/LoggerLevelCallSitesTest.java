@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.apache.logging.log4j.core.util.Constants;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the level checks of Loggers with "log4j2.loggerLevelCallSites" enabled.
+ */
+public class LoggerLevelCallSitesTest {
+
+    @BeforeAll
+    public static void beforeClass() {
+        System.setProperty("log4j2.loggerLevelCallSites", "true");
+    }
+
+    @AfterAll
+    public static void afterClass() {
+        System.clearProperty("log4j2.loggerLevelCallSites");
+    }
+
+    @Test
+    public void testGlobalFilterAddedAtRuntime() {
+        assertTrue(Constants.LOGGER_LEVEL_CALL_SITES);
+        final LoggerContext context = new LoggerContext("LoggerLevelCallSitesTest");
+        try {
+            context.start();
+            final Logger logger = context.getLogger("LoggerLevelCallSitesTest");
+            assertTrue(logger.isErrorEnabled());
+
+            final Filter filter = ThresholdFilter.createFilter(Level.FATAL, Filter.Result.NEUTRAL, Filter.Result.DENY);
+            context.addFilter(filter);
+            assertFalse(logger.isErrorEnabled());
+            assertTrue(logger.isFatalEnabled());
+
+            context.removeFilter(filter);
+            assertTrue(logger.isErrorEnabled());
+        } finally {
+            context.stop();
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.logging.log4j.core.test.categories.AsyncLoggers;
 import org.apache.logging.log4j.core.time.internal.DummyNanoClock;
 import org.apache.logging.log4j.core.time.internal.FixedPreciseClock;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterBuffer;
 import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.spi.MutableThreadContextStack;
@@ -267,6 +268,27 @@ public class RingBufferLogEventTest {
         }
     }
 
+    @Test
+    public void testParameterBufferIsSwappedIn() {
+        final RingBufferLogEvent evt = new RingBufferLogEvent();
+        final ReusableMessageFactory factory = new ReusableMessageFactory();
+        final Message message = factory.newMessage("{} is {}", new ParameterBuffer().add(1.5).add('x'));
+        try {
+            evt.setValues(null, "logger.name", null, "f.q.c.n", Level.TRACE, message, null,
+                    (StringMap) evt.getContextData(), null, -1, "main", -1, null, new FixedPreciseClock(12345, 678),
+                    new DummyNanoClock(1));
+        } finally {
+            ReusableMessageFactory.release(message);
+        }
+        assertEquals("1.5 is x", evt.getFormattedMessage());
+        assertEquals(2, evt.getParameterCount());
+        assertArrayEquals(new Object[] {1.5, 'x'}, evt.getParameters());
+        assertArrayEquals(new Object[] {1.5, 'x'}, evt.createMemento().getMessage().getParameters());
+
+        evt.clear();
+        assertNull(evt.swapParameterBuffer(null));
+    }
+
     @Test
     public void testMessageTextNeverThrowsNpe() {
         final RingBufferLogEvent evt = new RingBufferLogEvent();
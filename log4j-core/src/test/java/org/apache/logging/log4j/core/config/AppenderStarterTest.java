@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.util.PropertiesUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link AppenderStarter}.
+ */
+public class AppenderStarterTest {
+
+    private final Map<String, Appender> appenders = new LinkedHashMap<>();
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(Constants.APPENDER_START_TIMEOUT_MILLIS);
+        PropertiesUtil.getProperties().reload();
+    }
+
+    private TestAppender add(final String name, final long startMillis) {
+        final TestAppender appender = new TestAppender(name, startMillis);
+        appenders.put(name, appender);
+        return appender;
+    }
+
+    @Test
+    public void testAppendersStartInParallel() {
+        for (int i = 0; i < 4; i++) {
+            add("Appender" + i, 500);
+        }
+        final long start = System.nanoTime();
+        AppenderStarter.start(appenders, null, 4);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500, "Appenders started sequentially");
+        for (final Appender appender : appenders.values()) {
+            assertTrue(appender.isStarted());
+        }
+    }
+
+    @Test
+    public void testAppenderStartsAfterItsDependencies() {
+        final TestAppender async = add("Async", 0);
+        final TestAppender file = add("File", 300);
+        async.dependency = file;
+        AppenderStarter.start(appenders, Collections.singletonMap("Async", Collections.singleton("File")), 2);
+        assertTrue(async.isStarted());
+        assertTrue(async.dependencyStarted, "Appender started before its dependency");
+    }
+
+    @Test
+    public void testFailedAppenderOnlyDisablesItself() {
+        final TestAppender failing = add("Failing", 0);
+        failing.failure = new IllegalStateException("Connection refused");
+        add("File", 0);
+        AppenderStarter.start(appenders, null, 2);
+        assertFalse(failing.isStarted());
+        assertTrue(appenders.get("File").isStarted());
+    }
+
+    @Test
+    public void testStartIsBoundedByDeadline() {
+        System.setProperty(Constants.APPENDER_START_TIMEOUT_MILLIS, "200");
+        PropertiesUtil.getProperties().reload();
+        final TestAppender slow = add("Slow", 5000);
+        add("File", 0);
+        final long start = System.nanoTime();
+        AppenderStarter.start(appenders, null, 2);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000, "Deadline not enforced");
+        assertFalse(slow.isStarted());
+        assertTrue(appenders.get("File").isStarted());
+    }
+
+    @Test
+    public void testLateAppenderStartsItsDependents() throws InterruptedException {
+        System.setProperty(Constants.APPENDER_START_TIMEOUT_MILLIS, "100");
+        PropertiesUtil.getProperties().reload();
+        final TestAppender slow = add("Slow", 500);
+        final TestAppender dependent = add("Dependent", 0);
+        AppenderStarter.start(appenders, Collections.singletonMap("Dependent", Collections.singleton("Slow")), 2);
+        assertFalse(slow.isStarted());
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!dependent.isStarted() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(slow.isStarted());
+        assertTrue(dependent.isStarted(), "Dependent of a late appender not started");
+    }
+
+    @Test
+    public void testStopWaitsForLateAppendersAndCancelsTheOthers() {
+        System.setProperty(Constants.APPENDER_START_TIMEOUT_MILLIS, "100");
+        PropertiesUtil.getProperties().reload();
+        final TestAppender slow = add("Slow", 500);
+        final TestAppender dependent = add("Dependent", 0);
+        final AppenderStarter starter = AppenderStarter.start(appenders,
+                Collections.singletonMap("Dependent", Collections.singleton("Slow")), 2);
+        assertFalse(slow.isStarted());
+        assertTrue(starter.stop(5, TimeUnit.SECONDS));
+        assertTrue(slow.isStarted());
+        assertFalse(dependent.isStarted(), "Start not cancelled");
+    }
+
+    @Test
+    public void testDependenciesAreFoundInNodes() {
+        final Node appendersNode = new Node(null, "Appenders", null);
+        final Node async = new Node(appendersNode, "Async", null);
+        async.getAttributes().put("name", "Async");
+        final Node ref = new Node(async, "AppenderRef", null);
+        ref.getAttributes().put("ref", "File");
+        async.getChildren().add(ref);
+        final Node failover = new Node(appendersNode, "Failover", null);
+        failover.getAttributes().put("name", "Failover");
+        failover.getAttributes().put("primary", "Async");
+        appendersNode.getChildren().add(async);
+        appendersNode.getChildren().add(failover);
+        final Map<String, Set<String>> dependencies =
+                AppenderStarter.findDependencies(appendersNode, new StrSubstitutor());
+        assertTrue(dependencies.get("Async").contains("File"));
+        assertTrue(dependencies.get("Failover").contains("Async"));
+    }
+
+    private static class TestAppender extends AbstractAppender {
+
+        private final long startMillis;
+        private RuntimeException failure;
+        private Appender dependency;
+        private volatile boolean dependencyStarted;
+
+        TestAppender(final String name, final long startMillis) {
+            super(name, null, null, true, null);
+            this.startMillis = startMillis;
+        }
+
+        @Override
+        public void start() {
+            dependencyStarted = dependency != null && dependency.isStarted();
+            try {
+                Thread.sleep(startMillis);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            super.start();
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+        }
+    }
+}
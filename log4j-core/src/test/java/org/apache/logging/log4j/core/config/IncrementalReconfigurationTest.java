@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.util.Constants;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link AbstractConfiguration#applyIncrementally(AbstractConfiguration)}.
+ */
+public class IncrementalReconfigurationTest {
+
+    private static final String CONFIG = "<Configuration name=\"IncrementalReconfigurationTest\" status=\"OFF\">\n"
+            + "  <Appenders>\n"
+            + "    <File name=\"First\" fileName=\"%1$s/first.log\">\n"
+            + "      <PatternLayout pattern=\"first %%m%%n\"/>\n"
+            + "    </File>\n"
+            + "    <File name=\"Second\" fileName=\"%1$s/second.log\">\n"
+            + "      <PatternLayout pattern=\"%2$s %%m%%n\"/>\n"
+            + "    </File>\n"
+            + "%5$s"
+            + "  </Appenders>\n"
+            + "  <Loggers>\n"
+            + "    <Logger name=\"first\" level=\"%3$s\" additivity=\"false\">\n"
+            + "      <AppenderRef ref=\"First\"/>\n"
+            + "    </Logger>\n"
+            + "    <Logger name=\"second\" level=\"INFO\" additivity=\"false\">\n"
+            + "      <AppenderRef ref=\"Second\"/>\n"
+            + "    </Logger>\n"
+            + "    <Root level=\"ERROR\">\n"
+            + "      <AppenderRef ref=\"First\"/>\n"
+            + "    </Root>\n"
+            + "  </Loggers>\n"
+            + "%4$s"
+            + "</Configuration>\n";
+
+    @TempDir
+    File tempDir;
+
+    private File configFile;
+    private LoggerContext context;
+
+    @BeforeAll
+    public static void enableIncrementalReconfiguration() {
+        System.setProperty(Constants.INCREMENTAL_RECONFIGURATION, "true");
+    }
+
+    @AfterAll
+    public static void disableIncrementalReconfiguration() {
+        System.clearProperty(Constants.INCREMENTAL_RECONFIGURATION);
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        configFile = new File(tempDir, "log4j2.xml");
+        writeConfig("second", "INFO", "");
+        context = new LoggerContext("IncrementalReconfigurationTest", null, configFile.toURI());
+        context.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.stop();
+    }
+
+    private void writeConfig(final String secondPattern, final String firstLevel, final String extra)
+            throws IOException {
+        writeConfig(secondPattern, firstLevel, extra, "");
+    }
+
+    private void writeConfig(final String secondPattern, final String firstLevel, final String extra,
+            final String extraAppenders) throws IOException {
+        final String config = String.format(CONFIG, tempDir.getAbsolutePath(), secondPattern, firstLevel, extra,
+                extraAppenders);
+        Files.write(configFile.toPath(), config.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void reconfigure() {
+        context.onChange((Reconfigurable) context.getConfiguration());
+    }
+
+    @Test
+    public void testLevelChangeIsAppliedInPlace() throws IOException {
+        final Configuration config = context.getConfiguration();
+        final LoggerConfig loggerConfig = config.getLoggerConfig("first");
+        final Appender first = config.getAppender("First");
+        assertFalse(context.getLogger("first").isDebugEnabled());
+
+        writeConfig("second", "DEBUG", "");
+        reconfigure();
+
+        assertSame(config, context.getConfiguration());
+        assertSame(loggerConfig, config.getLoggerConfig("first"));
+        assertSame(first, config.getAppender("First"));
+        assertEquals(Level.DEBUG, loggerConfig.getLevel());
+        assertTrue(context.getLogger("first").isDebugEnabled());
+    }
+
+    @Test
+    public void testOnlyChangedAppenderIsRebuilt() throws IOException {
+        final Configuration config = context.getConfiguration();
+        final Appender first = config.getAppender("First");
+        final Appender second = config.getAppender("Second");
+        final LoggerConfig firstLogger = config.getLoggerConfig("first");
+        final LoggerConfig secondLogger = config.getLoggerConfig("second");
+
+        writeConfig("modified", "INFO", "");
+        reconfigure();
+
+        assertSame(config, context.getConfiguration());
+        assertSame(first, config.getAppender("First"));
+        assertTrue(first.isStarted());
+        assertSame(firstLogger, config.getLoggerConfig("first"));
+        final Appender modified = config.getAppender("Second");
+        assertNotSame(second, modified);
+        assertTrue(modified.isStarted());
+        assertTrue(second.isStopped());
+        final LoggerConfig modifiedLogger = config.getLoggerConfig("second");
+        assertNotSame(secondLogger, modifiedLogger);
+        assertSame(modified, modifiedLogger.getAppenders().get("Second"));
+
+        context.getLogger("second").info("message");
+        final Path log = new File(tempDir, "second.log").toPath();
+        assertEquals("modified message", Files.readAllLines(log, StandardCharsets.UTF_8).get(0));
+    }
+
+    @Test
+    public void testAppenderReferencingChangedAppenderByAnyAttributeIsRebuilt() throws IOException {
+        final String failover = "    <Failover name=\"Failover\" primary=\"Second\">\n"
+                + "      <Failovers>\n        <AppenderRef ref=\"First\"/>\n      </Failovers>\n"
+                + "    </Failover>\n";
+        writeConfig("second", "INFO", "", failover);
+        reconfigure();
+        final Configuration config = context.getConfiguration();
+        final Appender first = config.getAppender("First");
+        final Appender failoverAppender = config.getAppender("Failover");
+        assertNotNull(failoverAppender);
+
+        writeConfig("modified", "INFO", "", failover);
+        reconfigure();
+
+        assertSame(config, context.getConfiguration());
+        assertSame(first, config.getAppender("First"));
+        final Appender modified = config.getAppender("Failover");
+        assertNotSame(failoverAppender, modified);
+        assertTrue(modified.isStarted());
+        assertTrue(failoverAppender.isStopped());
+    }
+
+    @Test
+    public void testOtherChangesFallBackToFullReconfiguration() throws IOException {
+        final Configuration config = context.getConfiguration();
+
+        writeConfig("second", "INFO", "  <CustomLevels>\n    <CustomLevel name=\"NOTICE\" intLevel=\"450\"/>\n"
+                + "  </CustomLevels>\n");
+        reconfigure();
+
+        assertNotSame(config, context.getConfiguration());
+        assertTrue(config.isStopped());
+        assertNotNull(context.getConfiguration().getAppender("First"));
+    }
+}
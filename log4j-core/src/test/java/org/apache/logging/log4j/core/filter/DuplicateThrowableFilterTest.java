@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for <code>DuplicateThrowableFilter</code>.
+ */
+@LoggerContextSource("log4j-duplicate-throwable.xml")
+public class DuplicateThrowableFilterTest {
+
+    private final ListAppender app;
+    private final DuplicateThrowableFilter filter;
+    private final Logger logger;
+
+    public DuplicateThrowableFilterTest(final LoggerContext context, @Named("ListAppender") final ListAppender app) {
+        this.app = app;
+        this.filter = (DuplicateThrowableFilter) app.getFilter();
+        assertNotNull(filter);
+        this.logger = context.getLogger(getClass());
+    }
+
+    @Test
+    public void testSuppressesDuplicatesAndEmitsSummary() {
+        app.clear();
+        for (int i = 0; i < 10; i++) {
+            logger.error("Failure #" + i, createException("same"));
+        }
+        logger.error("Different failure", new IllegalStateException());
+        logger.info("No throwable");
+        List<String> msgs = app.getMessages();
+        assertEquals(5, msgs.size(), "Incorrect message count " + msgs);
+        assertEquals(7, filter.getSuppressedCount());
+        app.clear();
+
+        filter.run();
+        msgs = app.getMessages();
+        assertEquals(1, msgs.size(), "Incorrect message count " + msgs);
+        assertTrue(msgs.get(0).contains("Suppressed 7 duplicate occurrences of java.lang.IllegalArgumentException"),
+                msgs.get(0));
+        assertEquals(0, filter.getSuppressedCount());
+    }
+
+    @Test
+    public void testParameterizedThrowable() {
+        app.clear();
+        for (int i = 0; i < 10; i++) {
+            logger.warn("Failure {}", i, createException("parameterized"));
+        }
+        assertEquals(3, app.getMessages().size());
+    }
+
+    @Test
+    public void testKeepsDistinctStackTracesApart() {
+        final DuplicateThrowableFilter smallFilter = DuplicateThrowableFilter.newBuilder().setMaxOccurrences(1)
+                .setMaxFingerprints(1).build();
+        final IllegalArgumentException first = createException("same");
+        final IllegalArgumentException second = createException("same");
+        assertSame(Result.NEUTRAL, smallFilter.filter(event(first)));
+        assertSame(Result.DENY, smallFilter.filter(event(first)));
+        // same type, different frames: not a duplicate, and the table is full so it is accepted
+        assertSame(Result.NEUTRAL, smallFilter.filter(event(second)));
+        assertSame(Result.NEUTRAL, smallFilter.filter(event(second)));
+        assertSame(Result.DENY, smallFilter.filter(event(first)));
+        assertEquals(2, smallFilter.getSuppressedCount());
+    }
+
+    private static LogEvent event(final Throwable thrown) {
+        return Log4jLogEvent.newBuilder().setLoggerName("test").setLevel(Level.ERROR).setThrown(thrown).build();
+    }
+
+    private static IllegalArgumentException createException(final String message) {
+        return new IllegalArgumentException(message);
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.filter;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -32,6 +33,7 @@ import org.apache.logging.log4j.core.test.junit.Named;
 import org.apache.logging.log4j.message.StringMapMessage;
 import org.apache.logging.log4j.core.test.appender.ListAppender;
 import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -88,4 +90,34 @@ public class MapFilterTest {
         assertNotNull(msgs, "No messages");
         assertFalse(msgs.isEmpty(), "No messages");
     }
+
+    @Test
+    public void testFilterWithManyPairs() {
+        final List<KeyValuePair> pairs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            pairs.add(new KeyValuePair("tenant", "Tenant" + i));
+            pairs.add(new KeyValuePair("key" + i, "value"));
+        }
+        final KeyValuePair[] array = pairs.toArray(new KeyValuePair[0]);
+        final MapFilter or = MapFilter.createFilter(array, "or", null, null);
+        final SortedArrayStringMap data = new SortedArrayStringMap();
+        data.putValue("tenant", "Tenant42");
+        assertTrue(or.filter(data));
+        data.putValue("tenant", "Tenant100");
+        assertFalse(or.filter(data));
+        data.putValue("key7", "value");
+        assertTrue(or.filter(data));
+
+        final MapFilter and = MapFilter.createFilter(array, "and", null, null);
+        assertFalse(and.filter(data));
+        final Map<String, String> map = new HashMap<>();
+        map.put("tenant", "Tenant7");
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, "value");
+        }
+        assertTrue(and.filter(map));
+        map.put("key99", "other");
+        assertFalse(and.filter(map));
+        assertTrue(or.filter(map));
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for <code>RateLimitFilter</code>.
+ */
+@LoggerContextSource("log4j-rate-limit.xml")
+public class RateLimitFilterTest {
+
+    private final ListAppender app;
+    private final RateLimitFilter filter;
+    private final Logger logger;
+
+    public RateLimitFilterTest(final LoggerContext context, @Named("ListAppender") final ListAppender app) {
+        this.app = app;
+        this.filter = (RateLimitFilter) app.getFilter();
+        assertNotNull(filter);
+        this.logger = context.getLogger(getClass());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadContext.clearMap();
+    }
+
+    @Test
+    public void testLimitsEachKeyAndEmitsSummary() {
+        app.clear();
+        for (final String tenant : new String[] {"noisy", "quiet"}) {
+            ThreadContext.put("tenant", tenant);
+            final int count = tenant.equals("noisy") ? 10 : 2;
+            for (int i = 0; i < count; i++) {
+                logger.info("Event #" + i);
+            }
+        }
+        ThreadContext.remove("tenant");
+        logger.info("No tenant");
+        ThreadContext.put("tenant", "noisy");
+        logger.error("Error");
+        List<String> msgs = app.getMessages();
+        assertEquals(7, msgs.size(), "Incorrect message count " + msgs);
+        assertEquals(7, filter.getDroppedCount("noisy"));
+        assertEquals(0, filter.getDroppedCount("quiet"));
+        app.clear();
+
+        filter.run();
+        msgs = app.getMessages();
+        assertEquals(1, msgs.size(), "Incorrect message count " + msgs);
+        assertTrue(msgs.get(0).contains("Rate limit exceeded for noisy, dropped 7 events"), msgs.get(0));
+        assertEquals(0, filter.getDroppedCount());
+    }
+
+    @Test
+    public void testLimitsByMarker() {
+        final RateLimitFilter markerFilter = RateLimitFilter.newBuilder().setKey(RateLimitFilter.Key.MARKER)
+                .setRate(1).setMaxBurst(2).build();
+        final LogEvent audit = Log4jLogEvent.newBuilder().setLoggerName("test").setLevel(Level.INFO)
+                .setMarker(MarkerManager.getMarker("AUDIT")).build();
+        final LogEvent metrics = Log4jLogEvent.newBuilder().setLoggerName("test").setLevel(Level.INFO)
+                .setMarker(MarkerManager.getMarker("METRICS")).build();
+        assertSame(Result.NEUTRAL, markerFilter.filter(audit));
+        assertSame(Result.NEUTRAL, markerFilter.filter(audit));
+        assertSame(Result.DENY, markerFilter.filter(audit));
+        assertSame(Result.NEUTRAL, markerFilter.filter(metrics));
+        assertEquals(1, markerFilter.getDroppedCount());
+    }
+
+    @Test
+    public void testNewKeysShareABucketWhenTableIsFull() {
+        final RateLimitFilter loggerFilter = RateLimitFilter.newBuilder().setRate(1).setMaxBurst(1).setMaxKeys(1)
+                .build();
+        for (int i = 0; i < 10; i++) {
+            loggerFilter.filter(Log4jLogEvent.newBuilder().setLoggerName("logger" + i).setLevel(Level.INFO).build());
+        }
+        assertEquals(8, loggerFilter.getDroppedCount());
+    }
+
+    @Test
+    public void testFindsKeyPastAReusableSlot() throws InterruptedException {
+        // "a" and "c" start probing at the same slot of a table of two
+        final RateLimitFilter loggerFilter = RateLimitFilter.newBuilder().setRate(1).setMaxBurst(1).setMaxKeys(2)
+                .build();
+        assertSame(Result.NEUTRAL, loggerFilter.filter(event("a")));
+        Thread.sleep(500);
+        assertSame(Result.NEUTRAL, loggerFilter.filter(event("c")));
+        assertSame(Result.DENY, loggerFilter.filter(event("c")));
+        // the bucket of "a" is full again and can be reused, the one of "c" is still empty
+        Thread.sleep(700);
+        assertSame(Result.DENY, loggerFilter.filter(event("c")));
+        assertEquals(2, loggerFilter.getDroppedCount("c"));
+    }
+
+    private static LogEvent event(final String loggerName) {
+        return Log4jLogEvent.newBuilder().setLoggerName(loggerName).setLevel(Level.INFO).build();
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.logging.log4j.core.Filter.Result;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.junit.jupiter.api.BeforeAll;
@@ -72,6 +73,19 @@ public class RegexFilterTest {
         assertThat(multiLineResult, equalTo(Result.DENY));
     }
 
+    @Test
+    public void testParameterizedMessage() throws Exception {
+        final RegexFilter filter = RegexFilter.createFilter(".* test .*", null, false, null, null);
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.DEBUG, null,
+                new ParameterizedMessage("This is a test message"), (Throwable) null));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.DEBUG, null,
+                new ParameterizedMessage("This is a {} message", "test"), (Throwable) null));
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null,
+                new ParameterizedMessage("This is a {} message", "real"), (Throwable) null));
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null,
+                new ParameterizedMessage("This is a message"), (Throwable) null));
+    }
+
     @Test
     public void testNoMsg() throws Exception {
         final RegexFilter filter = RegexFilter.createFilter(".* test .*", null, false, null, null);
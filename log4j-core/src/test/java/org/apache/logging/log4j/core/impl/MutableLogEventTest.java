@@ -29,6 +29,7 @@ import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterBuffer;
 import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.ReusableSimpleMessage;
@@ -186,6 +187,27 @@ public class MutableLogEventTest {
         assertArrayEquals(new Object[] {param}, memento.getParameters(), "parameters");
     }
 
+    @Test
+    public void testSetMessageKeepsParameterBuffer() {
+        final Message message = ReusableMessageFactory.INSTANCE.newMessage("{} and {}",
+                new ParameterBuffer().add(42L).add(true));
+        final MutableLogEvent mutable = new MutableLogEvent();
+        try {
+            mutable.setMessage(message);
+        } finally {
+            ReusableMessageFactory.release(message);
+        }
+        assertEquals("42 and true", mutable.getFormattedMessage(), "formatted");
+        assertEquals(2, mutable.getParameterCount(), "parameter count");
+        assertArrayEquals(new Object[] {42L, true}, mutable.getParameters(), "parameters");
+        assertArrayEquals(new Object[] {42L, true}, mutable.memento().getParameters(), "memento parameters");
+
+        final ParameterBuffer buffer = mutable.swapParameterBuffer(null);
+        assertNotNull(buffer, "buffer");
+        assertTrue(buffer.isPrimitive(0), "unboxed");
+        assertNull(mutable.swapParameterBuffer(buffer), "swapped buffer");
+    }
+
     @Test
     public void testClear() {
         final MutableLogEvent mutable = new MutableLogEvent();
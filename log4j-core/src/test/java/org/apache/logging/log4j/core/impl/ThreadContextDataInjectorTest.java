@@ -38,6 +38,7 @@ public class ThreadContextDataInjectorTest {
         return asList(new String[][] {
                 { "org.apache.logging.log4j.spi.CopyOnWriteSortedArrayThreadContextMap", "org.apache.logging.log4j.spi.CopyOnWriteSortedArrayThreadContextMap" },
                 { "org.apache.logging.log4j.spi.GarbageFreeSortedArrayThreadContextMap", "org.apache.logging.log4j.spi.GarbageFreeSortedArrayThreadContextMap" },
+                { "org.apache.logging.log4j.spi.CopyOnWriteHashTrieThreadContextMap", "org.apache.logging.log4j.spi.CopyOnWriteHashTrieThreadContextMap" },
                 { "org.apache.logging.log4j.spi.DefaultThreadContextMap", null }
         });
     }
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.parser.BinaryLogEventParser;
+import org.apache.logging.log4j.core.parser.ParseException;
+import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.spi.MutableThreadContextStack;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryLayoutTest {
+
+    private final BinaryLogEventParser parser = new BinaryLogEventParser();
+
+    private static LogEvent createEvent(final Level level) {
+        final Marker marker = MarkerManager.getMarker("BinaryLayoutTest.child")
+                .setParents(MarkerManager.getMarker("BinaryLayoutTest.parent"));
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("user", "jdoe");
+        contextData.putValue("loginId", "J.Doe@example.com");
+        contextData.putValue("nullValue", null);
+        final IOException cause = new IOException("disk full");
+        final IllegalStateException thrown = new IllegalStateException("save failed é😀", cause);
+        thrown.addSuppressed(new IllegalArgumentException("suppressed"));
+        final MutableInstant instant = new MutableInstant();
+        instant.initFromEpochMilli(1_600_000_000_123L, 456_789);
+        // @formatter:off
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("a.B")
+                .setLoggerFqcn("f.q.c.n")
+                .setLevel(level)
+                .setMarker(marker)
+                .setMessage(new ParameterizedMessage("Hello, {}! ü\n\"\\", "world"))
+                .setThrown(thrown)
+                .setContextData(contextData)
+                .setContextStack(new MutableThreadContextStack(Arrays.asList("one", null, "two")))
+                .setInstant(instant)
+                .setNanoTime(-42L)
+                .setThreadId(7L)
+                .setThreadName("main")
+                .setThreadPriority(5)
+                .setSource(new StackTraceElement("a.B", "run", "B.java", 12))
+                .setIncludeLocation(true)
+                .setEndOfBatch(true)
+                .build();
+        // @formatter:on
+    }
+
+    @Test
+    public void testRoundTrip() throws ParseException {
+        final LogEvent expected = createEvent(Level.WARN);
+        final BinaryLayout layout = BinaryLayout.newBuilder().setLocationInfo(true).build();
+        final LogEvent actual = parser.parseFrom(layout.toByteArray(expected));
+        assertEquals(expected.getLoggerName(), actual.getLoggerName());
+        assertEquals(expected.getLoggerFqcn(), actual.getLoggerFqcn());
+        assertSame(Level.WARN, actual.getLevel());
+        assertEquals(expected.getMarker(), actual.getMarker());
+        assertTrue(actual.getMarker().isInstanceOf("BinaryLayoutTest.parent"));
+        assertEquals(expected.getMessage().getFormattedMessage(), actual.getMessage().getFormattedMessage());
+        assertEquals(expected.getThrownProxy(), actual.getThrownProxy());
+        assertEquals(expected.getThrownProxy().getMessage(), actual.getThrownProxy().getMessage());
+        assertEquals(expected.getContextData(), actual.getContextData());
+        assertEquals(expected.getContextStack().asList(), actual.getContextStack().asList());
+        assertEquals(expected.getInstant(), actual.getInstant());
+        assertEquals(expected.getNanoTime(), actual.getNanoTime());
+        assertEquals(expected.getThreadId(), actual.getThreadId());
+        assertEquals(expected.getThreadName(), actual.getThreadName());
+        assertEquals(expected.getThreadPriority(), actual.getThreadPriority());
+        assertEquals(expected.getSource(), actual.getSource());
+        assertTrue(actual.isEndOfBatch());
+    }
+
+    @Test
+    public void testCustomLevel() throws ParseException {
+        final Level level = Level.forName("BINARY_LAYOUT_TEST", 350);
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        assertSame(level, parser.parseFrom(layout.toByteArray(createEvent(level))).getLevel());
+    }
+
+    @Test
+    public void testUnknownCustomLevelIsNotRegistered() {
+        final Level level = Level.forName("BINARY_LAYOUT_KNOWN", 360);
+        final byte[] bytes = BinaryLayout.newBuilder().build().toByteArray(createEvent(level));
+        final byte[] known = "BINARY_LAYOUT_KNOWN".getBytes();
+        final byte[] unknown = "BINARY_LAYOUT_OTHER".getBytes();
+        boolean replaced = false;
+        for (int i = 0; i + known.length <= bytes.length && !replaced; i++) {
+            if (Arrays.equals(known, Arrays.copyOfRange(bytes, i, i + known.length))) {
+                System.arraycopy(unknown, 0, bytes, i, unknown.length);
+                replaced = true;
+            }
+        }
+        assertTrue(replaced);
+        assertThrows(ParseException.class, () -> parser.parseFrom(bytes));
+        assertNull(Level.getLevel("BINARY_LAYOUT_OTHER"));
+    }
+
+    @Test
+    public void testExcludedFields() throws ParseException {
+        final LogEvent expected = createEvent(Level.INFO);
+        final BinaryLayout layout = BinaryLayout.newBuilder().setIncludeStacktrace(false).build();
+        final LogEvent actual = parser.parseFrom(layout.toByteArray(expected));
+        assertNull(actual.getSource());
+        assertEquals(expected.getThrownProxy().getName(), actual.getThrownProxy().getName());
+        assertEquals(0, actual.getThrownProxy().getExtendedStackTrace().length);
+        assertEquals(0, actual.getThrownProxy().getCauseProxy().getExtendedStackTrace().length);
+    }
+
+    @Test
+    public void testEncodeMatchesToByteArray() {
+        final LogEvent event = createEvent(Level.ERROR);
+        final BinaryLayout layout = BinaryLayout.newBuilder().setLocationInfo(true).build();
+        final byte[] expected = layout.toByteArray(event);
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(64, expected.length + 64);
+        layout.encode(event, destination);
+        destination.drain(destination.getByteBuffer());
+        assertArrayEquals(expected, Arrays.copyOf(destination.drained.array(), destination.drained.position()));
+    }
+
+    @Test
+    public void testRepeatedStringsAreReferenced() throws ParseException {
+        final Exception thrown = new Exception("repeated");
+        final StackTraceElement[] stackTrace = new StackTraceElement[10];
+        for (int i = 0; i < stackTrace.length; i++) {
+            stackTrace[i] = new StackTraceElement("com.example.Repeated", "call", "Repeated.java", i);
+        }
+        thrown.setStackTrace(stackTrace);
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("com.example.Repeated")
+                .setLevel(Level.INFO)
+                .setThrown(thrown)
+                .build();
+        final byte[] bytes = BinaryLayout.newBuilder().build().toByteArray(event);
+        assertEquals(1, count(bytes, "com.example.Repeated".getBytes()));
+        assertEquals(event.getThrownProxy(), parser.parseFrom(bytes).getThrownProxy());
+    }
+
+    @Test
+    public void testFraming() throws ParseException {
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        final byte[] first = layout.toByteArray(createEvent(Level.INFO));
+        final byte[] second = layout.toByteArray(createEvent(Level.DEBUG));
+        final byte[] stream = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, stream, first.length, second.length);
+        assertEquals(-1, BinaryLogEventParser.getFrameLength(stream, 0, 1));
+        assertEquals(first.length, BinaryLogEventParser.getFrameLength(stream, 0, stream.length));
+        assertEquals(second.length, BinaryLogEventParser.getFrameLength(stream, first.length, second.length));
+        assertSame(Level.DEBUG, parser.parseFrom(stream, first.length, second.length).getLevel());
+        assertThrows(ParseException.class, () -> parser.parseFrom(stream));
+        assertThrows(ParseException.class, () -> parser.parseFrom(first, 0, first.length - 1));
+        assertThrows(ParseException.class, () -> parser.parseFrom(new byte[] {'{', '}'}));
+    }
+
+    @Test
+    public void testMarkersAreNotRegistered() throws ParseException {
+        final Marker parent = new MarkerManager.Log4jMarker("BinaryLayoutTest.unregisteredParent");
+        final Marker marker = new MarkerManager.Log4jMarker("BinaryLayoutTest.unregistered").setParents(parent);
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.B")
+                .setLevel(Level.INFO)
+                .setMarker(marker)
+                .build();
+        final Marker actual = parser.parseFrom(BinaryLayout.newBuilder().build().toByteArray(event)).getMarker();
+        assertEquals(marker, actual);
+        assertEquals(parent, actual.getParents()[0]);
+        assertFalse(MarkerManager.exists("BinaryLayoutTest.unregistered"));
+        assertFalse(MarkerManager.exists("BinaryLayoutTest.unregisteredParent"));
+    }
+
+    @Test
+    public void testDeeplyNestedCausesAreRejected() {
+        Throwable thrown = new IllegalStateException("root");
+        for (int i = 0; i < 100; i++) {
+            thrown = new IllegalStateException("wrapper " + i, thrown);
+        }
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.B")
+                .setLevel(Level.ERROR)
+                .setThrown(thrown)
+                .build();
+        final byte[] bytes = BinaryLayout.newBuilder().setIncludeStacktrace(false).build().toByteArray(event);
+        assertThrows(ParseException.class, () -> parser.parseFrom(bytes));
+    }
+
+    private static int count(final byte[] bytes, final byte[] pattern) {
+        int count = 0;
+        for (int i = 0; i <= bytes.length - pattern.length; i++) {
+            if (Arrays.equals(bytes, i, i + pattern.length, pattern, 0, pattern.length)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
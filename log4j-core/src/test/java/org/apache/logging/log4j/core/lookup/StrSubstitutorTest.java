@@ -18,8 +18,11 @@ package org.apache.logging.log4j.core.lookup;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -74,4 +77,88 @@ public class StrSubstitutorTest {
         final String value = subst.replace("${sys:TestKey1:-${ctx:TestKey}}");
         assertEquals("TestValue", value);
     }
+
+    @Test
+    public void testCompiledTemplateMatchesSubstitution() {
+        final Map<String, String> map = new HashMap<>();
+        map.put(TESTKEY, TESTVAL);
+        map.put("name", TESTKEY);
+        map.put("nested", "<${TestKey}>");
+        map.put("dollar", "x$");
+        map.put("empty", "");
+        final StrSubstitutor subst = new StrSubstitutor(new Interpolator(new MapLookup(map)));
+        final LogEvent event = Log4jLogEvent.newBuilder().build();
+        final String[] sources = {
+            "", "plain", "${TestKey}", "a${TestKey}b${TestKey}c", "${BadKey}", "${BadKey:-x}", "${BadKey:-${TestKey}}",
+            "$${TestKey}", "$$${TestKey}", "a$${TestKey}${TestKey}", "${${name}}", "${${name}:-x}", "${nested}",
+            "${dollar}${TestKey}", "${empty}${TestKey}", "$${empty}${TestKey}", "${TestKey", "${sys:TestKey}",
+            "${sys:BadKey:-d}", "${ctx\\:-x}", "}${TestKey}}", "${a${b}c"
+        };
+        for (final String source : sources) {
+            final String expected = subst.replace(event, source, 0, source.length());
+            assertEquals(expected, subst.replace(event, source), source);
+            assertEquals(expected, subst.replace(event, source), source);
+        }
+    }
+
+    @Test
+    public void testInvariantValueIsCachedForEvents() {
+        final AtomicInteger count = new AtomicInteger();
+        final StrLookup lookup = new AbstractLookup() {
+            @Override
+            public String lookup(final LogEvent event, final String key) {
+                return "value" + count.incrementAndGet();
+            }
+
+            @Override
+            public boolean isInvariant(final String key) {
+                return true;
+            }
+        };
+        final StrSubstitutor subst = new StrSubstitutor(lookup);
+        final LogEvent event = Log4jLogEvent.newBuilder().build();
+        assertEquals("value1", subst.replace(event, "${key}"));
+        assertEquals("value1", subst.replace(event, "${key}"));
+        assertEquals("value2", subst.replace("${key}"));
+        subst.setVariableResolver(lookup);
+        assertEquals("value3", subst.replace(event, "${key}"));
+    }
+
+    @Test
+    public void testUnresolvedInvariantVariableIsNotCached() {
+        final StrLookup defaultLookup = new AbstractLookup() {
+            @Override
+            public String lookup(final LogEvent event, final String key) {
+                return event == null ? null : event.getLoggerName();
+            }
+        };
+        final StrSubstitutor subst = new StrSubstitutor(new Interpolator(defaultLookup));
+        final String source = "${sys:StrSubstitutorTest.unset}";
+        assertEquals("first", subst.replace(Log4jLogEvent.newBuilder().setLoggerName("first").build(), source));
+        assertEquals("second", subst.replace(Log4jLogEvent.newBuilder().setLoggerName("second").build(), source));
+        assertEquals(TESTVAL, subst.replace(Log4jLogEvent.newBuilder().setLoggerName("third").build(),
+                "${sys:" + TESTKEY + "}"));
+    }
+
+    @Test
+    public void testSubstitutionsWithoutEventAreNotCompiled() {
+        final AtomicInteger count = new AtomicInteger();
+        final StrSubstitutor subst = new StrSubstitutor(new AbstractLookup() {
+            @Override
+            public String lookup(final LogEvent event, final String key) {
+                return "value" + count.incrementAndGet();
+            }
+
+            @Override
+            public boolean isInvariant(final String key) {
+                return true;
+            }
+        });
+        for (int i = 0; i < 2000; i++) {
+            subst.replace("${key" + i + "}");
+        }
+        final LogEvent event = Log4jLogEvent.newBuilder().build();
+        final String value = subst.replace(event, "${key}");
+        assertEquals(value, subst.replace(event, "${key}"));
+    }
 }
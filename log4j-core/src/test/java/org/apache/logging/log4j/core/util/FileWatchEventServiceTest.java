@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link FileWatchEventService}.
+ */
+public class FileWatchEventServiceTest {
+
+    // Long enough for the test to fail if the manager polled the file.
+    private static final int INTERVAL_SECONDS = 60;
+
+    @TempDir
+    File tempDir;
+
+    private final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+    private ConfigurationScheduler scheduler;
+    private WatchManager watchManager;
+    private File file;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = new File(tempDir, "log4j2.xml");
+        Files.write(file.toPath(), "<Configuration/>".getBytes(StandardCharsets.UTF_8));
+        scheduler = new ConfigurationScheduler();
+        watchManager = new WatchManager(scheduler, FileWatchEventService.getInstance());
+        watchManager.setIntervalSeconds(INTERVAL_SECONDS);
+        watchManager.watchFile(file, queue::add);
+        scheduler.start();
+        watchManager.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        watchManager.stop();
+        scheduler.stop();
+    }
+
+    private void modify() throws Exception {
+        Files.write(file.toPath(), "<Configuration status=\"OFF\"/>".getBytes(StandardCharsets.UTF_8));
+        // Makes sure the modification time changes on file systems with a coarse resolution
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+    }
+
+    @Test
+    public void testModificationIsReportedWithoutPolling() throws Exception {
+        modify();
+        assertEquals(file, queue.poll(10, TimeUnit.SECONDS), "File change not detected");
+    }
+
+    @Test
+    public void testBurstOfModificationsIsReportedOnce() throws Exception {
+        modify();
+        modify();
+        modify();
+        assertNotNull(queue.poll(10, TimeUnit.SECONDS), "File change not detected");
+        assertNull(queue.poll(1, TimeUnit.SECONDS), "File change reported more than once");
+    }
+
+    @Test
+    public void testStoppedManagerIsNotNotified() throws Exception {
+        watchManager.stop();
+        modify();
+        assertNull(queue.poll(1, TimeUnit.SECONDS), "File change detected");
+    }
+}
@@ -41,6 +41,14 @@ public class JsonUtilsTest {
         assertEquals("\\\"x\\\"", output.toString());
     }
 
+    @Test
+    public void testQuoteMixedCharSequenceAsString() throws Exception
+    {
+        final StringBuilder output = new StringBuilder("prefix:");
+        JsonUtils.quoteAsString("\tat foo(Foo.java:1)\nbar \"baz\"\u0001\\", output);
+        assertEquals("prefix:\\tat foo(Foo.java:1)\\nbar \\\"baz\\\"\\u0001\\\\", output.toString());
+    }
+
     // For [JACKSON-853]
     @Test
     public void testQuoteLongCharSequenceAsString() throws Exception
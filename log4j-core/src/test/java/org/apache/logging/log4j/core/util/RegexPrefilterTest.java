@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link RegexPrefilter}.
+ */
+public class RegexPrefilterTest {
+
+    private static List<String> literals(final String regex) {
+        final RegexPrefilter prefilter = RegexPrefilter.create(Pattern.compile(regex));
+        return prefilter == null ? null : prefilter.getLiterals();
+    }
+
+    @Test
+    public void testRequiredLiterals() {
+        assertEquals(Collections.singletonList(" test "), literals(".* test .*"));
+        assertEquals(Collections.singletonList("Connection refused: "), literals("^.*Connection refused: \\d+$"));
+        assertEquals(Arrays.asList("ERROR", "FATAL"), literals("ERROR|FATAL"));
+        assertEquals(Collections.singletonList(" timeout after "), literals("(read|write) timeout after \\d+ms"));
+        assertEquals(Collections.singletonList("user.name="), literals("\\Quser.name\\E=[a-z]+"));
+        assertEquals(Collections.singletonList("password="), literals("password=\\S*"));
+        assertEquals(Collections.singletonList("a.b"), literals("a\\.b"));
+        assertEquals(Collections.singletonList("colo"), literals("colou?r"));
+        assertEquals(Collections.singletonList("ab"), literals("ab+c"));
+        assertEquals(Collections.singletonList("card"), literals("card(?: number)?:? ?\\d{4}"));
+        assertEquals(Collections.singletonList("\n\tat "), literals("\n\\tat .*"));
+        assertEquals(Collections.singletonList("ERR"), literals("ERROR|ERR"));
+    }
+
+    @Test
+    public void testNoLiterals() {
+        assertNull(literals(".*"));
+        assertNull(literals("\\d+"));
+        assertNull(literals("(foo|bar)"));
+        assertNull(literals("foo|.*"));
+        assertNull(literals("a?b*"));
+        assertNull(literals("x{0,3}"));
+        assertNull(literals("(?i)error"));
+        assertNull(literals("(\\w)\\1"));
+        assertNull(literals("\\p{Upper}"));
+        assertNull(RegexPrefilter.create(Pattern.compile("error", Pattern.CASE_INSENSITIVE)));
+        assertNull(RegexPrefilter.create(Pattern.compile("error # comment", Pattern.COMMENTS)));
+    }
+
+    @Test
+    public void testLiteralPattern() {
+        final RegexPrefilter prefilter = RegexPrefilter.create(Pattern.compile(".*", Pattern.LITERAL));
+        assertNotNull(prefilter);
+        assertTrue(prefilter.mayMatch("match .* only"));
+        assertFalse(prefilter.mayMatch("anything"));
+    }
+
+    @Test
+    public void testMayMatch() {
+        final RegexPrefilter prefilter = RegexPrefilter.create(Pattern.compile("ERROR|FATAL"));
+        assertTrue(prefilter.mayMatch("an ERROR"));
+        assertTrue(prefilter.mayMatch(new StringBuilder("a FATAL error")));
+        assertFalse(prefilter.mayMatch("an error"));
+        assertFalse(prefilter.mayMatch(new StringBuilder("a fatal error")));
+    }
+
+    @Test
+    public void testNeverRejectsMatches() {
+        final String[] regexes = {"ab+c", "a(b|c)d", "ab?c|ba", "[ab]c{2,}a", "a.c", "c\\.a|b{1}a", "(?:ab)*c",
+                "\\Qa|b\\E|cc", "^ab$", "a\\Bb", "ba{0}c"};
+        final Random random = new Random(42);
+        for (final String regex : regexes) {
+            final Pattern pattern = Pattern.compile(regex);
+            final RegexPrefilter prefilter = RegexPrefilter.create(pattern);
+            assertNotNull(prefilter, regex);
+            for (int i = 0; i < 2000; i++) {
+                final char[] text = new char[random.nextInt(8)];
+                for (int j = 0; j < text.length; j++) {
+                    text[j] = "abc.|".charAt(random.nextInt(5));
+                }
+                final String string = new String(text);
+                if (pattern.matcher(string).find()) {
+                    assertTrue(prefilter.mayMatch(string), regex + " matches " + string);
+                }
+            }
+        }
+    }
+}
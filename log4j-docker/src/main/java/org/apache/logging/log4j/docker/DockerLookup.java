@@ -122,4 +122,9 @@ public class DockerLookup extends AbstractLookup {
                 return null;
         }
     }
+
+    @Override
+    public boolean isInvariant(final String key) {
+        return true;
+    }
 }
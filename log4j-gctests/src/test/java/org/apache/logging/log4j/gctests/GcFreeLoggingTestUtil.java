@@ -72,9 +72,17 @@ public enum GcFreeLoggingTestUtil {;
         logger.error("Sample error message");
         logger.error("Test parameterized message {}", "param");
         logger.error(new StringMapMessage().with("eventId", "Login")); // initialize GelfLayout's messageStringBuilder
+        logger.error("Test parameterized message {}{}", "param", "param2"); // cache the parsed message patterns
+        logger.error("Test parameterized message {}{}{}", "param", "param2", "abc");
+        logger.atError().withMarker(test).log("Test fluent message {}{}", "param", "param2");
+        final String longPattern = createLongPattern();
+        logger.error(longPattern, "param"); // grow the buffers, long patterns are never cached
         for (int i = 0; i < 256; i++) {
             logger.debug("ensure all ringbuffer slots have been used once"); // allocate MutableLogEvent.messageText
         }
+        for (int i = 0; i < 256; i++) {
+            logger.atError().log("Test fluent primitives {}", i); // allocate the events' ParameterBuffers
+        }
         ThreadContext.remove("aKey");
         ThreadContext.remove("key2");
 
@@ -123,6 +131,11 @@ public enum GcFreeLoggingTestUtil {;
             logger.error("Test parameterized message {}{}", "param", "param2");
             logger.error("Test parameterized message {}{}{}", "param", "param2", "abc");
             logger.error(mapMessage); // LOG4J2-1683
+            logger.error(longPattern, "param");
+            logger.atError().withMarker(test).log("Test fluent message {}{}", "param", "param2");
+            logger.atError().log("Test fluent primitives {}", i);
+            logger.atError().log("Test fluent primitives {}", true);
+            logger.always().log("Test fluent primitives {}", (long) i);
             ThreadContext.remove("aKey");
             ThreadContext.put("aKey", "value1");
         }
@@ -188,6 +201,14 @@ public enum GcFreeLoggingTestUtil {;
 
     }
 
+    private static String createLongPattern() {
+        final StringBuilder pattern = new StringBuilder("Test long message {}");
+        while (pattern.length() <= 1024) {
+            pattern.append(" padding");
+        }
+        return pattern.toString();
+    }
+
     private static File agentJar() throws Exception {
         final String name = AllocationRecorder.class.getName();
         final URL url = AllocationRecorder.class.getResource("/" + name.replace('.', '/').concat(".class"));
@@ -232,6 +232,11 @@ public class KubernetesLookup extends AbstractLookup {
         }
     }
 
+    @Override
+    public boolean isInvariant(String key) {
+        return true;
+    }
+
     /**
      * For unit testing only.
      */
@@ -36,7 +36,9 @@ import org.apache.logging.log4j.layout.template.json.resolver.EventResolverInter
 import org.apache.logging.log4j.layout.template.json.resolver.EventResolverStringSubstitutor;
 import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolver;
 import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolvers;
+import org.apache.logging.log4j.layout.template.json.util.DummyRecyclerFactory;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.layout.template.json.util.OffHeapStringBuilderEncoder;
 import org.apache.logging.log4j.layout.template.json.util.Recycler;
 import org.apache.logging.log4j.layout.template.json.util.RecyclerFactory;
 import org.apache.logging.log4j.layout.template.json.util.Uris;
@@ -46,6 +48,7 @@ import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
 import org.apache.logging.log4j.util.Strings;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.List;
@@ -61,6 +64,11 @@ public class JsonTemplateLayout implements StringLayout {
     private static final Map<String, String> CONTENT_FORMAT =
             Collections.singletonMap("version", "1");
 
+    // Bounds the direct byte buffers a layout retains, whatever the number of
+    // threads, to the default capacity of queueing recyclers.
+    private static final int MAX_DIRECT_BYTE_BUFFER_COUNT =
+            Math.max(2 * Runtime.getRuntime().availableProcessors() + 1, 8);
+
     private final Charset charset;
 
     private final String contentType;
@@ -193,7 +201,7 @@ public class JsonTemplateLayout implements StringLayout {
             final Builder builder,
             final JsonWriter jsonWriter) {
         final Supplier<Context> supplier =
-                createContextSupplier(builder.charset, jsonWriter);
+                createContextSupplier(builder.charset, builder.recyclerFactory, jsonWriter);
         return builder
                 .recyclerFactory
                 .create(supplier, Context::close);
@@ -201,17 +209,46 @@ public class JsonTemplateLayout implements StringLayout {
 
     private static Supplier<Context> createContextSupplier(
             final Charset charset,
+            final RecyclerFactory recyclerFactory,
             final JsonWriter jsonWriter) {
+        final Recycler<ByteBuffer> byteBufferRecycler =
+                createByteBufferRecycler(charset, recyclerFactory);
         return () -> {
             final JsonWriter clonedJsonWriter = jsonWriter.clone();
-            final Encoder<StringBuilder> encoder = createStringBuilderEncoder(charset);
+            final Encoder<StringBuilder> encoder =
+                    createStringBuilderEncoder(charset, byteBufferRecycler);
             return new Context(clonedJsonWriter, encoder);
         };
     }
 
+    private static Recycler<ByteBuffer> createByteBufferRecycler(
+            final Charset charset,
+            final RecyclerFactory recyclerFactory) {
+        // A context, and hence its encoder, is exclusively owned by a single
+        // thread between acquire() and release(). Hence, unless contexts are
+        // not recycled at all, the encoder can own its char buffer rather
+        // than keeping it per thread, and borrow the byte buffer only while
+        // encoding from a pool shared by all threads, which retains a bounded
+        // number of direct buffers whatever the recycler of the contexts is.
+        if (!Constants.ENABLE_DIRECT_ENCODERS || recyclerFactory instanceof DummyRecyclerFactory) {
+            return null;
+        }
+        return OffHeapStringBuilderEncoder.createByteBufferRecycler(
+                charset,
+                Constants.ENCODER_BYTE_BUFFER_SIZE,
+                MAX_DIRECT_BYTE_BUFFER_COUNT);
+    }
+
     private static Encoder<StringBuilder> createStringBuilderEncoder(
-            final Charset charset) {
+            final Charset charset,
+            final Recycler<ByteBuffer> byteBufferRecycler) {
         if (Constants.ENABLE_DIRECT_ENCODERS) {
+            if (byteBufferRecycler != null) {
+                return new OffHeapStringBuilderEncoder(
+                        charset,
+                        Constants.ENCODER_CHAR_BUFFER_SIZE,
+                        byteBufferRecycler);
+            }
             return Constants.ENABLE_THREADLOCALS
                     ? new StringBuilderEncoder(charset)
                     : new LockingStringBuilderEncoder(charset);
@@ -24,6 +24,8 @@ import org.apache.logging.log4j.util.ReadOnlyStringMap;
 import org.apache.logging.log4j.util.TriConsumer;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -68,7 +70,10 @@ import java.util.regex.Pattern;
  * of type <tt>String</tt>.
  * <p>
  * <tt>pattern</tt> and <tt>replacement</tt> incur pattern matcher allocation
- * costs.
+ * costs only the first time a key is encountered. The outcome of matching,
+ * replacing, prefixing, and JSON-escaping a key is cached per resolver for up
+ * to {@value #MAX_CACHED_KEY_COUNT} distinct keys. Beyond that limit, keys are
+ * processed on every access.
  * <p>
  * Writing certain non-primitive values (e.g., <tt>BigDecimal</tt>,
  * <tt>Set</tt>, etc.) to JSON generates garbage, though most (e.g.,
@@ -168,6 +173,17 @@ import java.util.regex.Pattern;
  */
 class ReadOnlyStringMapResolver implements EventResolver {
 
+    /**
+     * Maximum number of distinct keys whose JSON output is cached by a
+     * <tt>multiAccess</tt> resolver.
+     */
+    static final int MAX_CACHED_KEY_COUNT = 1_000;
+
+    /**
+     * Cached JSON output of the keys that are not matched by the pattern.
+     */
+    private static final String EXCLUDED_KEY_JSON = "";
+
     private final EventResolver internalResolver;
 
     ReadOnlyStringMapResolver(
@@ -266,6 +282,9 @@ class ReadOnlyStringMapResolver implements EventResolver {
                         ? null
                         : Pattern.compile(pattern);
 
+        // Create the cache of keys rendered in JSON, shared by loop contexts.
+        final ConcurrentMap<String, String> keyJsonByKey = new ConcurrentHashMap<>();
+
         // Create the recycler for the loop context.
         final Recycler<LoopContext> loopContextRecycler =
                 recyclerFactory.create(() -> {
@@ -277,6 +296,7 @@ class ReadOnlyStringMapResolver implements EventResolver {
                     loopContext.pattern = compiledPattern;
                     loopContext.replacement = replacement;
                     loopContext.stringified = stringified;
+                    loopContext.keyJsonByKey = keyJsonByKey;
                     return loopContext;
                 });
 
@@ -356,6 +376,8 @@ class ReadOnlyStringMapResolver implements EventResolver {
 
         private boolean stringified;
 
+        private ConcurrentMap<String, String> keyJsonByKey;
+
         private JsonWriter jsonWriter;
 
         private int initJsonWriterStringBuilderLength;
@@ -373,35 +395,78 @@ class ReadOnlyStringMapResolver implements EventResolver {
                 final String key,
                 final Object value,
                 final LoopContext loopContext) {
-            final Matcher matcher = loopContext.pattern != null
-                    ? loopContext.pattern.matcher(key)
-                    : null;
-            final boolean keyMatched = matcher == null || matcher.matches();
-            if (keyMatched) {
-                final String replacedKey =
-                        matcher != null && loopContext.replacement != null
-                                ? matcher.replaceAll(loopContext.replacement)
-                                : key;
-                final boolean succeedingEntry =
-                        loopContext.succeedingEntry ||
-                                loopContext.initJsonWriterStringBuilderLength <
-                                        loopContext.jsonWriter.getStringBuilder().length();
-                if (succeedingEntry) {
-                    loopContext.jsonWriter.writeSeparator();
-                }
-                if (loopContext.prefix == null) {
-                    loopContext.jsonWriter.writeObjectKey(replacedKey);
-                } else {
-                    loopContext.prefixedKey.setLength(loopContext.prefix.length());
-                    loopContext.prefixedKey.append(replacedKey);
-                    loopContext.jsonWriter.writeObjectKey(loopContext.prefixedKey);
-                }
-                if (loopContext.stringified && !(value instanceof String)) {
-                    final String valueString = String.valueOf(value);
-                    loopContext.jsonWriter.writeString(valueString);
-                } else {
-                    loopContext.jsonWriter.writeValue(value);
-                }
+            final String keyJson = resolveKeyJson(key, loopContext);
+            if (keyJson == EXCLUDED_KEY_JSON) {
+                return;
+            }
+            final boolean succeedingEntry =
+                    loopContext.succeedingEntry ||
+                            loopContext.initJsonWriterStringBuilderLength <
+                                    loopContext.jsonWriter.getStringBuilder().length();
+            if (succeedingEntry) {
+                loopContext.jsonWriter.writeSeparator();
+            }
+            if (keyJson != null) {
+                loopContext.jsonWriter.writeRawString(keyJson);
+            } else {
+                writeKey(key, loopContext);
+            }
+            if (loopContext.stringified && !(value instanceof String)) {
+                final String valueString = String.valueOf(value);
+                loopContext.jsonWriter.writeString(valueString);
+            } else {
+                loopContext.jsonWriter.writeValue(value);
+            }
+        }
+
+        /**
+         * Resolves the JSON output of the given key, that is, the quoted and
+         * escaped object key followed by a colon.
+         *
+         * @return either the rendered key, {@link #EXCLUDED_KEY_JSON} if the
+         * key is not matched by the pattern, or <tt>null</tt> if the key cache
+         * is full and the key needs to be written by {@link #writeKey(String, LoopContext)}
+         */
+        private static String resolveKeyJson(
+                final String key,
+                final LoopContext loopContext) {
+            final String cachedKeyJson = loopContext.keyJsonByKey.get(key);
+            if (cachedKeyJson != null) {
+                return cachedKeyJson;
+            }
+            if (loopContext.keyJsonByKey.size() >= MAX_CACHED_KEY_COUNT) {
+                return matchKey(key, loopContext) ? null : EXCLUDED_KEY_JSON;
+            }
+            final String keyJson = matchKey(key, loopContext)
+                    ? loopContext.jsonWriter.use(() -> writeKey(key, loopContext))
+                    : EXCLUDED_KEY_JSON;
+            final String oldKeyJson = loopContext.keyJsonByKey.putIfAbsent(key, keyJson);
+            return oldKeyJson != null ? oldKeyJson : keyJson;
+        }
+
+        private static boolean matchKey(
+                final String key,
+                final LoopContext loopContext) {
+            return loopContext.pattern == null ||
+                    loopContext.pattern.matcher(key).matches();
+        }
+
+        private static void writeKey(
+                final String key,
+                final LoopContext loopContext) {
+            final String replacedKey;
+            if (loopContext.pattern != null && loopContext.replacement != null) {
+                final Matcher matcher = loopContext.pattern.matcher(key);
+                replacedKey = matcher.replaceAll(loopContext.replacement);
+            } else {
+                replacedKey = key;
+            }
+            if (loopContext.prefix == null) {
+                loopContext.jsonWriter.writeObjectKey(replacedKey);
+            } else {
+                loopContext.prefixedKey.setLength(loopContext.prefix.length());
+                loopContext.prefixedKey.append(replacedKey);
+                loopContext.jsonWriter.writeObjectKey(loopContext.prefixedKey);
             }
         }
 
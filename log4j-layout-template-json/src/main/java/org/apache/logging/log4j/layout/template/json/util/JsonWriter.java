@@ -596,25 +596,20 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
                         ? -1
                         : 0;
         final int limit = offset + length + surrogateCorrection;
-        int i = offset;
-        outer:
-        while (i < limit) {
-            while (true) {
-                final char c = seq.charAt(i);
-                if (c < ESC_CODES.length && ESC_CODES[c] != 0) {
-                    break;
-                }
-                stringBuilder.append(c);
-                if (++i >= limit) {
-                    break outer;
+        // Scan for characters to be escaped and bulk copy the runs in between.
+        int runStartIndex = offset;
+        for (int i = offset; i < limit; i++) {
+            final char c = seq.charAt(i);
+            if (c < ESC_CODES.length && ESC_CODES[c] != 0) {
+                if (runStartIndex < i) {
+                    stringBuilder.append(seq, runStartIndex, i);
                 }
+                quoteChar(c);
+                runStartIndex = i + 1;
             }
-            final char d = seq.charAt(i++);
-            final int escCode = ESC_CODES[d];
-            final int quoteBufferLength = escCode < 0
-                    ? quoteNumeric(d)
-                    : quoteNamed(escCode);
-            stringBuilder.append(quoteBuffer, 0, quoteBufferLength);
+        }
+        if (runStartIndex < limit) {
+            stringBuilder.append(seq, runStartIndex, limit);
         }
     }
 
@@ -673,26 +668,29 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
                         ? -1
                         : 0;
         final int limit = offset + length + surrogateCorrection;
-        int i = offset;
-        outer:
-        while (i < limit) {
-            while (true) {
-                final char c = buffer[i];
-                if (c < ESC_CODES.length && ESC_CODES[c] != 0) {
-                    break;
-                }
-                stringBuilder.append(c);
-                if (++i >= limit) {
-                    break outer;
+        // Scan for characters to be escaped and bulk copy the runs in between.
+        int runStartIndex = offset;
+        for (int i = offset; i < limit; i++) {
+            final char c = buffer[i];
+            if (c < ESC_CODES.length && ESC_CODES[c] != 0) {
+                if (runStartIndex < i) {
+                    stringBuilder.append(buffer, runStartIndex, i - runStartIndex);
                 }
+                quoteChar(c);
+                runStartIndex = i + 1;
             }
-            final char d = buffer[i++];
-            final int escCode = ESC_CODES[d];
-            final int quoteBufferLength = escCode < 0
-                    ? quoteNumeric(d)
-                    : quoteNamed(escCode);
-            stringBuilder.append(quoteBuffer, 0, quoteBufferLength);
         }
+        if (runStartIndex < limit) {
+            stringBuilder.append(buffer, runStartIndex, limit - runStartIndex);
+        }
+    }
+
+    private void quoteChar(final char c) {
+        final int escCode = ESC_CODES[c];
+        final int quoteBufferLength = escCode < 0
+                ? quoteNumeric(c)
+                : quoteNamed(escCode);
+        stringBuilder.append(quoteBuffer, 0, quoteBufferLength);
     }
 
     private int quoteNumeric(final int value) {
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.Encoder;
+import org.apache.logging.log4j.core.layout.StringBuilderEncoder;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link StringBuilder} encoder owning its {@link CharBuffer}, where the
+ * encoded bytes are staged in a {@link ByteBuffer} acquired from a shared
+ * pool for the duration of each {@link #encode(StringBuilder, ByteBufferDestination)}.
+ * <p>
+ * Unlike {@link StringBuilderEncoder}, this class neither employs
+ * thread-locals, nor locks. Hence, an instance must not be used by multiple
+ * threads concurrently, which holds for encoders bound to a value acquired
+ * from a {@link Recycler}. This way the retained encoding buffers scale with
+ * the number of recycled values rather than the number of threads that have
+ * used them.
+ * <p>
+ * The pool, see {@link #createByteBufferRecycler(Charset, int, int)}, is
+ * shared by all threads, whatever the recycler of the values is. It retains
+ * a bounded number of direct (i.e., off-heap) buffers, and hands out
+ * short-lived heap buffers while all of them are in use. Since byte buffers
+ * are only borrowed while encoding, neither values dropped by a full
+ * recycler, nor values kept per thread, retain a byte buffer.
+ * <p>
+ * Text longer than the internal buffers is encoded in chunks, hence buffers
+ * never grow beyond their initial capacity.
+ */
+public final class OffHeapStringBuilderEncoder implements Encoder<StringBuilder> {
+
+    private final Charset charset;
+
+    private final CharsetEncoder charsetEncoder;
+
+    private final CharBuffer charBuffer;
+
+    private final Recycler<ByteBuffer> byteBufferRecycler;
+
+    private ByteBuffer byteBuffer;
+
+    public OffHeapStringBuilderEncoder(
+            final Charset charset,
+            final int charBufferSize,
+            final Recycler<ByteBuffer> byteBufferRecycler) {
+        this.charset = Objects.requireNonNull(charset, "charset");
+        if (charBufferSize < 2) {
+            throw new IllegalArgumentException(
+                    "was expecting a charBufferSize of at least 2: " + charBufferSize);
+        }
+        this.byteBufferRecycler = Objects.requireNonNull(byteBufferRecycler, "byteBufferRecycler");
+        this.charsetEncoder = charset
+                .newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.charBuffer = CharBuffer.allocate(charBufferSize);
+    }
+
+    /**
+     * Creates the pool of byte buffers shared by encoders.
+     *
+     * @param charset the charset of the encoders
+     * @param byteBufferSize the capacity of each buffer
+     * @param maxDirectBufferCount the number of direct buffers to allocate and retain at most
+     * @return the recycler of byte buffers
+     */
+    public static Recycler<ByteBuffer> createByteBufferRecycler(
+            final Charset charset,
+            final int byteBufferSize,
+            final int maxDirectBufferCount) {
+        // Leave room for a surrogate pair.
+        final int minByteBufferSize = 2 * (int) Math.ceil(charset.newEncoder().maxBytesPerChar());
+        if (byteBufferSize < minByteBufferSize) {
+            throw new IllegalArgumentException(
+                    "was expecting a byteBufferSize of at least " + minByteBufferSize +
+                            ": " + byteBufferSize);
+        }
+        if (maxDirectBufferCount < 1) {
+            throw new IllegalArgumentException(
+                    "was expecting a maxDirectBufferCount of at least 1: " +
+                            maxDirectBufferCount);
+        }
+        return new DirectByteBufferRecycler(byteBufferSize, maxDirectBufferCount);
+    }
+
+    /**
+     * Pool of at most {@code maxDirectBufferCount} direct buffers. As the
+     * queue can hold all of them, a released direct buffer is never
+     * dropped, whereas heap buffers are never pooled.
+     */
+    private static final class DirectByteBufferRecycler implements Recycler<ByteBuffer> {
+
+        private final int byteBufferSize;
+
+        private final int maxDirectBufferCount;
+
+        private final AtomicInteger directBufferCount = new AtomicInteger();
+
+        private final Queue<ByteBuffer> queue;
+
+        private DirectByteBufferRecycler(
+                final int byteBufferSize,
+                final int maxDirectBufferCount) {
+            this.byteBufferSize = byteBufferSize;
+            this.maxDirectBufferCount = maxDirectBufferCount;
+            this.queue = new ArrayBlockingQueue<>(maxDirectBufferCount);
+        }
+
+        @Override
+        public ByteBuffer acquire() {
+            final ByteBuffer byteBuffer = queue.poll();
+            if (byteBuffer != null) {
+                return byteBuffer;
+            }
+            final int count = directBufferCount.getAndUpdate(
+                    current -> current < maxDirectBufferCount ? current + 1 : current);
+            return count < maxDirectBufferCount
+                    ? ByteBuffer.allocateDirect(byteBufferSize)
+                    : ByteBuffer.allocate(byteBufferSize);
+        }
+
+        @Override
+        public void release(final ByteBuffer byteBuffer) {
+            if (byteBuffer.isDirect()) {
+                byteBuffer.clear();
+                queue.offer(byteBuffer);
+            }
+        }
+
+    }
+
+    @Override
+    public void encode(
+            final StringBuilder source,
+            final ByteBufferDestination destination) {
+        byteBuffer = byteBufferRecycler.acquire();
+        try {
+            encodeChunks(source, destination);
+        } catch (final Exception error) {
+            StatusLogger.getLogger().error(
+                    "Recovering from OffHeapStringBuilderEncoder.encode('{}') error",
+                    source, error);
+            final byte[] bytes = source.toString().getBytes(charset);
+            destination.writeBytes(bytes, 0, bytes.length);
+        } finally {
+            byteBufferRecycler.release(byteBuffer);
+            byteBuffer = null;
+        }
+    }
+
+    private void encodeChunks(
+            final StringBuilder source,
+            final ByteBufferDestination destination)
+            throws CharacterCodingException {
+
+        // Reset the state.
+        charsetEncoder.reset();
+        charBuffer.clear();
+        byteBuffer.clear();
+
+        // Encode the source chunk by chunk. Characters left over by the
+        // encoder (e.g., a high surrogate at the end of a chunk) are carried
+        // over to the next chunk by compacting the buffer.
+        final int sourceLength = source.length();
+        int sourceOffset = 0;
+        boolean endOfInput;
+        do {
+            final int chunkLength = Math.min(charBuffer.remaining(), sourceLength - sourceOffset);
+            source.getChars(
+                    sourceOffset,
+                    sourceOffset + chunkLength,
+                    charBuffer.array(),
+                    charBuffer.arrayOffset() + charBuffer.position());
+            charBuffer.position(charBuffer.position() + chunkLength);
+            sourceOffset += chunkLength;
+            endOfInput = sourceOffset == sourceLength;
+            charBuffer.flip();
+            CoderResult result;
+            do {
+                result = charsetEncoder.encode(charBuffer, byteBuffer, endOfInput);
+                handleResult(result, destination);
+            } while (result.isOverflow());
+            charBuffer.compact();
+        } while (!endOfInput);
+
+        // Flush the encoder.
+        CoderResult result;
+        do {
+            result = charsetEncoder.flush(byteBuffer);
+            handleResult(result, destination);
+        } while (result.isOverflow());
+
+        // Write the remaining bytes.
+        drain(destination);
+
+    }
+
+    private void handleResult(
+            final CoderResult result,
+            final ByteBufferDestination destination)
+            throws CharacterCodingException {
+        if (result.isOverflow()) {
+            drain(destination);
+        } else if (result.isError()) {
+            result.throwException();
+        }
+    }
+
+    private void drain(final ByteBufferDestination destination) {
+        byteBuffer.flip();
+        if (byteBuffer.hasRemaining()) {
+            destination.writeBytes(byteBuffer);
+        }
+        byteBuffer.clear();
+    }
+
+}
@@ -125,6 +125,52 @@ class ReadOnlyStringMapResolverTest {
 
     }
 
+    @Test
+    void pattern_replacement_should_work_beyond_key_cache_capacity() {
+
+        // Create the event template.
+        final String eventTemplate = writeJson(asMap(
+                "ignoredFieldName", asMap(
+                        "$resolver", "mdc",
+                        "pattern", "user:(.*)",
+                        "replacement", "$1",
+                        "flatten", asMap("prefix", "_"))));
+
+        // Create the layout.
+        final JsonTemplateLayout layout = JsonTemplateLayout
+                .newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate)
+                .build();
+
+        // Check events with more distinct keys than the cache can hold.
+        final int keyCount = ReadOnlyStringMapResolver.MAX_CACHED_KEY_COUNT + 10;
+        for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+
+            // Create the log event.
+            final String key = "key\"" + keyIndex;
+            final StringMap contextData = new SortedArrayStringMap();
+            contextData.putValue("user:" + key, "value" + keyIndex);
+            contextData.putValue("user:role", "engineer");
+            contextData.putValue("other:" + key, "excluded");
+            final LogEvent logEvent = Log4jLogEvent
+                    .newBuilder()
+                    .setContextData(contextData)
+                    .build();
+
+            // Check the serialized event.
+            final int expectedKeyIndex = keyIndex;
+            usingSerializedLogEventAccessor(layout, logEvent, accessor -> {
+                assertThat(accessor.getString("_" + key)).isEqualTo("value" + expectedKeyIndex);
+                assertThat(accessor.getString("_role")).isEqualTo("engineer");
+                assertThat(accessor.exists("other:" + key)).isFalse();
+                assertThat(accessor.exists("_other:" + key)).isFalse();
+            });
+
+        }
+
+    }
+
     @Test
     void test_mdc_key_access() {
 
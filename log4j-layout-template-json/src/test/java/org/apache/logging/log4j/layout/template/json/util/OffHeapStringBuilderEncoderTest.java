@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+class OffHeapStringBuilderEncoderTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "UTF-8,2,6",
+            "UTF-8,3,7",
+            "UTF-8,2048,8192",
+            "UTF-16,2,8",
+            "ISO-8859-1,2,2"
+    })
+    void test_encode(
+            final String charsetName,
+            final int charBufferSize,
+            final int byteBufferSize) {
+
+        // Create the encoder.
+        final Charset charset = Charset.forName(charsetName);
+        final Recycler<ByteBuffer> byteBufferRecycler =
+                OffHeapStringBuilderEncoder.createByteBufferRecycler(
+                        charset, byteBufferSize, 1);
+        final OffHeapStringBuilderEncoder encoder =
+                new OffHeapStringBuilderEncoder(charset, charBufferSize, byteBufferRecycler);
+
+        // Create the source, mixing single-byte, multi-byte, and surrogate
+        // pair characters to cross buffer boundaries at various offsets.
+        final StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            source.append("foo").append('é').append("😀").append(i);
+        }
+
+        // Encode the source twice to verify the encoder is reusable.
+        for (int i = 0; i < 2; i++) {
+            final CapturingByteBufferDestination destination =
+                    new CapturingByteBufferDestination();
+            encoder.encode(source, destination);
+            final byte[] expectedBytes = source.toString().getBytes(charset);
+            Assertions
+                    .assertThat(destination.outputStream.toByteArray())
+                    .isEqualTo(expectedBytes);
+        }
+
+    }
+
+    @Test
+    void test_ctor_invalid_args() {
+        final Recycler<ByteBuffer> byteBufferRecycler =
+                OffHeapStringBuilderEncoder.createByteBufferRecycler(
+                        StandardCharsets.UTF_8, 8, 1);
+        Assertions
+                .assertThatThrownBy(() -> new OffHeapStringBuilderEncoder(
+                        StandardCharsets.UTF_8, 1, byteBufferRecycler))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions
+                .assertThatThrownBy(() -> OffHeapStringBuilderEncoder.createByteBufferRecycler(
+                        StandardCharsets.UTF_8, 5, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions
+                .assertThatThrownBy(() -> OffHeapStringBuilderEncoder.createByteBufferRecycler(
+                        StandardCharsets.UTF_8, 8, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void test_direct_buffers_are_bounded() {
+        final Recycler<ByteBuffer> byteBufferRecycler =
+                OffHeapStringBuilderEncoder.createByteBufferRecycler(
+                        StandardCharsets.UTF_8, 8, 2);
+        final ByteBuffer first = byteBufferRecycler.acquire();
+        final ByteBuffer second = byteBufferRecycler.acquire();
+        final ByteBuffer third = byteBufferRecycler.acquire();
+        Assertions.assertThat(first.isDirect()).isTrue();
+        Assertions.assertThat(second.isDirect()).isTrue();
+        Assertions.assertThat(third.isDirect()).isFalse();
+
+        // Direct buffers are pooled, heap buffers are not.
+        byteBufferRecycler.release(third);
+        byteBufferRecycler.release(second);
+        byteBufferRecycler.release(first);
+        Assertions.assertThat(byteBufferRecycler.acquire()).isSameAs(second);
+        Assertions.assertThat(byteBufferRecycler.acquire()).isSameAs(first);
+        Assertions.assertThat(byteBufferRecycler.acquire()).isNotSameAs(third);
+    }
+
+    @Test
+    void test_buffers_are_shared_by_threads() throws InterruptedException {
+
+        // Create an encoder per thread, as a thread-local recycler would.
+        final Recycler<ByteBuffer> byteBufferRecycler =
+                OffHeapStringBuilderEncoder.createByteBufferRecycler(
+                        StandardCharsets.UTF_8, 8, 2);
+        final Set<ByteBuffer> byteBuffers =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        final Recycler<ByteBuffer> trackingRecycler = new Recycler<ByteBuffer>() {
+
+            @Override
+            public ByteBuffer acquire() {
+                final ByteBuffer byteBuffer = byteBufferRecycler.acquire();
+                synchronized (byteBuffers) {
+                    byteBuffers.add(byteBuffer);
+                }
+                return byteBuffer;
+            }
+
+            @Override
+            public void release(final ByteBuffer byteBuffer) {
+                byteBufferRecycler.release(byteBuffer);
+            }
+
+        };
+
+        // Encode sequentially from many threads.
+        for (int i = 0; i < 100; i++) {
+            final Thread thread = new Thread(() -> new OffHeapStringBuilderEncoder(
+                    StandardCharsets.UTF_8, 4, trackingRecycler)
+                    .encode(new StringBuilder("foo"), new CapturingByteBufferDestination()));
+            thread.start();
+            thread.join();
+        }
+
+        // Verify that the threads have shared a single buffer.
+        Assertions.assertThat(byteBuffers).hasSize(1);
+
+    }
+
+    private static final class CapturingByteBufferDestination
+            implements ByteBufferDestination {
+
+        private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer byteBuffer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer byteBuffer) {
+            while (byteBuffer.hasRemaining()) {
+                outputStream.write(byteBuffer.get());
+            }
+        }
+
+        @Override
+        public void writeBytes(final byte[] buffer, final int offset, final int length) {
+            outputStream.write(buffer, offset, length);
+        }
+
+    }
+
+}
@@ -167,8 +167,26 @@ public class JsonTemplateLayoutBenchmark {
                 state.getByteBufferDestination());
     }
 
+    @Benchmark
+    public static int fullBinaryLayout(
+            final JsonTemplateLayoutBenchmarkState state) {
+        return benchmark(
+                state.getBinaryLayout(),
+                state.getFullLogEvents(),
+                state.getByteBufferDestination());
+    }
+
+    @Benchmark
+    public static int liteBinaryLayout(
+            final JsonTemplateLayoutBenchmarkState state) {
+        return benchmark(
+                state.getBinaryLayout(),
+                state.getLiteLogEvents(),
+                state.getByteBufferDestination());
+    }
+
     private static int benchmark(
-            final Layout<String> layout,
+            final Layout<?> layout,
             final List<LogEvent> logEvents,
             final ByteBufferDestination destination) {
         // noinspection ForLoopReplaceableByForEach (avoid iterator instantiation)
@@ -20,6 +20,7 @@ import co.elastic.logging.log4j2.EcsLayout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
 import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.layout.GelfLayout;
 import org.apache.logging.log4j.core.util.KeyValuePair;
@@ -57,6 +58,8 @@ public class JsonTemplateLayoutBenchmarkState {
 
     private final GelfLayout gelfLayout;
 
+    private final BinaryLayout binaryLayout;
+
     private final List<LogEvent> fullLogEvents;
 
     private final List<LogEvent> liteLogEvents;
@@ -70,6 +73,7 @@ public class JsonTemplateLayoutBenchmarkState {
         this.customJsonLayout = createCustomJsonLayout();
         this.ecsLayout = createEcsLayout();
         this.gelfLayout = createGelfLayout();
+        this.binaryLayout = createBinaryLayout();
         int logEventCount = 1_000;
         this.fullLogEvents = LogEventFixture.createFullLogEvents(logEventCount);
         this.liteLogEvents = LogEventFixture.createLiteLogEvents(logEventCount);
@@ -169,6 +173,13 @@ public class JsonTemplateLayoutBenchmarkState {
                 .build();
     }
 
+    private static BinaryLayout createBinaryLayout() {
+        return BinaryLayout
+                .newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .build();
+    }
+
     ByteBufferDestination getByteBufferDestination() {
         return byteBufferDestination;
     }
@@ -201,6 +212,10 @@ public class JsonTemplateLayoutBenchmarkState {
         return gelfLayout;
     }
 
+    BinaryLayout getBinaryLayout() {
+        return binaryLayout;
+    }
+
     List<LogEvent> getFullLogEvents() {
         return fullLogEvents;
     }
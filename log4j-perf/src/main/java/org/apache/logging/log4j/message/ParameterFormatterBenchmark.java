@@ -107,40 +107,40 @@ public class ParameterFormatterBenchmark {
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
-    public int latency3ParamsV2(final ThreadState state) {
+    public int latency3ParamsTemplate(final ThreadState state) {
         state.buffer.setLength(0);
-        final int count = ParameterFormatter.countArgumentPlaceholders2("p1={}, p2={}, p3={}", state.indices);
-        ParameterFormatter.formatMessage2(state.buffer, "p1={}, p2={}, p3={}", ARGS, count, state.indices);
+        final ParameterFormatter.PatternTemplate template = ParameterFormatter.template("p1={}, p2={}, p3={}");
+        template.format(state.buffer, ARGS, template.getPlaceholderCount());
         return state.buffer.length();
     }
 
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
-    public int latency5ParamsV2(final ThreadState state) {
+    public int latency5ParamsTemplate(final ThreadState state) {
         state.buffer.setLength(0);
-        final int count = ParameterFormatter.countArgumentPlaceholders2("p1={}, p2={}, p3={}, p4={}, p5={}", state.indices);
-        ParameterFormatter.formatMessage2(state.buffer, "p1={}, p2={}, p3={}, p4={}, p5={}", ARGS, count, state.indices);
+        final ParameterFormatter.PatternTemplate template = ParameterFormatter.template("p1={}, p2={}, p3={}, p4={}, p5={}");
+        template.format(state.buffer, ARGS, template.getPlaceholderCount());
         return state.buffer.length();
     }
 
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
-    public int latency7ParamsV2(final ThreadState state) {
+    public int latency7ParamsTemplate(final ThreadState state) {
         state.buffer.setLength(0);
-        final int count = ParameterFormatter.countArgumentPlaceholders2("p1={}, p2={}, p3={}, p4={}, p5={}, p6={}, p7={}", state.indices);
-        ParameterFormatter.formatMessage2(state.buffer, "p1={}, p2={}, p3={}, p4={}, p5={}, p6={}, p7={}", ARGS, count, state.indices);
+        final ParameterFormatter.PatternTemplate template = ParameterFormatter.template("p1={}, p2={}, p3={}, p4={}, p5={}, p6={}, p7={}");
+        template.format(state.buffer, ARGS, template.getPlaceholderCount());
         return state.buffer.length();
     }
 
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
-    public int latency9ParamsV2(final ThreadState state) {
+    public int latency9ParamsTemplate(final ThreadState state) {
         state.buffer.setLength(0);
-        final int count = ParameterFormatter.countArgumentPlaceholders2("p1={}, p2={}, p3={}, p4={}, p5={}, p6={}, p7={}, p8={}, p9={}", state.indices);
-        ParameterFormatter.formatMessage2(state.buffer, "p1={}, p2={}, p3={}, p4={}, p5={}, p6={}, p7={}, p8={}, p9={}", ARGS, count, state.indices);
+        final ParameterFormatter.PatternTemplate template = ParameterFormatter.template("p1={}, p2={}, p3={}, p4={}, p5={}, p6={}, p7={}, p8={}, p9={}");
+        template.format(state.buffer, ARGS, template.getPlaceholderCount());
         return state.buffer.length();
     }
 
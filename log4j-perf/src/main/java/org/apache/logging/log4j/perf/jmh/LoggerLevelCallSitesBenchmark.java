@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the cost of disabled debug statements on a {@code static final} Logger with and without
+ * {@code log4j2.loggerLevelCallSites}.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*LoggerLevelCallSitesBenchmark.*" -i 5 -wi 5 -tu ns -bm avgt
+@State(Scope.Thread)
+public class LoggerLevelCallSitesBenchmark {
+
+    private static final String CALL_SITES = "-Dlog4j2.loggerLevelCallSites=true";
+    private static final String UNLOCK_EXPERIMENTAL = "-XX:+UnlockExperimentalVMOptions";
+    private static final String TRUST_FINAL_FIELDS = "-XX:+TrustFinalNonStaticFields";
+
+    static {
+        System.setProperty("log4j.configurationFile", "log4j2-perf2.xml");
+    }
+
+    private static final Logger LOGGER = LogManager.getLogger(LoggerLevelCallSitesBenchmark.class);
+
+    private final Integer param = 2;
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {UNLOCK_EXPERIMENTAL, TRUST_FINAL_FIELDS})
+    public void debugDisabled() {
+        LOGGER.debug("This is a debug [{}] message", param);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {CALL_SITES, UNLOCK_EXPERIMENTAL, TRUST_FINAL_FIELDS})
+    public void debugDisabledCallSites() {
+        LOGGER.debug("This is a debug [{}] message", param);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = CALL_SITES)
+    public void debugDisabledCallSitesUntrustedFinalFields() {
+        LOGGER.debug("This is a debug [{}] message", param);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {UNLOCK_EXPERIMENTAL, TRUST_FINAL_FIELDS})
+    public boolean isDebugEnabled() {
+        return LOGGER.isDebugEnabled();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {CALL_SITES, UNLOCK_EXPERIMENTAL, TRUST_FINAL_FIELDS})
+    public boolean isDebugEnabledCallSites() {
+        return LOGGER.isDebugEnabled();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.message.StringFormatterMessageFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the cost of looking up existing loggers in a {@link LoggerContext}, i.e. the cost of
+ * {@code LogManager.getLogger(String)} once the logger was created.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+// (Quick build: mvn -DskipTests=true clean package -pl log4j-perf -am )
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*LoggerRegistryBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+public class LoggerRegistryBenchmark {
+
+    private static final int LOGGER_COUNT = 1024;
+
+    private LoggerContext context;
+    private String[] names;
+
+    @State(Scope.Thread)
+    public static class Counter {
+        int index;
+
+        String next(final String[] names) {
+            return names[index++ & (LOGGER_COUNT - 1)];
+        }
+    }
+
+    @Setup
+    public void setup() {
+        context = (LoggerContext) LogManager.getContext(false);
+        names = new String[LOGGER_COUNT];
+        for (int i = 0; i < LOGGER_COUNT; i++) {
+            names[i] = "org.example.service" + (i % 16) + ".Component" + i;
+            context.getLogger(names[i]);
+            context.getLogger(names[i], StringFormatterMessageFactory.INSTANCE);
+        }
+    }
+
+    @Benchmark
+    public Logger getLogger(final Counter counter) {
+        return context.getLogger(counter.next(names));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Logger getLoggerContended(final Counter counter) {
+        return context.getLogger(counter.next(names));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Logger getLoggerWithMessageFactoryContended(final Counter counter) {
+        return context.getLogger(counter.next(names), StringFormatterMessageFactory.INSTANCE);
+    }
+}
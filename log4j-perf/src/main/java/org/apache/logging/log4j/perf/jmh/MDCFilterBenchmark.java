@@ -49,6 +49,10 @@ public class MDCFilterBenchmark {
     @Param({"0", "4"})
     public int size;
 
+    // the second configuration filters on 65 values of 3 keys, the tenant of the ThreadContext matching none
+    @Param({"log4j2-threadContextFilter-perf.xml", "log4j2-threadContextFilter-rules-perf.xml"})
+    public String log4jConfiguration;
+
     static int staticSize;
 
     @State(Scope.Thread)
@@ -59,6 +63,7 @@ public class MDCFilterBenchmark {
                 ThreadContext.put("user" + i, "Apache");
                 MDC.put("user" + i, "Apache");
             }
+            ThreadContext.put("tenant", "Tenant99");
         }
 
         public String message() {
@@ -68,7 +73,7 @@ public class MDCFilterBenchmark {
 
     @Setup
     public void setUp() {
-        System.setProperty("log4j.configurationFile", "log4j2-threadContextFilter-perf.xml");
+        System.setProperty("log4j.configurationFile", log4jConfiguration);
         System.setProperty("logback.configurationFile", "logback-mdcFilter-perf.xml");
 
         log4jLogger = LogManager.getLogger(MDCFilterBenchmark.class);
@@ -19,7 +19,10 @@ package org.apache.logging.log4j.perf.jmh;
 
 import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
@@ -74,4 +77,26 @@ public class ParameterizedMessageBenchmark {
                 formatTo(state.buffer);
         return state.buffer.length();
     }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int refactoredFormatToWithEscape(final ThreadState state) {
+        state.buffer.setLength(0);
+        new ParameterizedMessage("pattern {} with \\{} escaped {} parameters and some text", ARGS).
+                formatTo(state.buffer);
+        return state.buffer.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int reusableFormatTo(final ThreadState state) {
+        state.buffer.setLength(0);
+        final Message message = ReusableMessageFactory.INSTANCE.newMessage(
+                "pattern {} with {} two parameters and some text", ARGS[0], ARGS[1]);
+        ((StringBuilderFormattable) message).formatTo(state.buffer);
+        ReusableMessageFactory.release(message);
+        return state.buffer.length();
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.RegexFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the RegexFilter, which rejects messages without the literals required by its regular expression before
+ * running it, with running the regular expression on every message.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*RegexFilterBenchmark.*" -f 1 -i 5 -wi 5 -tu ns -bm avgt
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegexFilterBenchmark {
+
+    private static final String REGEX = ".*Connection re(fused|set).*";
+
+    @Param({"Processed order {} for customer {} in {} ms", "Connection refused by {} after {} ms"})
+    public String format;
+
+    private Pattern pattern;
+    private Filter filter;
+    private LogEvent event;
+
+    @Setup
+    public void setUp() throws Exception {
+        pattern = Pattern.compile(REGEX);
+        filter = RegexFilter.createFilter(REGEX, null, false, null, null);
+        event = Log4jLogEvent.newBuilder().setLoggerName("benchmark")
+                .setMessage(new ParameterizedMessage(format, "12345", "ACME", 42)).build();
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return pattern.matcher(event.getMessage().getFormattedMessage()).matches();
+    }
+
+    @Benchmark
+    public Filter.Result prefiltered() {
+        return filter.filter(event);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.lookup.Interpolator;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the substitution of a routing key for each LogEvent with a compiled template and with a parsed one.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*StrSubstitutorBenchmark.*" -f 1 -i 5 -wi 5 -tu ns -bm avgt -prof gc
+@State(Scope.Thread)
+public class StrSubstitutorBenchmark {
+
+    private static final String TEMPLATE = "${env:PATH:-none}/${sys:java.version}/${ctx:user:-anonymous}";
+    private static final String PROPERTY_TEMPLATE = "${app}-${sys:user.name}.log";
+
+    private final StrSubstitutor substitutor;
+    private final LogEvent event = Log4jLogEvent.newBuilder().setLoggerName("benchmark")
+            .setMessage(new SimpleMessage("message")).build();
+
+    public StrSubstitutorBenchmark() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("app", "benchmark");
+        substitutor = new StrSubstitutor(new Interpolator(properties));
+    }
+
+    @Benchmark
+    public String compiled() {
+        return substitutor.replace(event, TEMPLATE);
+    }
+
+    @Benchmark
+    public String parsed() {
+        return substitutor.replace(event, TEMPLATE, 0, TEMPLATE.length());
+    }
+
+    @Benchmark
+    public String compiledProperty() {
+        return substitutor.replace(event, PROPERTY_TEMPLATE);
+    }
+
+    @Benchmark
+    public String parsedProperty() {
+        return substitutor.replace(event, PROPERTY_TEMPLATE, 0, PROPERTY_TEMPLATE.length());
+    }
+}
@@ -17,6 +17,8 @@
 
 package org.apache.logging.log4j.perf.jmh;
 
+import org.apache.logging.log4j.core.util.JsonUtils;
+import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
 import org.apache.logging.log4j.util.StringBuilders;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -42,10 +44,16 @@ public class StringBuilderEscapeBenchmark {
 
     private static final String EVERY_CHARACTER_MUST_BE_ESCAPED_JSON = repeat("\t\"", 1024);
     private static final String EVERY_CHARACTER_MUST_BE_ESCAPED_XML = repeat("<\"&>", 512);
+    private static final String FEW_CHARACTERS_MUST_BE_ESCAPED_JSON =
+            repeat("\tat org.apache.logging.log4j.perf.jmh.StringBuilderEscapeBenchmark.escape(Benchmark.java:42)\n", 32);
 
     @State(Scope.Thread)
     public static class ThreadState {
         StringBuilder buffer = new StringBuilder(1024 * 4);
+        JsonWriter jsonWriter = JsonWriter.newBuilder()
+                .setMaxStringLength(1024 * 4)
+                .setTruncatedStringSuffix("…")
+                .build();
     }
 
     @Benchmark
@@ -58,6 +66,44 @@ public class StringBuilderEscapeBenchmark {
         return state.buffer.length();
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int quoteJsonUtilsLargeString(final ThreadState state) {
+        state.buffer.setLength(0);
+        JsonUtils.quoteAsString(EVERY_CHARACTER_MUST_BE_ESCAPED_JSON, state.buffer);
+        return state.buffer.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int quoteJsonUtilsLargeStringFewEscapes(final ThreadState state) {
+        state.buffer.setLength(0);
+        JsonUtils.quoteAsString(FEW_CHARACTERS_MUST_BE_ESCAPED_JSON, state.buffer);
+        return state.buffer.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int writeJsonWriterLargeString(final ThreadState state) {
+        final StringBuilder stringBuilder = state.jsonWriter.getStringBuilder();
+        stringBuilder.setLength(0);
+        state.jsonWriter.writeString(EVERY_CHARACTER_MUST_BE_ESCAPED_JSON);
+        return stringBuilder.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int writeJsonWriterLargeStringFewEscapes(final ThreadState state) {
+        final StringBuilder stringBuilder = state.jsonWriter.getStringBuilder();
+        stringBuilder.setLength(0);
+        state.jsonWriter.writeString(FEW_CHARACTERS_MUST_BE_ESCAPED_JSON);
+        return stringBuilder.length();
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.perf.jmh;
 
 import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.message.ParameterBuffer;
 import org.apache.logging.log4j.util.Unbox;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -28,7 +29,7 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 
 /**
- * Benchmarks the Unbox class.
+ * Benchmarks the Unbox class, and the ParameterBuffer class which holds primitive parameters without boxing them.
  */
 // ============================== HOW TO RUN THIS TEST: ====================================
 //
@@ -47,6 +48,12 @@ import org.openjdk.jmh.annotations.State;
 @State(Scope.Benchmark)
 public class UnboxBenchmark {
 
+    @State(Scope.Thread)
+    public static class Buffers {
+        final ParameterBuffer parameters = new ParameterBuffer();
+        final StringBuilder text = new StringBuilder(64);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -88,4 +95,39 @@ public class UnboxBenchmark {
     public StringBuilder boxShort() {
         return Unbox.box((short) 123);
     }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ParameterBuffer bufferLong(final Buffers buffers) {
+        buffers.parameters.clear();
+        return buffers.parameters.add(12345L);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ParameterBuffer bufferDouble(final Buffers buffers) {
+        buffers.parameters.clear();
+        return buffers.parameters.add(12345.12345);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public StringBuilder boxAndFormatLong(final Buffers buffers) {
+        buffers.text.setLength(0);
+        return buffers.text.append(Unbox.box(12345L));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public StringBuilder bufferAndFormatLong(final Buffers buffers) {
+        buffers.parameters.clear();
+        buffers.parameters.add(12345L);
+        buffers.text.setLength(0);
+        buffers.parameters.formatTo(0, buffers.text);
+        return buffers.text;
+    }
 }
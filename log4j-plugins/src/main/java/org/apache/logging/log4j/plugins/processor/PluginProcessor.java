@@ -20,6 +20,8 @@ package org.apache.logging.log4j.plugins.processor;
 import org.apache.logging.log4j.LoggingException;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAliases;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.plugins.util.Builder;
 import org.apache.logging.log4j.util.Strings;
 
 import javax.annotation.processing.AbstractProcessor;
@@ -29,10 +31,15 @@ import javax.annotation.processing.SupportedAnnotationTypes;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementVisitor;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.SimpleElementVisitor7;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic.Kind;
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
@@ -49,6 +56,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -92,7 +100,7 @@ public class PluginProcessor extends AbstractProcessor {
             messager.printMessage(Kind.NOTE, "Retrieved " + elements.size() + " Plugin elements");
             List<PluginEntry> list = new ArrayList<>();
             packageName = collectPlugins(packageName, elements, list);
-            writeClassFile(packageName, list);
+            writeClassFile(packageName, list, collectBuilderFactories(elements));
             writeServiceFile(packageName);
             messager.printMessage(Kind.NOTE, "Annotations processed");
             return true;
@@ -131,6 +139,57 @@ public class PluginProcessor extends AbstractProcessor {
         return packageName;
     }
 
+    /**
+     * Returns the calls to the builder factory methods of the plugins that the generated code can call directly, by
+     * binary name of the plugin class. These methods are the public static methods annotated with
+     * {@link PluginFactory} that take no argument and return a {@link Builder}, declared by public classes.
+     */
+    private Map<String, String> collectBuilderFactories(final Iterable<? extends Element> elements) {
+        final Elements elementUtils = processingEnv.getElementUtils();
+        final Types typeUtils = processingEnv.getTypeUtils();
+        final TypeMirror builderType = typeUtils.erasure(
+                elementUtils.getTypeElement(Builder.class.getCanonicalName()).asType());
+        final Map<String, String> factories = new TreeMap<>();
+        for (final Element element : elements) {
+            if (element.getAnnotation(Plugin.class) == null || !(element instanceof TypeElement)
+                    || !isAccessible((TypeElement) element)) {
+                continue;
+            }
+            final TypeElement type = (TypeElement) element;
+            for (final ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                final Set<Modifier> modifiers = method.getModifiers();
+                if (method.getAnnotation(PluginFactory.class) != null && modifiers.contains(Modifier.PUBLIC)
+                        && modifiers.contains(Modifier.STATIC) && method.getParameters().isEmpty()
+                        && method.getThrownTypes().isEmpty()
+                        && typeUtils.isAssignable(typeUtils.erasure(method.getReturnType()), builderType)) {
+                    factories.put(elementUtils.getBinaryName(type).toString(),
+                            type.getQualifiedName() + "." + method.getSimpleName() + "()");
+                    break;
+                }
+            }
+        }
+        return factories;
+    }
+
+    /**
+     * Returns {@code true} if the specified class can be referenced from any package.
+     */
+    private static boolean isAccessible(final TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement) {
+            final Set<Modifier> modifiers = element.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            final Element enclosing = element.getEnclosingElement();
+            if (enclosing instanceof TypeElement && !modifiers.contains(Modifier.STATIC)) {
+                return false;
+            }
+            element = enclosing;
+        }
+        return true;
+    }
+
     private String calculatePackage(Elements elements, Element element, String packageName) {
         Name name = elements.getPackageOf(element).getQualifiedName();
         if (name == null) {
@@ -158,13 +217,16 @@ public class PluginProcessor extends AbstractProcessor {
         }
     }
 
-    private void writeClassFile(String pkg, List<PluginEntry> list) {
+    private void writeClassFile(String pkg, List<PluginEntry> list, Map<String, String> builderFactories) {
         String fqcn = createFqcn(pkg);
         try (final PrintWriter writer = createSourceFile(fqcn)) {
             writer.println("package " + pkg + ".plugins;");
             writer.println("");
             writer.println("import org.apache.logging.log4j.plugins.processor.PluginEntry;");
             writer.println("import org.apache.logging.log4j.plugins.processor.PluginService;");
+            if (!builderFactories.isEmpty()) {
+                writer.println("import org.apache.logging.log4j.plugins.util.Builder;");
+            }
             writer.println("");
             writer.println("public class Log4jPlugins extends PluginService {");
             writer.println("");
@@ -189,6 +251,20 @@ public class PluginProcessor extends AbstractProcessor {
             writer.println("    };");
             writer.println("    @Override");
             writer.println("    public PluginEntry[] getEntries() { return entries;}");
+            if (!builderFactories.isEmpty()) {
+                writer.println("");
+                writer.println("    @Override");
+                writer.println("    public Builder<?> newBuilder(final String className) {");
+                writer.println("        switch (className) {");
+                for (final Map.Entry<String, String> factory : builderFactories.entrySet()) {
+                    writer.println("            case \"" + factory.getKey() + "\":");
+                    writer.println("                return " + factory.getValue() + ";");
+                }
+                writer.println("            default:");
+                writer.println("                return null;");
+                writer.println("        }");
+                writer.println("    }");
+            }
             writer.println("}");
         }
     }
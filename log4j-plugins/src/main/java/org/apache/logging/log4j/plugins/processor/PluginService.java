@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.plugins.processor;
 
+import org.apache.logging.log4j.plugins.util.Builder;
 import org.apache.logging.log4j.plugins.util.PluginType;
 
 import java.util.Collections;
@@ -36,13 +37,25 @@ public abstract class PluginService {
         for (PluginEntry entry : entries) {
             String category = entry.getCategory().toLowerCase();
             List<PluginType<?>> list = categories.computeIfAbsent(category, ignored -> new LinkedList<>());
-            PluginType<?> type = new PluginType<>(entry, this.getClass().getClassLoader());
+            PluginType<?> type = new PluginType<>(entry, this.getClass().getClassLoader(),
+                    () -> newBuilder(entry.getClassName()));
             list.add(type);
         }
     }
 
     public abstract PluginEntry[] getEntries();
 
+    /**
+     * Creates the builder of the specified plugin class. The subclasses generated by {@link PluginProcessor} override
+     * this method to call the builder factory method of their plugins directly, instead of through reflection.
+     *
+     * @param className the binary name of the plugin class
+     * @return the builder, or {@code null} if this service cannot create it
+     */
+    public Builder<?> newBuilder(final String className) {
+        return null;
+    }
+
     public Map<String, List<PluginType<?>>> getCategories() {
         return Collections.unmodifiableMap(categories);
     }
@@ -218,7 +218,8 @@ public class PluginRegistry {
         for (final PluginService pluginService : serviceLoader) {
             PluginEntry[] entries = pluginService.getEntries();
             for (PluginEntry entry : entries) {
-                final PluginType<?> type = new PluginType<>(entry, classLoader);
+                final PluginType<?> type = new PluginType<>(entry, classLoader,
+                        () -> pluginService.newBuilder(entry.getClassName()));
                 String category = entry.getCategory().toLowerCase();
                 if (!map.containsKey(category)) {
                     map.put(category, new ArrayList<>());
@@ -19,6 +19,8 @@ package org.apache.logging.log4j.plugins.util;
 
 import org.apache.logging.log4j.plugins.processor.PluginEntry;
 
+import java.util.function.Supplier;
+
 /**
  * Plugin Descriptor. This is a memento object for Plugin annotations paired to their annotated classes.
  *
@@ -31,6 +33,7 @@ public class PluginType<T> {
     private volatile Class<T> pluginClass;
     private final ClassLoader classLoader;
     private final String elementName;
+    private final Supplier<Builder<?>> builderFactory;
 
     /**
      * Constructor.
@@ -44,6 +47,7 @@ public class PluginType<T> {
         this.pluginClass = pluginClass;
         this.elementName = elementName;
         this.classLoader = null;
+        this.builderFactory = null;
     }
 
     /**
@@ -53,10 +57,23 @@ public class PluginType<T> {
      * @param classLoader The ClassLoader to use to load the Plugin.
      */
     public PluginType(final PluginEntry pluginEntry, final ClassLoader classLoader) {
+        this(pluginEntry, classLoader, null);
+    }
+
+    /**
+     * The Constructor.
+     * @since 3.0
+     * @param pluginEntry The PluginEntry.
+     * @param classLoader The ClassLoader to use to load the Plugin.
+     * @param builderFactory Creates the builder of the Plugin without reflection, returning {@code null} if it cannot.
+     */
+    public PluginType(final PluginEntry pluginEntry, final ClassLoader classLoader,
+                      final Supplier<Builder<?>> builderFactory) {
         this.pluginEntry = pluginEntry;
         this.classLoader = classLoader;
         this.elementName = pluginEntry.getName();
         this.pluginClass = null;
+        this.builderFactory = builderFactory;
     }
 
 
@@ -77,6 +94,15 @@ public class PluginType<T> {
         return this.pluginClass;
     }
 
+    /**
+     * Returns a new builder of the plugin, created by code generated at compile time instead of by reflection.
+     * @return the builder, or {@code null} if no code was generated to create it.
+     * @since 3.0
+     */
+    public Builder<?> newBuilder() {
+        return builderFactory == null ? null : builderFactory.get();
+    }
+
     public String getElementName() {
         return this.elementName;
     }
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.plugins.processor;
 
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAliases;
+import org.apache.logging.log4j.plugins.PluginFactory;
 
 /**
  * Test plugin class for unit tests.
@@ -30,4 +31,29 @@ public class FakePlugin {
     @Plugin(name = "Nested", category = "Test")
     public static class Nested {
     }
+
+    @Plugin(name = "Built", category = "Test")
+    public static class Built {
+
+        @PluginFactory
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        public static class Builder implements org.apache.logging.log4j.plugins.util.Builder<Built> {
+            @Override
+            public Built build() {
+                return new Built();
+            }
+        }
+    }
+
+    @Plugin(name = "Hidden", category = "Test")
+    static class Hidden {
+
+        @PluginFactory
+        public static Built.Builder newBuilder() {
+            return new Built.Builder();
+        }
+    }
 }
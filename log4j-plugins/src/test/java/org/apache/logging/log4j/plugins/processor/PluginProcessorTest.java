@@ -98,6 +98,32 @@ public class PluginProcessorTest {
         assertEquals(p.deferChildren(), nested.isDefer());
     }
 
+    @Test
+    public void testBuilderIsCreatedByGeneratedCode() throws Exception {
+        final Plugin p = FakePlugin.Built.class.getAnnotation(Plugin.class);
+        final List<PluginType<?>> list = pluginService.getCategory(p.category());
+        final PluginType<?> type = getType(list, p.name());
+        assertNotNull(type);
+        assertTrue(type.newBuilder() instanceof FakePlugin.Built.Builder);
+        assertTrue(pluginService.newBuilder(FakePlugin.Built.class.getName()) instanceof FakePlugin.Built.Builder);
+    }
+
+    @Test
+    public void testNoCodeIsGeneratedForInaccessiblePlugin() throws Exception {
+        final PluginType<?> type = getType(pluginService.getCategory("Test"), "Hidden");
+        assertNotNull(type);
+        assertNull(type.newBuilder());
+    }
+
+    private PluginType<?> getType(List<PluginType<?>> list, String name) {
+        for (PluginType<?> type : list) {
+            if (type.getPluginEntry().getName().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
     private PluginEntry getEntry(List<PluginType<?>> list, String name) {
         for (PluginType<?> type : list) {
             if (type.getPluginEntry().getName().equalsIgnoreCase(name)) {
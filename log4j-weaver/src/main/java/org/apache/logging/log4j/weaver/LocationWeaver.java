@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.weaver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.FrameNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+/**
+ * Rewrites compiled classes so that their {@code LogBuilder} call sites carry a constant caller location.
+ * <p>
+ * Every {@code atTrace()}, ..., {@code atFatal()}, {@code always()} and {@code atLevel(Level)} invocation is followed
+ * by a call to {@code LogBuilder.withLocation(StackTraceElement)} describing the call site, and every
+ * {@code LogBuilder.withLocation()} invocation is replaced by that same call. Classes compiled for Java 11 or later
+ * load the location through a dynamic constant, so it is created once per call site. Older classes pass the parts of
+ * the location to a synthetic method added to the class, which only creates it if the builder is not
+ * {@link org.apache.logging.log4j.LogBuilder#NOOP}, that is if the level is enabled. Interfaces compiled for older
+ * versions cannot have private methods and create the location inline, even if the level is disabled.
+ * Either way the logging call no longer walks the stack, even if the layout renders the caller location.
+ * </p>
+ * <p>
+ * Classic calls like {@code Logger.info(String, Object...)} are left untouched: they check filters with the message
+ * parameters and extract a trailing {@code Throwable}, which a {@code LogBuilder} chain does not do.
+ * </p>
+ * <p>
+ * The weaver rewrites class directories in place, for example from {@code exec-maven-plugin} bound to the
+ * {@code process-classes} phase:
+ * </p>
+ * <pre>
+ * java -cp log4j-weaver.jar:asm.jar:asm-tree.jar org.apache.logging.log4j.weaver.LocationWeaver target/classes
+ * </pre>
+ */
+public final class LocationWeaver {
+
+    private static final String LOG_BUILDER = "org/apache/logging/log4j/LogBuilder";
+    private static final String STACK_TRACE_ELEMENT = "java/lang/StackTraceElement";
+    private static final String STACK_TRACE_ELEMENT_DESCRIPTOR = "L" + STACK_TRACE_ELEMENT + ";";
+    private static final String STACK_TRACE_ELEMENT_CONSTRUCTOR_DESCRIPTOR =
+            "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;I)V";
+    private static final String NO_ARGS_DESCRIPTOR = "()L" + LOG_BUILDER + ";";
+    private static final String AT_LEVEL_DESCRIPTOR = "(Lorg/apache/logging/log4j/Level;)L" + LOG_BUILDER + ";";
+    private static final String WITH_LOCATION_DESCRIPTOR = "(" + STACK_TRACE_ELEMENT_DESCRIPTOR + ")L" + LOG_BUILDER + ";";
+    private static final String WITH_LOCATION = "withLocation";
+    private static final String LOCATE = "log4j$withLocation";
+    private static final String LOCATE_DESCRIPTOR = "(L" + LOG_BUILDER
+            + ";Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;I)L" + LOG_BUILDER + ";";
+    private static final Set<String> LEVEL_METHODS =
+            Set.of("atTrace", "atDebug", "atInfo", "atWarn", "atError", "atFatal", "always");
+
+    private static final Handle LOCATION_BOOTSTRAP = new Handle(Opcodes.H_INVOKESTATIC,
+            "java/lang/invoke/ConstantBootstraps", "invoke",
+            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;Ljava/lang/invoke/MethodHandle;"
+                    + "[Ljava/lang/Object;)Ljava/lang/Object;", false);
+    private static final Handle LOCATION_CONSTRUCTOR = new Handle(Opcodes.H_NEWINVOKESPECIAL, STACK_TRACE_ELEMENT,
+            "<init>", STACK_TRACE_ELEMENT_CONSTRUCTOR_DESCRIPTOR, false);
+
+    private LocationWeaver() {
+    }
+
+    /**
+     * Weaves all class files found under the given directories in place.
+     *
+     * @param args the class directories.
+     * @throws IOException if a class file cannot be read or written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: LocationWeaver <classes directory>...");
+            return;
+        }
+        int count = 0;
+        for (final String arg : args) {
+            count += weaveDirectory(Paths.get(arg));
+        }
+        System.out.println("Added caller locations to " + count + " class file(s)");
+    }
+
+    /**
+     * Weaves all class files found under the given directory in place.
+     *
+     * @param directory the class directory.
+     * @return the number of class files that were rewritten.
+     * @throws IOException if a class file cannot be read or written.
+     */
+    public static int weaveDirectory(final Path directory) throws IOException {
+        final List<Path> classFiles;
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            classFiles = paths.filter(path -> {
+                final String fileName = path.getFileName().toString();
+                return fileName.endsWith(".class") && !fileName.equals("module-info.class") && Files.isRegularFile(path);
+            }).collect(Collectors.toList());
+        }
+        int count = 0;
+        for (final Path classFile : classFiles) {
+            final byte[] original = Files.readAllBytes(classFile);
+            final byte[] woven = weave(original);
+            if (woven != original) {
+                Files.write(classFile, woven);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Weaves a single class file.
+     *
+     * @param classFile the class file contents.
+     * @return the rewritten class file, or {@code classFile} itself if it has no call site left to weave.
+     */
+    public static byte[] weave(final byte[] classFile) {
+        final ClassNode classNode = new ClassNode();
+        new ClassReader(classFile).accept(classNode, 0);
+        final int version = classNode.version & 0xFFFF;
+        final Mode mode = version >= Opcodes.V11 ? Mode.CONSTANT_DYNAMIC
+                : (classNode.access & Opcodes.ACC_INTERFACE) != 0 ? Mode.INLINE : Mode.LOCATE_METHOD;
+        boolean modified = false;
+        for (final MethodNode method : classNode.methods) {
+            modified |= weave(classNode, method, mode);
+        }
+        if (!modified) {
+            return classFile;
+        }
+        if (mode == Mode.LOCATE_METHOD && !hasLocateMethod(classNode)) {
+            classNode.methods.add(locateMethod(version));
+        }
+        // Only straight-line code is inserted in existing methods, so their stack map frames remain valid.
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classNode.accept(writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * How woven call sites obtain their location.
+     */
+    private enum Mode {
+        /** Loaded from a dynamic constant, created once per call site. */
+        CONSTANT_DYNAMIC,
+        /** Created by a synthetic method of the class if the level is enabled. */
+        LOCATE_METHOD,
+        /** Created inline on every call. */
+        INLINE
+    }
+
+    private static boolean weave(final ClassNode classNode, final MethodNode method, final Mode mode) {
+        boolean modified = false;
+        int line = -1;
+        for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof LineNumberNode) {
+                line = ((LineNumberNode) insn).line;
+            } else if (insn instanceof MethodInsnNode) {
+                final MethodInsnNode invoke = (MethodInsnNode) insn;
+                if (isLevelCall(invoke) && !isLocated(invoke.getNext())) {
+                    final InsnList location = location(classNode, method, line, mode);
+                    location.add(withLocation(classNode, mode));
+                    method.instructions.insert(invoke, location);
+                    modified = true;
+                } else if (isWithLocationCall(invoke)) {
+                    method.instructions.insertBefore(invoke, location(classNode, method, line, mode));
+                    final MethodInsnNode replacement = withLocation(classNode, mode);
+                    method.instructions.set(invoke, replacement);
+                    insn = replacement;
+                    modified = true;
+                }
+            }
+        }
+        return modified;
+    }
+
+    private static MethodInsnNode withLocation(final ClassNode classNode, final Mode mode) {
+        return mode == Mode.LOCATE_METHOD
+                ? new MethodInsnNode(Opcodes.INVOKESTATIC, classNode.name, LOCATE, LOCATE_DESCRIPTOR, false)
+                : new MethodInsnNode(Opcodes.INVOKEINTERFACE, LOG_BUILDER, WITH_LOCATION, WITH_LOCATION_DESCRIPTOR,
+                        true);
+    }
+
+    private static boolean hasLocateMethod(final ClassNode classNode) {
+        for (final MethodNode method : classNode.methods) {
+            if (LOCATE.equals(method.name) && LOCATE_DESCRIPTOR.equals(method.desc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the method passing the location to a builder, unless it is the no-op builder of disabled levels:
+     * <pre>
+     * private static LogBuilder log4j$withLocation(LogBuilder builder, String className, String methodName,
+     *         String fileName, int lineNumber) {
+     *     if (builder == LogBuilder.NOOP) {
+     *         return builder;
+     *     }
+     *     return builder.withLocation(new StackTraceElement(className, methodName, fileName, lineNumber));
+     * }
+     * </pre>
+     */
+    private static MethodNode locateMethod(final int version) {
+        final MethodNode method = new MethodNode(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC,
+                LOCATE, LOCATE_DESCRIPTOR, null, null);
+        final InsnList insns = method.instructions;
+        final LabelNode enabled = new LabelNode();
+        insns.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        insns.add(new FieldInsnNode(Opcodes.GETSTATIC, LOG_BUILDER, "NOOP", "L" + LOG_BUILDER + ";"));
+        insns.add(new JumpInsnNode(Opcodes.IF_ACMPNE, enabled));
+        insns.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        insns.add(new InsnNode(Opcodes.ARETURN));
+        insns.add(enabled);
+        if (version >= Opcodes.V1_6) {
+            insns.add(new FrameNode(Opcodes.F_SAME, 0, null, 0, null));
+        }
+        insns.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        insns.add(new TypeInsnNode(Opcodes.NEW, STACK_TRACE_ELEMENT));
+        insns.add(new InsnNode(Opcodes.DUP));
+        insns.add(new VarInsnNode(Opcodes.ALOAD, 1));
+        insns.add(new VarInsnNode(Opcodes.ALOAD, 2));
+        insns.add(new VarInsnNode(Opcodes.ALOAD, 3));
+        insns.add(new VarInsnNode(Opcodes.ILOAD, 4));
+        insns.add(new MethodInsnNode(Opcodes.INVOKESPECIAL, STACK_TRACE_ELEMENT, "<init>",
+                STACK_TRACE_ELEMENT_CONSTRUCTOR_DESCRIPTOR, false));
+        insns.add(new MethodInsnNode(Opcodes.INVOKEINTERFACE, LOG_BUILDER, WITH_LOCATION, WITH_LOCATION_DESCRIPTOR,
+                true));
+        insns.add(new InsnNode(Opcodes.ARETURN));
+        return method;
+    }
+
+    private static boolean isLevelCall(final MethodInsnNode invoke) {
+        return invoke.getOpcode() != Opcodes.INVOKESTATIC
+                && (LEVEL_METHODS.contains(invoke.name) && NO_ARGS_DESCRIPTOR.equals(invoke.desc)
+                || "atLevel".equals(invoke.name) && AT_LEVEL_DESCRIPTOR.equals(invoke.desc));
+    }
+
+    private static boolean isWithLocationCall(final MethodInsnNode invoke) {
+        return invoke.getOpcode() != Opcodes.INVOKESTATIC && WITH_LOCATION.equals(invoke.name)
+                && NO_ARGS_DESCRIPTOR.equals(invoke.desc);
+    }
+
+    /**
+     * Tests whether the instruction following a level call already provides the location, either because the class
+     * was woven before or because the caller asks for it explicitly.
+     */
+    private static boolean isLocated(final AbstractInsnNode next) {
+        if (next instanceof LdcInsnNode) {
+            if (((LdcInsnNode) next).cst instanceof ConstantDynamic) {
+                return true;
+            }
+            // the class name, method name, file name and line number passed to the synthetic method
+            AbstractInsnNode insn = next;
+            for (int i = 0; i < 4 && insn != null; i++) {
+                insn = insn.getNext();
+            }
+            return insn instanceof MethodInsnNode && LOCATE.equals(((MethodInsnNode) insn).name);
+        }
+        if (next instanceof TypeInsnNode) {
+            return STACK_TRACE_ELEMENT.equals(((TypeInsnNode) next).desc);
+        }
+        return next instanceof MethodInsnNode && isWithLocationCall((MethodInsnNode) next);
+    }
+
+    private static InsnList location(final ClassNode classNode, final MethodNode method, final int line,
+            final Mode mode) {
+        final String className = classNode.name.replace('/', '.');
+        final String fileName = classNode.sourceFile;
+        final InsnList insns = new InsnList();
+        if (mode == Mode.CONSTANT_DYNAMIC && fileName != null) {
+            insns.add(new LdcInsnNode(new ConstantDynamic("location", STACK_TRACE_ELEMENT_DESCRIPTOR,
+                    LOCATION_BOOTSTRAP, LOCATION_CONSTRUCTOR, className, method.name, fileName, line)));
+            return insns;
+        }
+        if (mode != Mode.LOCATE_METHOD) {
+            insns.add(new TypeInsnNode(Opcodes.NEW, STACK_TRACE_ELEMENT));
+            insns.add(new InsnNode(Opcodes.DUP));
+        }
+        insns.add(new LdcInsnNode(className));
+        insns.add(new LdcInsnNode(method.name));
+        insns.add(fileName != null ? new LdcInsnNode(fileName) : new InsnNode(Opcodes.ACONST_NULL));
+        insns.add(new LdcInsnNode(line));
+        if (mode != Mode.LOCATE_METHOD) {
+            insns.add(new MethodInsnNode(Opcodes.INVOKESPECIAL, STACK_TRACE_ELEMENT, "<init>",
+                    STACK_TRACE_ELEMENT_CONSTRUCTOR_DESCRIPTOR, false));
+        }
+        return insns;
+    }
+}
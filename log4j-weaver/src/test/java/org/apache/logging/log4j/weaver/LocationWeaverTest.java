@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.weaver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogBuilder;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocationWeaverTest {
+
+    public static final class Sample {
+
+        public static int run(final Logger logger) {
+            final int line = new Throwable().getStackTrace()[0].getLineNumber();
+            logger.atInfo().log("Hello");
+            logger.atLevel(Level.WARN).withLocation().log("Goodbye");
+            return line;
+        }
+
+    }
+
+    private static final class WovenClassLoader extends ClassLoader {
+
+        WovenClassLoader() {
+            super(LocationWeaverTest.class.getClassLoader());
+        }
+
+        Class<?> define(final byte[] bytes) {
+            return defineClass(Sample.class.getName(), bytes, 0, bytes.length);
+        }
+
+    }
+
+    private static byte[] sampleBytes() throws IOException {
+        try (final InputStream in = LocationWeaverTest.class.getResourceAsStream("LocationWeaverTest$Sample.class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Runs {@link Sample} from the given class file and returns the locations passed to the log builders.
+     */
+    private static List<StackTraceElement> run(final Class<?> sample, final int[] line) throws Exception {
+        final List<StackTraceElement> locations = new ArrayList<>();
+        final LogBuilder builder = (LogBuilder) Proxy.newProxyInstance(LocationWeaverTest.class.getClassLoader(),
+                new Class<?>[] {LogBuilder.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("withLocation") && args != null) {
+                        locations.add((StackTraceElement) args[0]);
+                    }
+                    return method.getReturnType() == LogBuilder.class ? proxy : null;
+                });
+        final Logger logger = (Logger) Proxy.newProxyInstance(LocationWeaverTest.class.getClassLoader(),
+                new Class<?>[] {Logger.class}, (proxy, method, args) -> builder);
+        line[0] = (Integer) sample.getMethod("run", Logger.class).invoke(null, logger);
+        return locations;
+    }
+
+    private static void assertLocations(final List<StackTraceElement> locations, final int line) {
+        assertEquals(2, locations.size());
+        assertEquals(new StackTraceElement(Sample.class.getName(), "run", "LocationWeaverTest.java", line + 1),
+                locations.get(0));
+        assertEquals(new StackTraceElement(Sample.class.getName(), "run", "LocationWeaverTest.java", line + 2),
+                locations.get(1));
+    }
+
+    @Test
+    public void testWeaveLogBuilderCallSites() throws Exception {
+        final Class<?> sample = new WovenClassLoader().define(LocationWeaver.weave(sampleBytes()));
+        final int[] line = new int[1];
+        final List<StackTraceElement> first = run(sample, line);
+        assertLocations(first, line[0]);
+        final List<StackTraceElement> second = run(sample, line);
+        assertSame(first.get(0), second.get(0));
+        assertSame(first.get(1), second.get(1));
+    }
+
+    @Test
+    public void testWeaveJava8ClassFile() throws Exception {
+        final byte[] bytes = sampleBytes();
+        bytes[6] = 0;
+        bytes[7] = Opcodes.V1_8;
+        final Class<?> sample = new WovenClassLoader().define(LocationWeaver.weave(bytes));
+        final int[] line = new int[1];
+        assertLocations(run(sample, line), line[0]);
+    }
+
+    @Test
+    public void testJava8ClassFileSkipsLocationOfDisabledLevels() throws Exception {
+        final byte[] bytes = sampleBytes();
+        bytes[6] = 0;
+        bytes[7] = Opcodes.V1_8;
+        final byte[] woven = LocationWeaver.weave(bytes);
+        assertSame(woven, LocationWeaver.weave(woven));
+        final ClassNode classNode = new ClassNode();
+        new ClassReader(woven).accept(classNode, 0);
+        for (final MethodNode method : classNode.methods) {
+            if (method.name.equals("run")) {
+                for (final AbstractInsnNode insn : method.instructions) {
+                    if (insn instanceof TypeInsnNode) {
+                        assertNotEquals("java/lang/StackTraceElement", ((TypeInsnNode) insn).desc,
+                                "location created before the level is checked");
+                    }
+                }
+            }
+        }
+        final Class<?> sample = new WovenClassLoader().define(woven);
+        final Logger logger = (Logger) Proxy.newProxyInstance(LocationWeaverTest.class.getClassLoader(),
+                new Class<?>[] {Logger.class}, (proxy, method, args) -> LogBuilder.NOOP);
+        sample.getMethod("run", Logger.class).invoke(null, logger);
+    }
+
+    @Test
+    public void testWeaveIsIdempotent() throws Exception {
+        final byte[] woven = LocationWeaver.weave(sampleBytes());
+        assertSame(woven, LocationWeaver.weave(woven));
+    }
+
+    @Test
+    public void testClassWithoutCallSitesIsUnchanged() throws Exception {
+        final byte[] bytes;
+        try (final InputStream in = LocationWeaverTest.class.getResourceAsStream("LocationWeaverTest$WovenClassLoader.class")) {
+            bytes = in.readAllBytes();
+        }
+        assertSame(bytes, LocationWeaver.weave(bytes));
+    }
+
+    @Test
+    public void testWeaveDirectory(@TempDir final Path directory) throws Exception {
+        final Path classFile = directory.resolve("org/example/Sample.class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, sampleBytes());
+        Files.write(directory.resolve("module-info.class"), new byte[] {0});
+        assertEquals(1, LocationWeaver.weaveDirectory(directory));
+        assertEquals(0, LocationWeaver.weaveDirectory(directory));
+    }
+
+}